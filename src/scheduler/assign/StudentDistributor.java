@@ -1,6 +1,7 @@
 package scheduler.assign;
 
 import scheduler.model.Classroom;
+import scheduler.model.ScheduleStore;
 import scheduler.model.StudentExam;
 import scheduler.model.Timeslot;
 
@@ -16,6 +17,48 @@ import java.util.Random;
 public class StudentDistributor {
     long seed = 42L;
 
+    /**
+     * Koltuk sırası: pool'daki öğrenci ordinallerini (liste sürümüne verilen
+     * sırayla) yerinde karıştırır. Liste sürümüyle birebir aynı permütasyonu
+     * üretir (Collections.shuffle'ın belgelenmiş, sondan başa takas
+     * algoritması ve aynı tohum). Nesne tutmaz; farklı iş parçacıklarından
+     * çağrılabilir.
+     */
+    public void seatOrder(String courseId, Timeslot timeslot, int[] pool, long seed) {
+        Random rnd = new Random(seed ^ courseId.hashCode() ^ timeslot.getStart().toSecondOfDay());
+        for (int i = pool.length; i > 1; i--) {
+            int j = rnd.nextInt(i);
+            int tmp = pool[i - 1];
+            pool[i - 1] = pool[j];
+            pool[j] = tmp;
+        }
+    }
+
+    // Oturabilecek öğrenci sayısı (toplam kapasiteyle kırpılmış)
+    public static int seatedCount(List<Classroom> rooms, int students) {
+        long capacity = 0;
+        for (Classroom room : rooms)
+            capacity += Math.max(0, room.getCapacity());
+        return (int) Math.min(capacity, students);
+    }
+
+    /**
+     * seatOrder sırasındaki ilk seatedCount öğrenciyi odalara sırayla
+     * oturtur (liste sürümüyle aynı düzen) ve kayıtları out'un row'dan
+     * başlayan, önceden ayrılmış (reserve) satırlarına yazar. course, slot
+     * ve roomOrds out'ta önceden kaydedilmiş ordinallerdir; farklı satır
+     * aralıklarına eşzamanlı çağrılabilir.
+     */
+    public void seats(ScheduleStore.Builder out, int row, int course, int slot,
+            List<Classroom> rooms, int[] roomOrds, int[] order, int seated) {
+        int index = 0;
+        for (int k = 0; k < rooms.size() && index < seated; k++) {
+            int cap = Math.max(0, rooms.get(k).getCapacity());
+            for (int seatNo = 1; seatNo <= cap && index < seated; seatNo++)
+                out.set(row + index, order[index++], course, slot, roomOrds[k], seatNo);
+        }
+    }
+
     /**
      * @param courseId Ders kimliği
      * @param timeslot Sınav zaman aralığı
@@ -1,9 +1,47 @@
 package scheduler.config;
 
+// Çözücü ayarlarının (SolverParameters) varsayılanları bu sabitlerdir; çalışma
+// zamanında profil / kayıtlı ayarlarla değiştirilir. Bayraklar ve ağırlıklar sabit kalır.
 public class SchedulingConfig {
     public static final int GRID_MINUTES = 10;
     public static final int MIN_GAP_MINUTES = 60;
     public static final int MAX_EXAMS_PER_DAY = 2;
     public static final long DEADLINE_MS = 60000;
     public static final long RANDOM_SEED = 42L;
+    // Ders başına oda kombinasyonu, yerleştirmede denenen kombinasyon ve geri izleme kurbanı sayıları
+    public static final int ROOM_COMBO_LIMIT = 50;
+    public static final int PLACEMENT_RETRIES = 2;
+    public static final int BACKTRACK_VICTIMS = 3;
+    // Arayüz portföyünde paralel çözülen tohum sayısı
+    public static final int PORTFOLIO_RUNS = 10;
+    // true: önce timeslot renklendirme, sonra oda paketleme (ExamScheduler.solveTwoPhase)
+    public static final boolean TWO_PHASE_SOLVE = false;
+    // true: önce COARSE_GRID_MINUTES ızgarada çöz, sonra GRID_MINUTES ile iyileştir
+    // (iki bayrak SolverParameters.Strategy varsayılanını belirler)
+    public static final boolean COARSE_TO_FINE = false;
+    public static final int COARSE_GRID_MINUTES = 60;
+    // Kabadan inceye: yer açmak için kaydırılabilecek en fazla komşu sınav ve kaydırma (dakika)
+    public static final int SHIFT_NEIGHBOURS = 4;
+    public static final int SHIFT_WINDOW_MINUTES = 60;
+    // Başarısızlık teşhisinde değerlendirilecek en fazla (oda kombinasyonu × slot) çifti; 0 = hepsi
+    public static final int DIAGNOSIS_SAMPLE_LIMIT = 20000;
+    // Yumuşak kısıt ağırlıkları (0 = kapalı) ve eşikleri
+    public static final int SOFT_BACK_TO_BACK_WEIGHT = 3;
+    public static final int BACK_TO_BACK_WINDOW_MINUTES = 180;
+    public static final int SOFT_LATE_EXAM_WEIGHT = 1;
+    public static final int LATE_EXAM_START_MINUTE = 16 * 60;
+    public static final int SOFT_SPREAD_WEIGHT = 1;
+    // true: yerleştirme, seçilen gündeki geçerli saatlerden ağırlıklı cezası en düşük olanı alır
+    // (false: ilk geçerli saat; ceza yalnızca raporlanır ve koşuları karşılaştırır)
+    public static final boolean SOFT_GUIDED_PLACEMENT = false;
+    // true: geçerli slotlar, komşu derslerden en az seçenek kapatan önce gelecek şekilde denenir
+    // (LCV); yalnızca ilk LCV_SCORE_LIMIT geçerli slot puanlanır. SOFT_GUIDED_PLACEMENT'ın önündedir.
+    // Varsayılan kapalı (programları değiştirir); EXHAUSTIVE profili açar.
+    public static final boolean LCV_SLOT_ORDERING = false;
+    public static final int LCV_SCORE_LIMIT = 16;
+    // Luby yeniden başlatma: en fazla koşu sayısı (1 = kapalı) ve kesme birimi (geri izleme denemesi)
+    public static final int RESTART_LIMIT = 8;
+    public static final int RESTART_UNIT_BACKTRACKS = 32;
+    // Portföyün baskın olmayan sonuçlarından en fazla kaç tanesi saklanır (arayüzde seçilebilir)
+    public static final int PARETO_ARCHIVE_SIZE = 8;
 }
\ No newline at end of file
@@ -0,0 +1,498 @@
+package scheduler.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bir çözüm koşusunun değiştirilemez ayarları. ExamScheduler her koşuya
+ * bir örnek alır; böylece veri setine göre ayar yapmak için yeniden derlemek
+ * gerekmez. Varsayılanlar SchedulingConfig sabitleridir (BALANCED profili).
+ *
+ * İki tür alan vardır: kurallar (MIN_GAP, günlük sınav sınırı, tohum) ve
+ * performans ayarları (ızgara, kombinasyon / deneme / kurban sayıları,
+ * yeniden başlatma, LCV, portföy, süre sınırı). Profiller yalnızca
+ * performans ayarlarını değiştirir; kurallar ve çözüm stratejisi korunur.
+ */
+public final class SolverParameters {
+
+    /** Adlı performans profilleri. */
+    public enum Profile {
+        FAST_PREVIEW("Fast preview"),
+        BALANCED("Balanced"),
+        EXHAUSTIVE("Exhaustive");
+
+        private final String label;
+
+        Profile(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        // Kuralları base'den alır, performans ayarlarını profilden
+        public SolverParameters applyTo(SolverParameters base) {
+            Builder b = base.toBuilder().profile(this);
+            switch (this) {
+                case FAST_PREVIEW:
+                    return b.gridMinutes(30).roomComboLimit(10).placementRetries(1).backtrackVictims(2)
+                            .restartLimit(1).restartUnitBacktracks(16).lcvSlotOrdering(false).lcvScoreLimit(4)
+                            .portfolioRuns(2)
+                            .deadlineMs(10_000).build();
+                case EXHAUSTIVE:
+                    return b.gridMinutes(5).roomComboLimit(200).placementRetries(4).backtrackVictims(5)
+                            .restartLimit(24).restartUnitBacktracks(64).lcvSlotOrdering(true).lcvScoreLimit(32)
+                            .portfolioRuns(16)
+                            .deadlineMs(300_000).build();
+                default:
+                    return b.gridMinutes(SchedulingConfig.GRID_MINUTES)
+                            .roomComboLimit(SchedulingConfig.ROOM_COMBO_LIMIT)
+                            .placementRetries(SchedulingConfig.PLACEMENT_RETRIES)
+                            .backtrackVictims(SchedulingConfig.BACKTRACK_VICTIMS)
+                            .restartLimit(SchedulingConfig.RESTART_LIMIT)
+                            .restartUnitBacktracks(SchedulingConfig.RESTART_UNIT_BACKTRACKS)
+                            .lcvSlotOrdering(SchedulingConfig.LCV_SLOT_ORDERING)
+                            .lcvScoreLimit(SchedulingConfig.LCV_SCORE_LIMIT)
+                            .portfolioRuns(SchedulingConfig.PORTFOLIO_RUNS)
+                            .deadlineMs(SchedulingConfig.DEADLINE_MS).build();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /** ExamScheduler.solve'un izlediği yol. */
+    public enum Strategy {
+        STANDARD("Standard"),
+        TWO_PHASE("Two-phase"),
+        COARSE_TO_FINE("Coarse-to-fine");
+
+        private final String label;
+
+        Strategy(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final SolverParameters DEFAULTS = new Builder().build();
+
+    private final Profile profile;
+    private final Strategy strategy;
+    private final int gridMinutes;
+    private final int coarseGridMinutes;
+    private final int shiftNeighbours;
+    private final int shiftWindowMinutes;
+    private final int minGapMinutes;
+    private final int maxExamsPerDay;
+    private final long deadlineMs;
+    private final long randomSeed;
+    private final int roomComboLimit;
+    private final int placementRetries;
+    private final int backtrackVictims;
+    private final int restartLimit;
+    private final int restartUnitBacktracks;
+    private final boolean lcvSlotOrdering;
+    private final int lcvScoreLimit;
+    private final int portfolioRuns;
+
+    private SolverParameters(Builder b) {
+        this.profile = b.profile;
+        this.strategy = b.strategy;
+        this.gridMinutes = b.gridMinutes;
+        this.coarseGridMinutes = b.coarseGridMinutes;
+        this.shiftNeighbours = b.shiftNeighbours;
+        this.shiftWindowMinutes = b.shiftWindowMinutes;
+        this.minGapMinutes = b.minGapMinutes;
+        this.maxExamsPerDay = b.maxExamsPerDay;
+        this.deadlineMs = b.deadlineMs;
+        this.randomSeed = b.randomSeed;
+        this.roomComboLimit = b.roomComboLimit;
+        this.placementRetries = b.placementRetries;
+        this.backtrackVictims = b.backtrackVictims;
+        this.restartLimit = b.restartLimit;
+        this.restartUnitBacktracks = b.restartUnitBacktracks;
+        this.lcvSlotOrdering = b.lcvSlotOrdering;
+        this.lcvScoreLimit = b.lcvScoreLimit;
+        this.portfolioRuns = b.portfolioRuns;
+    }
+
+    // SchedulingConfig sabitleri (BALANCED)
+    public static SolverParameters defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public SolverParameters withRandomSeed(long seed) {
+        return seed == randomSeed ? this : toBuilder().randomSeed(seed).build();
+    }
+
+    public SolverParameters withMaxExamsPerDay(int limit) {
+        return limit == maxExamsPerDay ? this : toBuilder().maxExamsPerDay(limit).build();
+    }
+
+    // Profil ayarları elle değiştirildiyse de son seçilen profil
+    public Profile getProfile() {
+        return profile;
+    }
+
+    // Standart, iki aşamalı ya da kabadan inceye çözüm
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    // Slot başlangıçlarının ızgara adımı (dakika)
+    public int getGridMinutes() {
+        return gridMinutes;
+    }
+
+    // Kabadan inceye çözümde ilk aşamanın ızgara adımı (dakika)
+    public int getCoarseGridMinutes() {
+        return coarseGridMinutes;
+    }
+
+    // Kabadan inceye: yer açmak için kaydırılabilecek en fazla komşu sınav
+    public int getShiftNeighbours() {
+        return shiftNeighbours;
+    }
+
+    // Kabadan inceye: komşu sınavın en fazla kaydırılması (dakika)
+    public int getShiftWindowMinutes() {
+        return shiftWindowMinutes;
+    }
+
+    // Bir öğrencinin iki sınavı arasındaki en kısa boşluk (dakika)
+    public int getMinGapMinutes() {
+        return minGapMinutes;
+    }
+
+    // Öğrenci başına günlük sınav sınırı (en az 1)
+    public int getMaxExamsPerDay() {
+        return maxExamsPerDay;
+    }
+
+    // Bu süreden sonra yeni yeniden başlatma koşusu açılmaz (0 = sınırsız)
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    // Yeniden başlatmaların eşitlik bozması, teşhis örneklemesi ve koltuk dağıtımı
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    // Ders başına üretilecek en fazla oda kombinasyonu (kapasite imzası başına bir)
+    public int getRoomComboLimit() {
+        return roomComboLimit;
+    }
+
+    // Yerleştirmede sırayla denenen oda kombinasyonu sayısı
+    public int getPlacementRetries() {
+        return placementRetries;
+    }
+
+    // Geri izlemede geçici olarak çıkarılan son yerleşim sayısı
+    public int getBacktrackVictims() {
+        return backtrackVictims;
+    }
+
+    // Luby yeniden başlatma: en fazla koşu sayısı (1 = kapalı)
+    public int getRestartLimit() {
+        return restartLimit;
+    }
+
+    // Luby kesme birimi (geri izleme denemesi)
+    public int getRestartUnitBacktracks() {
+        return restartUnitBacktracks;
+    }
+
+    // Geçerli slotlar komşulardan en az seçenek kapatan önce gelecek şekilde denenir (LCV)
+    public boolean isLcvSlotOrdering() {
+        return lcvSlotOrdering;
+    }
+
+    // LCV ile puanlanacak en fazla geçerli slot
+    public int getLcvScoreLimit() {
+        return lcvScoreLimit;
+    }
+
+    // Arayüz portföyünde paralel çözülen tohum sayısı
+    public int getPortfolioRuns() {
+        return portfolioRuns;
+    }
+
+    // --- KALICILIK (DBManager.saveSetting anahtar -> değer) ---
+
+    private static final String PREFIX = "solver.";
+
+    // Tüm alanlar "solver.<ad>" anahtarlarıyla
+    public Map<String, String> toSettings() {
+        Map<String, String> out = new LinkedHashMap<>();
+        out.put(PREFIX + "profile", profile.name());
+        out.put(PREFIX + "strategy", strategy.name());
+        out.put(PREFIX + "gridMinutes", String.valueOf(gridMinutes));
+        out.put(PREFIX + "coarseGridMinutes", String.valueOf(coarseGridMinutes));
+        out.put(PREFIX + "shiftNeighbours", String.valueOf(shiftNeighbours));
+        out.put(PREFIX + "shiftWindowMinutes", String.valueOf(shiftWindowMinutes));
+        out.put(PREFIX + "minGapMinutes", String.valueOf(minGapMinutes));
+        out.put(PREFIX + "maxExamsPerDay", String.valueOf(maxExamsPerDay));
+        out.put(PREFIX + "deadlineMs", String.valueOf(deadlineMs));
+        out.put(PREFIX + "randomSeed", String.valueOf(randomSeed));
+        out.put(PREFIX + "roomComboLimit", String.valueOf(roomComboLimit));
+        out.put(PREFIX + "placementRetries", String.valueOf(placementRetries));
+        out.put(PREFIX + "backtrackVictims", String.valueOf(backtrackVictims));
+        out.put(PREFIX + "restartLimit", String.valueOf(restartLimit));
+        out.put(PREFIX + "restartUnitBacktracks", String.valueOf(restartUnitBacktracks));
+        out.put(PREFIX + "lcvSlotOrdering", String.valueOf(lcvSlotOrdering));
+        out.put(PREFIX + "lcvScoreLimit", String.valueOf(lcvScoreLimit));
+        out.put(PREFIX + "portfolioRuns", String.valueOf(portfolioRuns));
+        return out;
+    }
+
+    /**
+     * toSettings'in tersi. Önce kayıtlı profil uygulanır, sonra kayıtlı her
+     * alan üzerine yazılır; eksik ya da bozuk değerler profilden (yoksa
+     * varsayılandan) gelir.
+     */
+    public static SolverParameters fromSettings(Function<String, String> settings) {
+        SolverParameters base = DEFAULTS;
+        String p = settings.apply(PREFIX + "profile");
+        if (p != null) {
+            try {
+                base = Profile.valueOf(p).applyTo(base);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown solver profile: " + p);
+            }
+        }
+        Builder b = base.toBuilder();
+        String st = settings.apply(PREFIX + "strategy");
+        if (st != null) {
+            try {
+                b.strategy = Strategy.valueOf(st);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown solver strategy: " + st);
+            }
+        }
+        b.gridMinutes = readInt(settings, "gridMinutes", b.gridMinutes, 1);
+        b.coarseGridMinutes = readInt(settings, "coarseGridMinutes", b.coarseGridMinutes, 1);
+        b.shiftNeighbours = readInt(settings, "shiftNeighbours", b.shiftNeighbours, 0);
+        b.shiftWindowMinutes = readInt(settings, "shiftWindowMinutes", b.shiftWindowMinutes, 0);
+        b.minGapMinutes = readInt(settings, "minGapMinutes", b.minGapMinutes, 0);
+        b.maxExamsPerDay = readInt(settings, "maxExamsPerDay", b.maxExamsPerDay, 1);
+        b.deadlineMs = Math.max(0, readLong(settings, "deadlineMs", b.deadlineMs));
+        b.randomSeed = readLong(settings, "randomSeed", b.randomSeed);
+        b.roomComboLimit = readInt(settings, "roomComboLimit", b.roomComboLimit, 1);
+        b.placementRetries = readInt(settings, "placementRetries", b.placementRetries, 1);
+        b.backtrackVictims = readInt(settings, "backtrackVictims", b.backtrackVictims, 0);
+        b.restartLimit = readInt(settings, "restartLimit", b.restartLimit, 1);
+        b.restartUnitBacktracks = readInt(settings, "restartUnitBacktracks", b.restartUnitBacktracks, 1);
+        b.lcvSlotOrdering = readBoolean(settings, "lcvSlotOrdering", b.lcvSlotOrdering);
+        b.lcvScoreLimit = readInt(settings, "lcvScoreLimit", b.lcvScoreLimit, 0);
+        b.portfolioRuns = readInt(settings, "portfolioRuns", b.portfolioRuns, 1);
+        return b.build();
+    }
+
+    private static int readInt(Function<String, String> settings, String name, int fallback, int min) {
+        String v = settings.apply(PREFIX + name);
+        if (v == null || v.isBlank())
+            return fallback;
+        try {
+            return Math.max(min, Integer.parseInt(v.trim()));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static boolean readBoolean(Function<String, String> settings, String name, boolean fallback) {
+        String v = settings.apply(PREFIX + name);
+        if (v == null || v.isBlank())
+            return fallback;
+        return Boolean.parseBoolean(v.trim());
+    }
+
+    private static long readLong(Function<String, String> settings, String name, long fallback) {
+        String v = settings.apply(PREFIX + name);
+        if (v == null || v.isBlank())
+            return fallback;
+        try {
+            return Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return profile.getLabel() + " " + toSettings().entrySet().stream().skip(1)
+                .map(e -> e.getKey().substring(PREFIX.length()) + "=" + e.getValue())
+                .reduce((a, b) -> a + ", " + b).orElse("");
+    }
+
+    /** Değer denetimli kurucu; varsayılanlar SchedulingConfig'ten. */
+    public static final class Builder {
+        private Profile profile = Profile.BALANCED;
+        private Strategy strategy = SchedulingConfig.TWO_PHASE_SOLVE ? Strategy.TWO_PHASE
+                : SchedulingConfig.COARSE_TO_FINE ? Strategy.COARSE_TO_FINE : Strategy.STANDARD;
+        private int gridMinutes = SchedulingConfig.GRID_MINUTES;
+        private int coarseGridMinutes = SchedulingConfig.COARSE_GRID_MINUTES;
+        private int shiftNeighbours = SchedulingConfig.SHIFT_NEIGHBOURS;
+        private int shiftWindowMinutes = SchedulingConfig.SHIFT_WINDOW_MINUTES;
+        private int minGapMinutes = SchedulingConfig.MIN_GAP_MINUTES;
+        private int maxExamsPerDay = SchedulingConfig.MAX_EXAMS_PER_DAY;
+        private long deadlineMs = SchedulingConfig.DEADLINE_MS;
+        private long randomSeed = SchedulingConfig.RANDOM_SEED;
+        private int roomComboLimit = SchedulingConfig.ROOM_COMBO_LIMIT;
+        private int placementRetries = SchedulingConfig.PLACEMENT_RETRIES;
+        private int backtrackVictims = SchedulingConfig.BACKTRACK_VICTIMS;
+        private int restartLimit = SchedulingConfig.RESTART_LIMIT;
+        private int restartUnitBacktracks = SchedulingConfig.RESTART_UNIT_BACKTRACKS;
+        private boolean lcvSlotOrdering = SchedulingConfig.LCV_SLOT_ORDERING;
+        private int lcvScoreLimit = SchedulingConfig.LCV_SCORE_LIMIT;
+        private int portfolioRuns = SchedulingConfig.PORTFOLIO_RUNS;
+
+        private Builder() {
+        }
+
+        private Builder(SolverParameters p) {
+            profile = p.profile;
+            strategy = p.strategy;
+            gridMinutes = p.gridMinutes;
+            coarseGridMinutes = p.coarseGridMinutes;
+            shiftNeighbours = p.shiftNeighbours;
+            shiftWindowMinutes = p.shiftWindowMinutes;
+            minGapMinutes = p.minGapMinutes;
+            maxExamsPerDay = p.maxExamsPerDay;
+            deadlineMs = p.deadlineMs;
+            randomSeed = p.randomSeed;
+            roomComboLimit = p.roomComboLimit;
+            placementRetries = p.placementRetries;
+            backtrackVictims = p.backtrackVictims;
+            restartLimit = p.restartLimit;
+            restartUnitBacktracks = p.restartUnitBacktracks;
+            lcvSlotOrdering = p.lcvSlotOrdering;
+            lcvScoreLimit = p.lcvScoreLimit;
+            portfolioRuns = p.portfolioRuns;
+        }
+
+        public Builder profile(Profile profile) {
+            this.profile = profile;
+            return this;
+        }
+
+        public Builder strategy(Strategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder gridMinutes(int gridMinutes) {
+            this.gridMinutes = gridMinutes;
+            return this;
+        }
+
+        public Builder coarseGridMinutes(int coarseGridMinutes) {
+            this.coarseGridMinutes = coarseGridMinutes;
+            return this;
+        }
+
+        public Builder shiftNeighbours(int shiftNeighbours) {
+            this.shiftNeighbours = shiftNeighbours;
+            return this;
+        }
+
+        public Builder shiftWindowMinutes(int shiftWindowMinutes) {
+            this.shiftWindowMinutes = shiftWindowMinutes;
+            return this;
+        }
+
+        public Builder minGapMinutes(int minGapMinutes) {
+            this.minGapMinutes = minGapMinutes;
+            return this;
+        }
+
+        public Builder maxExamsPerDay(int maxExamsPerDay) {
+            this.maxExamsPerDay = maxExamsPerDay;
+            return this;
+        }
+
+        public Builder deadlineMs(long deadlineMs) {
+            this.deadlineMs = deadlineMs;
+            return this;
+        }
+
+        public Builder randomSeed(long randomSeed) {
+            this.randomSeed = randomSeed;
+            return this;
+        }
+
+        public Builder roomComboLimit(int roomComboLimit) {
+            this.roomComboLimit = roomComboLimit;
+            return this;
+        }
+
+        public Builder placementRetries(int placementRetries) {
+            this.placementRetries = placementRetries;
+            return this;
+        }
+
+        public Builder backtrackVictims(int backtrackVictims) {
+            this.backtrackVictims = backtrackVictims;
+            return this;
+        }
+
+        public Builder restartLimit(int restartLimit) {
+            this.restartLimit = restartLimit;
+            return this;
+        }
+
+        public Builder restartUnitBacktracks(int restartUnitBacktracks) {
+            this.restartUnitBacktracks = restartUnitBacktracks;
+            return this;
+        }
+
+        public Builder lcvSlotOrdering(boolean lcvSlotOrdering) {
+            this.lcvSlotOrdering = lcvSlotOrdering;
+            return this;
+        }
+
+        public Builder lcvScoreLimit(int lcvScoreLimit) {
+            this.lcvScoreLimit = lcvScoreLimit;
+            return this;
+        }
+
+        public Builder portfolioRuns(int portfolioRuns) {
+            this.portfolioRuns = portfolioRuns;
+            return this;
+        }
+
+        public SolverParameters build() {
+            if (strategy == null || gridMinutes < 1 || coarseGridMinutes < 1 || minGapMinutes < 0
+                    || maxExamsPerDay < 1 || deadlineMs < 0)
+                throw new IllegalArgumentException("Geçersiz çözücü ayarı (strateji, ızgara, boşluk, günlük sınır, süre)");
+            if (roomComboLimit < 1 || placementRetries < 1 || backtrackVictims < 0 || restartLimit < 1
+                    || shiftNeighbours < 0 || shiftWindowMinutes < 0
+                    || restartUnitBacktracks < 1 || lcvScoreLimit < 0 || portfolioRuns < 1)
+                throw new IllegalArgumentException("Geçersiz çözücü ayarı (sayaçlar)");
+            return new SolverParameters(this);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package scheduler.constraints;
+
+import scheduler.util.CompressedBitmap;
+
+/**
+ * Aynı gün, aralarında windowMinutes'tan az olan iki sınavı bulunan her
+ * öğrenci için 1 ceza (ardışık sınavlar).
+ */
+public class BackToBackPenalty implements SoftConstraint {
+
+    private final int windowMinutes;
+
+    public BackToBackPenalty(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+
+    @Override
+    public int delta(EncodedSchedule state, int course, int slot, int combo) {
+        EncodedProblem problem = state.problem();
+        CompressedBitmap students = problem.students(course);
+        int day = EncodedProblem.slotDay(slot);
+        int p = 0;
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+            if (other != course && withinWindow(state.slotOf(other), slot, windowMinutes))
+                p += students.andCardinality(problem.students(other));
+        }
+        return p;
+    }
+
+    @Override
+    public long penalty(EncodedSchedule state) {
+        EncodedProblem problem = state.problem();
+        long p = 0;
+        for (int d = 0; d < problem.dayCount(); d++) {
+            for (int i = 0, n = state.dayCount(d); i < n; i++) {
+                int a = state.dayCourse(d, i);
+                for (int j = i + 1; j < n; j++) {
+                    int b = state.dayCourse(d, j);
+                    if (withinWindow(state.slotOf(a), state.slotOf(b), windowMinutes))
+                        p += problem.students(a).andCardinality(problem.students(b));
+                }
+            }
+        }
+        return p;
+    }
+
+    // Aynı gündeki iki slot arasındaki boşluk pencereden kısa mı? (bindirme = 0)
+    public static boolean withinWindow(int a, int b, int windowMinutes) {
+        int gap = Math.max(EncodedProblem.slotStart(b) - EncodedProblem.slotEnd(a),
+                EncodedProblem.slotStart(a) - EncodedProblem.slotEnd(b));
+        return gap < windowMinutes;
+    }
+
+    @Override
+    public String getName() {
+        return "Back-to-back exams";
+    }
+}
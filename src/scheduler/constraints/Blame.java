@@ -0,0 +1,46 @@
+package scheduler.constraints;
+
+import java.util.Arrays;
+
+/**
+ * Teşhis sırasında reddedilen adaylar için sorumluluk sayaçları: hangi
+ * yerleşmiş ders, hangi öğrenci ve hangi oda kaç adayı engelledi.
+ * Ordinallerle çalışır; diziler ihtiyaç oldukça büyür.
+ */
+public class Blame {
+
+    private int[] courses = new int[0];
+    private int[] students = new int[0];
+    private int[] rooms = new int[0];
+
+    public void course(int ordinal) {
+        courses = bump(courses, ordinal);
+    }
+
+    public void student(int ordinal) {
+        students = bump(students, ordinal);
+    }
+
+    public void room(int ordinal) {
+        rooms = bump(rooms, ordinal);
+    }
+
+    public int[] courseCounts() {
+        return courses;
+    }
+
+    public int[] studentCounts() {
+        return students;
+    }
+
+    public int[] roomCounts() {
+        return rooms;
+    }
+
+    private static int[] bump(int[] counts, int ordinal) {
+        if (ordinal >= counts.length)
+            counts = Arrays.copyOf(counts, Math.max(ordinal + 1, counts.length * 2));
+        counts[ordinal]++;
+        return counts;
+    }
+}
@@ -5,6 +5,10 @@ import scheduler.model.Timeslot;
 
 import java.util.List;
 
+/**
+ * Nesne tabanlı aday. Kısıtlar ilkel üçlülerle çalışır; bu sınıf yalnızca
+ * ConstraintSet.ok/explain(PartialSchedule, Candidate) adaptörü için kalır.
+ */
 public class Candidate {
     public final String courseId;
     public final Timeslot timeslot;
@@ -15,4 +19,4 @@ public class Candidate {
         this.timeslot = timeslot;
         this.classrooms = classrooms;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,51 @@
 package scheduler.constraints;
 
+/**
+ * Sert kısıt. Sonucu yalnızca adayla aynı gündeki, ortak öğrencisi ya da
+ * çakışan saatte ortak odası olan yerleşimlere bağlı olmalıdır (NogoodCache
+ * bu varsayımla geçersizleştirir).
+ *
+ * Kısıt kendi artımlı durumunu tutmak isterse yaşam döngüsü kancalarını
+ * uygular: ConstraintSet bir programa bağlandığında reset, sonra o programdaki
+ * her ekleme / kaldırmada (geri almalar dahil) onPlace / onRemove çağrılır.
+ * test başka bir durumla çağrılabilir; o zaman durumdan baştan hesaplamalıdır.
+ */
 public interface Constraint {
-    // Kurala uyuyor mu?
-    boolean test(PartialSchedule state, Candidate candidate);
+    /**
+     * Kurala uyuyor mu? Aday ilkel üçlüdür: ders ordinali, slot kodu ve oda
+     * kombinasyonu id'si (bkz. EncodedProblem). Sıcak yol: nesne ayırmamalı.
+     */
+    boolean test(EncodedSchedule state, int course, int slot, int combo);
 
-    // Kural ihlal edilirse gösterilecek mesaj
-    String getViolationMessage();
-}
\ No newline at end of file
+    // Bağlı programa ders yerleşti (state bu yerleşimi zaten içerir)
+    default void onPlace(EncodedSchedule state, int course, int slot, int combo) {
+    }
+
+    // Bağlı programdan ders kaldırıldı (state artık içermez)
+    default void onRemove(EncodedSchedule state, int course, int slot, int combo) {
+    }
+
+    // Artımlı durumu state'in mevcut yerleşimlerinden baştan kur
+    default void reset(EncodedSchedule state) {
+    }
+
+    // Sonuç oda kombinasyonuna bağlı mı? (değilse tüm kombinasyonlar için aynıdır)
+    default boolean dependsOnRooms() {
+        return true;
+    }
+
+    /**
+     * Aday bu kısıtça reddedildiyse sorumlu dersleri / öğrencileri / odaları
+     * out'a yazar. Yalnızca teşhiste çağrılır.
+     */
+    default void blame(EncodedSchedule state, int course, int slot, int combo, Blame out) {
+    }
+
+    // Kural ihlal edilirse raporlanacak kod
+    ViolationCode getCode();
+
+    // Kural ihlal edilirse gösterilecek mesaj (yalnızca gösterim için)
+    default String getViolationMessage() {
+        return getCode().getMessage();
+    }
+}
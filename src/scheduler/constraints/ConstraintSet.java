@@ -1,28 +1,216 @@
 package scheduler.constraints;
 
+import scheduler.model.Placement;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class ConstraintSet {
+/**
+ * Kısıtların birlikte değerlendirilmesi.
+ *
+ * Sıcak yol ilkel adaylarla çalışır ve ihlalleri bit maskesi olarak döner
+ * (i. bit = i. eklenen kısıt). ok/explain(PartialSchedule, Candidate)
+ * nesne tabanlı çağıranlar için adaptördür: adayı kodlar ve programa bağlı
+ * EncodedSchedule üzerinden aynı yolu çalıştırır.
+ *
+ * attach(schedule) ile bir programa bağlanır ve onun dinleyicisi olur:
+ * programdaki her değişiklik kısıtların onPlace / onRemove kancalarına
+ * dağıtılır. Bir küme en fazla bir programa bağlanabilir.
+ */
+public class ConstraintSet implements ScheduleListener {
+    private final EncodedProblem problem;
     private final List<Constraint> list = new ArrayList<>();
+    private Constraint[] array = new Constraint[0];
+    // Sonucu oda kombinasyonuna bağlı kısıtların bitleri
+    private int roomMask = 0;
+    // maske -> mesaj listesi (tembel doldurulur)
+    private final Map<Integer, List<String>> reasonsByMask = new HashMap<>();
+    // Opsiyonel: başarısız adayların önbelleği (null ise kapalı)
+    private NogoodCache nogoods;
+    private long evaluations = 0;
+    // Bağlı programın kodlaması (null = bağlı değil)
+    private EncodedSchedule attached;
+
+    public ConstraintSet(EncodedProblem problem) {
+        this.problem = problem;
+    }
 
     public ConstraintSet add(Constraint c) {
+        if (list.size() >= Integer.SIZE - 1)
+            throw new IllegalStateException("Too many constraints for a violation mask");
+        if (c.dependsOnRooms())
+            roomMask |= 1 << list.size();
         list.add(c);
+        array = list.toArray(new Constraint[0]);
+        reasonsByMask.clear();
+        if (attached != null)
+            c.reset(attached);
         return this;
     }
 
+    /**
+     * Kümeyi programa bağlar: kısıtlar mevcut yerleşimlerden kurulur, sonraki
+     * her değişiklik onlara iletilir. Aynı programa tekrar bağlamak etkisizdir.
+     */
+    public ConstraintSet attach(PartialSchedule schedule) {
+        // Kodlama dinleyicisi önce eklenmeli ki kancalar güncel durumu görsün
+        EncodedSchedule enc = problem.encodingOf(schedule);
+        if (attached == enc)
+            return this;
+        if (attached != null)
+            throw new IllegalStateException("ConstraintSet is already attached to another schedule");
+        attached = enc;
+        schedule.addListener(this);
+        reset();
+        return this;
+    }
+
+    // Kısıtların artımlı durumlarını bağlı programdan baştan kur
+    public void reset() {
+        if (attached == null)
+            return;
+        for (Constraint c : array)
+            c.reset(attached);
+    }
+
+    @Override
+    public void onPlace(Placement p) {
+        if (attached == null)
+            return;
+        int course = problem.courseOrdinal(p.getCourseId());
+        int slot = problem.encodeSlot(p.getTimeslot());
+        int combo = problem.combo(p.getClassrooms());
+        for (Constraint c : array)
+            c.onPlace(attached, course, slot, combo);
+    }
+
+    @Override
+    public void onRemove(Placement p) {
+        if (attached == null)
+            return;
+        int course = problem.courseOrdinal(p.getCourseId());
+        int slot = problem.encodeSlot(p.getTimeslot());
+        int combo = problem.combo(p.getClassrooms());
+        for (Constraint c : array)
+            c.onRemove(attached, course, slot, combo);
+    }
+
+    public ConstraintSet withNogoodCache(NogoodCache cache) {
+        this.nogoods = cache;
+        return this;
+    }
+
+    public EncodedProblem getProblem() {
+        return problem;
+    }
+
+    public NogoodCache getNogoodCache() {
+        return nogoods;
+    }
+
+    public int size() {
+        return array.length;
+    }
+
+    // Kısıtların gerçekten çalıştırıldığı aday sayısı (önbellek isabetleri hariç)
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    // --- SICAK YOL ---
+
+    public boolean ok(EncodedSchedule s, int course, int slot, int combo) {
+        return violations(s, course, slot, combo) == 0;
+    }
+
+    /**
+     * İhlal edilen kısıtların maskesi (0 = geçerli). Tüm kısıtlar
+     * değerlendirilir ki önbelleğe alınan maske tam olsun.
+     */
+    public int violations(EncodedSchedule s, int course, int slot, int combo) {
+        if (nogoods != null) {
+            int cached = nogoods.lookup(s, course, slot, combo);
+            if (cached != 0)
+                return cached;
+        }
+
+        evaluations++;
+        int mask = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (!array[i].test(s, course, slot, combo))
+                mask |= 1 << i;
+        }
+
+        if (nogoods != null && mask != 0)
+            nogoods.record(s, course, slot, combo, mask);
+        return mask;
+    }
+
+    // --- TEŞHİS ---
+
+    // Oda kombinasyonuna bağlı kısıtların maskesi; geri kalanlar kombinasyondan bağımsızdır
+    public int roomMask() {
+        return roomMask;
+    }
+
+    /**
+     * Yalnızca which maskesindeki kısıtları çalıştırır. Önbelleğe bakmaz ve
+     * yazmaz, değerlendirme sayacına girmez (teşhis içindir).
+     */
+    public int evaluate(EncodedSchedule s, int course, int slot, int combo, int which) {
+        int mask = 0;
+        for (int i = 0; i < array.length; i++) {
+            if ((which & (1 << i)) != 0 && !array[i].test(s, course, slot, combo))
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    // Maskedeki kısıtların sorumlularını, kısıt başına ayrı Blame'e yazar (out[i] = i. bit)
+    public void blame(EncodedSchedule s, int course, int slot, int combo, int mask, Blame[] out) {
+        for (int i = 0; i < array.length; i++) {
+            if ((mask & (1 << i)) != 0)
+                array[i].blame(s, course, slot, combo, out[i]);
+        }
+    }
+
+    // Maskenin i. bitine karşılık gelen kısıdın kodu
+    public ViolationCode code(int bit) {
+        return array[bit].getCode();
+    }
+
+    // Maskedeki kısıtların mesajları, ekleme sırasıyla
+    public List<String> reasons(int mask) {
+        if (mask == 0)
+            return Collections.emptyList();
+        List<String> r = reasonsByMask.get(mask);
+        if (r == null) {
+            List<String> out = new ArrayList<>();
+            for (int i = 0; i < array.length; i++) {
+                if ((mask & (1 << i)) != 0)
+                    out.add(array[i].getViolationMessage());
+            }
+            r = Collections.unmodifiableList(out);
+            reasonsByMask.put(mask, r);
+        }
+        return r;
+    }
+
+    // --- NESNE ADAPTÖRÜ ---
+
     public boolean ok(PartialSchedule s, Candidate c) {
         return explain(s, c).isEmpty();
     }
 
     public List<String> explain(PartialSchedule s, Candidate c) {
-        List<String> reasons = new ArrayList<>();
-        for (Constraint k : list) {
-            if (!k.test(s, c)) {
-                // ARTIK instanceof YOK! Herkes kendi mesajını bilir.
-                reasons.add(k.getViolationMessage());
-            }
-        }
-        return reasons;
+        EncodedSchedule enc = problem.encodingOf(s);
+        int mask = violations(enc,
+                problem.courseOrdinal(c.courseId),
+                problem.encodeSlot(c.timeslot),
+                problem.combo(c.classrooms));
+        return reasons(mask);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,296 @@
+package scheduler.constraints;
+
+import scheduler.model.Classroom;
+import scheduler.model.DayWindow;
+import scheduler.model.Timeslot;
+import scheduler.util.CompressedBitmap;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Kısıtların sıcak yolu için ilkel kodlama tabloları.
+ *
+ * Bir aday (ders ordinali, slot kodu, kombinasyon id'si) üçlüsüdür:
+ * - ders ordinali: derslerin 0..n-1 numarası, öğrencileri CompressedBitmap
+ * - slot kodu: gün ordinali, başlangıç ve bitiş dakikası tek bir int'te
+ *   (gün << 22 | başlangıç << 11 | bitiş); tüm zaman aritmetiği int dakika
+ * - kombinasyon id'si: sıralı oda ordinali dizisinin tekil numarası
+ *
+ * Tanınmayan ders/oda/gün ilk görüldüğünde eklenir. Tek bir çözüm koşusuna
+ * aittir; iş parçacıkları arasında paylaşılmaz.
+ */
+public class EncodedProblem {
+
+    private static final int MINUTE_BITS = 11;
+    private static final int MINUTE_MASK = (1 << MINUTE_BITS) - 1;
+    public static final int MAX_DAYS = 1 << 9;
+
+    private static final int[] NO_ROOMS = new int[0];
+
+    // Dersler
+    private final Map<String, Integer> courseIdx = new HashMap<>();
+    private final List<String> courseIds = new ArrayList<>();
+    private CompressedBitmap[] students = new CompressedBitmap[16];
+
+    // Odalar
+    private final Map<String, Integer> roomIdx = new HashMap<>();
+    private final List<Classroom> rooms = new ArrayList<>();
+    private final Map<Integer, int[]> roomsByCapacity = new HashMap<>();
+
+    // Günler
+    private final Map<LocalDate, Integer> dayIdx = new HashMap<>();
+    private final List<LocalDate> days = new ArrayList<>();
+
+    // Oda kombinasyonları; comboTable açık adreslemeli (id + 1, 0 = boş)
+    private int[] comboTable = new int[256];
+    private final List<int[]> comboRooms = new ArrayList<>();
+    private final List<List<Classroom>> comboLists = new ArrayList<>();
+    // combo(List) için oda ordinali tamponu (kayıtlı kombinasyonlarda nesne ayrılmaz)
+    private int[] comboScratch = new int[8];
+
+    // Son istenen programın kodlaması (sıcak yolda dinleyici listesi taranmaz)
+    private PartialSchedule lastSchedule;
+    private EncodedSchedule lastEncoding;
+
+    public EncodedProblem(Collection<String> courseIds,
+                          Map<String, CompressedBitmap> courseStudents,
+                          List<Classroom> classrooms,
+                          List<DayWindow> dayWindows) {
+        for (String id : courseIds)
+            courseOrdinal(id);
+        for (String id : new TreeSet<>(courseStudents.keySet()))
+            courseOrdinal(id);
+        for (Map.Entry<String, CompressedBitmap> e : courseStudents.entrySet())
+            students[courseIdx.get(e.getKey())] = e.getValue();
+
+        if (classrooms != null) {
+            for (Classroom r : classrooms)
+                roomOrdinal(r);
+        }
+        if (dayWindows != null) {
+            for (DayWindow dw : dayWindows)
+                dayOrdinal(dw.getDate());
+        }
+    }
+
+    // --- DERSLER ---
+
+    public int courseOrdinal(String courseId) {
+        Integer idx = courseIdx.get(courseId);
+        if (idx != null)
+            return idx;
+        int ord = courseIds.size();
+        courseIds.add(courseId);
+        courseIdx.put(courseId, ord);
+        if (ord >= students.length)
+            students = Arrays.copyOf(students, students.length * 2);
+        students[ord] = CompressedBitmap.EMPTY;
+        return ord;
+    }
+
+    public String courseId(int ordinal) {
+        return courseIds.get(ordinal);
+    }
+
+    public int courseCount() {
+        return courseIds.size();
+    }
+
+    public CompressedBitmap students(int course) {
+        return students[course];
+    }
+
+    // --- ODALAR ---
+
+    public int roomOrdinal(Classroom r) {
+        Integer idx = roomIdx.get(r.getId());
+        if (idx != null)
+            return idx;
+        int ord = rooms.size();
+        rooms.add(r);
+        roomIdx.put(r.getId(), ord);
+        int[] same = roomsByCapacity.getOrDefault(r.getCapacity(), NO_ROOMS);
+        same = Arrays.copyOf(same, same.length + 1);
+        same[same.length - 1] = ord;
+        roomsByCapacity.put(r.getCapacity(), same);
+        return ord;
+    }
+
+    public int roomCount() {
+        return rooms.size();
+    }
+
+    public Classroom room(int ordinal) {
+        return rooms.get(ordinal);
+    }
+
+    // Aynı kapasitedeki odalar (girdi sırasıyla)
+    public int[] roomsWithCapacity(int capacity) {
+        return roomsByCapacity.getOrDefault(capacity, NO_ROOMS);
+    }
+
+    // --- GÜNLER VE SLOTLAR ---
+
+    public int dayOrdinal(LocalDate date) {
+        Integer idx = dayIdx.get(date);
+        if (idx != null)
+            return idx;
+        int ord = days.size();
+        if (ord >= MAX_DAYS)
+            throw new IllegalStateException("Too many exam days: " + (ord + 1));
+        days.add(date);
+        dayIdx.put(date, ord);
+        return ord;
+    }
+
+    public int dayCount() {
+        return days.size();
+    }
+
+    public LocalDate date(int day) {
+        return days.get(day);
+    }
+
+    public int encodeSlot(Timeslot t) {
+        return encodeSlot(dayOrdinal(t.getDate()),
+                t.getStart().toSecondOfDay() / 60,
+                t.getEnd().toSecondOfDay() / 60);
+    }
+
+    public static int encodeSlot(int day, int startMinute, int endMinute) {
+        return (day << (2 * MINUTE_BITS)) | (startMinute << MINUTE_BITS) | endMinute;
+    }
+
+    public static int slotDay(int slot) {
+        return slot >>> (2 * MINUTE_BITS);
+    }
+
+    public static int slotStart(int slot) {
+        return (slot >>> MINUTE_BITS) & MINUTE_MASK;
+    }
+
+    public static int slotEnd(int slot) {
+        return slot & MINUTE_MASK;
+    }
+
+    // [start, end) aralıkları aynı günde kesişiyor mu?
+    public static boolean overlaps(int a, int b) {
+        return slotDay(a) == slotDay(b) && slotEnd(a) > slotStart(b) && slotStart(a) < slotEnd(b);
+    }
+
+    // --- KOMBİNASYONLAR ---
+
+    public int combo(List<Classroom> classrooms) {
+        int n = classrooms.size();
+        if (comboScratch.length < n)
+            comboScratch = new int[Math.max(n, comboScratch.length * 2)];
+        for (int i = 0; i < n; i++)
+            comboScratch[i] = roomOrdinal(classrooms.get(i));
+        int id = findCombo(comboScratch, n);
+        return id >= 0 ? id : addCombo(Arrays.copyOf(comboScratch, n), classrooms);
+    }
+
+    /**
+     * rooms[0..len) sırasıyla kombinasyon id'si. Kayıtlı ise nesne ayırmaz;
+     * dizi tampon olarak yeniden kullanılabilir (kopyalanarak saklanır).
+     */
+    public int combo(int[] rooms, int len) {
+        int id = findCombo(rooms, len);
+        return id >= 0 ? id : addCombo(Arrays.copyOf(rooms, len), null);
+    }
+
+    private int findCombo(int[] rooms, int len) {
+        int m = comboTable.length - 1;
+        for (int i = comboHash(rooms, len) & m; comboTable[i] != 0; i = (i + 1) & m) {
+            int[] other = comboRooms.get(comboTable[i] - 1);
+            if (Arrays.equals(other, 0, other.length, rooms, 0, len))
+                return comboTable[i] - 1;
+        }
+        return -1;
+    }
+
+    private int addCombo(int[] ords, List<Classroom> asList) {
+        int id = comboRooms.size();
+        if (asList == null) {
+            List<Classroom> list = new ArrayList<>(ords.length);
+            for (int r : ords)
+                list.add(rooms.get(r));
+            asList = list;
+        }
+        comboRooms.add(ords);
+        comboLists.add(Collections.unmodifiableList(new ArrayList<>(asList)));
+
+        if ((id + 1) * 2 > comboTable.length) {
+            comboTable = new int[comboTable.length * 2];
+            for (int c = 0; c < id; c++)
+                insertCombo(c);
+        }
+        insertCombo(id);
+        return id;
+    }
+
+    private void insertCombo(int id) {
+        int[] ords = comboRooms.get(id);
+        int m = comboTable.length - 1;
+        int i = comboHash(ords, ords.length) & m;
+        while (comboTable[i] != 0)
+            i = (i + 1) & m;
+        comboTable[i] = id + 1;
+    }
+
+    private static int comboHash(int[] rooms, int len) {
+        int h = 1;
+        for (int i = 0; i < len; i++)
+            h = 31 * h + rooms[i];
+        return h ^ (h >>> 16);
+    }
+
+    // Kombinasyonun oda ordinalleri (değiştirilmemeli)
+    public int[] comboRooms(int combo) {
+        return comboRooms.get(combo);
+    }
+
+    public List<Classroom> comboClassrooms(int combo) {
+        return comboLists.get(combo);
+    }
+
+    public boolean sharesRoom(int comboA, int comboB) {
+        if (comboA == comboB)
+            return comboRooms.get(comboA).length > 0;
+        for (int a : comboRooms.get(comboA)) {
+            for (int b : comboRooms.get(comboB)) {
+                if (a == b)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    // --- DURUM ---
+
+    /**
+     * Programa bağlı ilkel durum. Program zaten bu problem için bir
+     * EncodedSchedule taşıyorsa o döner, yoksa yenisi eklenir (mevcut
+     * yerleşimler yeniden oynatılır). Aynı program art arda istendiğinde
+     * dinleyiciler taranmadan önbellekten döner.
+     */
+    public EncodedSchedule encodingOf(PartialSchedule schedule) {
+        if (schedule == lastSchedule)
+            return lastEncoding;
+        EncodedSchedule found = null;
+        for (EncodedSchedule e : schedule.getListeners(EncodedSchedule.class)) {
+            if (e.problem() == this) {
+                found = e;
+                break;
+            }
+        }
+        if (found == null) {
+            found = new EncodedSchedule(this, schedule);
+            schedule.addListener(found);
+        }
+        lastSchedule = schedule;
+        lastEncoding = found;
+        return found;
+    }
+}
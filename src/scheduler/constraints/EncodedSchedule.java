@@ -0,0 +1,164 @@
+package scheduler.constraints;
+
+import scheduler.model.Placement;
+
+import java.util.Arrays;
+
+/**
+ * PartialSchedule'ın ilkel aynası: her gün için o gün yerleşmiş derslerin
+ * ordinal listesi, her ders için slot kodu, kombinasyon id'si ve sürümü,
+ * her oda için kullanım sayısı.
+ *
+ * Kısıtların hepsi yalnızca aynı gündeki yerleşimlere bakar, bu yüzden
+ * adaylar tüm program yerine kendi günlerinin listesiyle karşılaştırılır.
+ * Dinleyici olarak güncellenir (geri almalar dahil); okuma yolunda nesne
+ * ayırmaz.
+ */
+public class EncodedSchedule implements ScheduleListener {
+
+    private final EncodedProblem problem;
+    private final PartialSchedule schedule;
+
+    // gün -> o gündeki ders ordinalleri (ilk daySize[gün] eleman geçerli)
+    private int[][] dayCourses;
+    private int[] daySize;
+
+    // ders ordinali -> slot kodu / kombinasyon / sürüm / gün listesindeki yeri
+    private int[] slotOf;
+    private int[] comboOf;
+    private long[] versionOf;
+    private int[] posInDay;
+
+    private int[] roomUse;
+
+    EncodedSchedule(EncodedProblem problem, PartialSchedule schedule) {
+        this.problem = problem;
+        this.schedule = schedule;
+
+        int days = Math.max(1, problem.dayCount());
+        dayCourses = new int[days][8];
+        daySize = new int[days];
+
+        int courses = Math.max(1, problem.courseCount());
+        slotOf = new int[courses];
+        comboOf = new int[courses];
+        versionOf = new long[courses];
+        posInDay = new int[courses];
+        Arrays.fill(comboOf, -1);
+
+        roomUse = new int[Math.max(1, problem.roomCount())];
+
+        for (Placement p : schedule.getPlacements().values())
+            onPlace(p);
+    }
+
+    public EncodedProblem problem() {
+        return problem;
+    }
+
+    @Override
+    public void onPlace(Placement p) {
+        int course = problem.courseOrdinal(p.getCourseId());
+        int slot = problem.encodeSlot(p.getTimeslot());
+        int combo = problem.combo(p.getClassrooms());
+        ensureCourse(course);
+        ensureDay(EncodedProblem.slotDay(slot));
+
+        if (comboOf[course] >= 0)
+            unlink(course);
+
+        int day = EncodedProblem.slotDay(slot);
+        if (daySize[day] == dayCourses[day].length)
+            dayCourses[day] = Arrays.copyOf(dayCourses[day], daySize[day] * 2);
+        posInDay[course] = daySize[day];
+        dayCourses[day][daySize[day]++] = course;
+
+        slotOf[course] = slot;
+        comboOf[course] = combo;
+        versionOf[course] = schedule.versionOf(p.getCourseId());
+
+        int[] rooms = problem.comboRooms(combo);
+        for (int r : rooms) {
+            if (r >= roomUse.length)
+                roomUse = Arrays.copyOf(roomUse, Math.max(r + 1, roomUse.length * 2));
+            roomUse[r]++;
+        }
+    }
+
+    @Override
+    public void onRemove(Placement p) {
+        int course = problem.courseOrdinal(p.getCourseId());
+        if (course >= comboOf.length || comboOf[course] < 0)
+            return;
+        unlink(course);
+    }
+
+    private void unlink(int course) {
+        for (int r : problem.comboRooms(comboOf[course]))
+            roomUse[r]--;
+
+        int day = EncodedProblem.slotDay(slotOf[course]);
+        int pos = posInDay[course];
+        int last = dayCourses[day][--daySize[day]];
+        dayCourses[day][pos] = last;
+        posInDay[last] = pos;
+
+        comboOf[course] = -1;
+        versionOf[course] = 0;
+    }
+
+    private void ensureCourse(int course) {
+        if (course < slotOf.length)
+            return;
+        int n = Math.max(course + 1, slotOf.length * 2);
+        int old = comboOf.length;
+        slotOf = Arrays.copyOf(slotOf, n);
+        comboOf = Arrays.copyOf(comboOf, n);
+        Arrays.fill(comboOf, old, n, -1);
+        versionOf = Arrays.copyOf(versionOf, n);
+        posInDay = Arrays.copyOf(posInDay, n);
+    }
+
+    private void ensureDay(int day) {
+        if (day < daySize.length)
+            return;
+        int n = Math.max(day + 1, daySize.length * 2);
+        int old = dayCourses.length;
+        dayCourses = Arrays.copyOf(dayCourses, n);
+        for (int d = old; d < n; d++)
+            dayCourses[d] = new int[8];
+        daySize = Arrays.copyOf(daySize, n);
+    }
+
+    // --- OKUMA (sıcak yol) ---
+
+    // Gündeki yerleşim sayısı
+    public int dayCount(int day) {
+        return day < daySize.length ? daySize[day] : 0;
+    }
+
+    // Gündeki i. yerleşimin ders ordinali (0 <= i < dayCount(day))
+    public int dayCourse(int day, int i) {
+        return dayCourses[day][i];
+    }
+
+    public boolean isPlaced(int course) {
+        return course < comboOf.length && comboOf[course] >= 0;
+    }
+
+    public int slotOf(int course) {
+        return slotOf[course];
+    }
+
+    public int comboOf(int course) {
+        return comboOf[course];
+    }
+
+    public long versionOf(int course) {
+        return course < versionOf.length ? versionOf[course] : 0L;
+    }
+
+    public int roomUse(int room) {
+        return room < roomUse.length ? roomUse[room] : 0;
+    }
+}
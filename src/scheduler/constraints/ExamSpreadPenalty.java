@@ -0,0 +1,92 @@
+package scheduler.constraints;
+
+import scheduler.util.CompressedBitmap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Öğrencinin sınavlarını takvime yayar: aynı gündeki her sınav çifti için
+ * SAME_DAY_COST, takvimde ardışık iki gündeki her çift için 1 ceza.
+ *
+ * Gün ordinalleri takvim sırasında olmak zorunda değildir; komşu günler
+ * tarihlerden bulunur.
+ */
+public class ExamSpreadPenalty implements SoftConstraint {
+
+    private static final int SAME_DAY_COST = 2;
+
+    // gün ordinali -> takvimde bir sonraki / önceki günün ordinali (yoksa -1)
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+
+    @Override
+    public int delta(EncodedSchedule state, int course, int slot, int combo) {
+        EncodedProblem problem = state.problem();
+        ensureCalendar(problem);
+        CompressedBitmap students = problem.students(course);
+        int day = EncodedProblem.slotDay(slot);
+        int p = SAME_DAY_COST * shared(state, students, course, day);
+        if (day < next.length) {
+            p += shared(state, students, course, next[day]);
+            p += shared(state, students, course, prev[day]);
+        }
+        return p;
+    }
+
+    @Override
+    public long penalty(EncodedSchedule state) {
+        EncodedProblem problem = state.problem();
+        ensureCalendar(problem);
+        long p = 0;
+        for (int d = 0; d < problem.dayCount(); d++) {
+            for (int i = 0, n = state.dayCount(d); i < n; i++) {
+                int a = state.dayCourse(d, i);
+                CompressedBitmap sa = problem.students(a);
+                for (int j = i + 1; j < n; j++)
+                    p += (long) SAME_DAY_COST * sa.andCardinality(problem.students(state.dayCourse(d, j)));
+                // her komşu gün çifti bir kez: yalnızca sonraki güne bak
+                p += shared(state, sa, a, next[d]);
+            }
+        }
+        return p;
+    }
+
+    // day günündeki yerleşimlerle (course hariç) ortak öğrenci sayısı
+    private static int shared(EncodedSchedule state, CompressedBitmap students, int course, int day) {
+        if (day < 0)
+            return 0;
+        EncodedProblem problem = state.problem();
+        int p = 0;
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+            if (other != course)
+                p += students.andCardinality(problem.students(other));
+        }
+        return p;
+    }
+
+    private void ensureCalendar(EncodedProblem problem) {
+        int n = problem.dayCount();
+        if (next.length == n)
+            return;
+        Map<Long, Integer> byEpochDay = new HashMap<>();
+        for (int d = 0; d < n; d++)
+            byEpochDay.put(problem.date(d).toEpochDay(), d);
+        next = new int[n];
+        prev = new int[n];
+        Arrays.fill(next, -1);
+        Arrays.fill(prev, -1);
+        for (int d = 0; d < n; d++) {
+            long e = problem.date(d).toEpochDay();
+            next[d] = byEpochDay.getOrDefault(e + 1, -1);
+            prev[d] = byEpochDay.getOrDefault(e - 1, -1);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Exam spread";
+    }
+}
@@ -0,0 +1,39 @@
+package scheduler.constraints;
+
+/**
+ * lateStartMinute'te ya da sonrasında başlayan sınavlara giren her öğrenci
+ * için 1 ceza.
+ */
+public class LateExamPenalty implements SoftConstraint {
+
+    private final int lateStartMinute;
+
+    public LateExamPenalty(int lateStartMinute) {
+        this.lateStartMinute = lateStartMinute;
+    }
+
+    @Override
+    public int delta(EncodedSchedule state, int course, int slot, int combo) {
+        return EncodedProblem.slotStart(slot) >= lateStartMinute
+                ? state.problem().students(course).cardinality()
+                : 0;
+    }
+
+    @Override
+    public long penalty(EncodedSchedule state) {
+        EncodedProblem problem = state.problem();
+        long p = 0;
+        for (int d = 0; d < problem.dayCount(); d++) {
+            for (int i = 0, n = state.dayCount(d); i < n; i++) {
+                int c = state.dayCourse(d, i);
+                p += delta(state, c, state.slotOf(c), state.comboOf(c));
+            }
+        }
+        return p;
+    }
+
+    @Override
+    public String getName() {
+        return "Late exams";
+    }
+}
@@ -1,68 +1,172 @@
 package scheduler.constraints;
 
-import scheduler.model.Placement;
-import scheduler.model.Timeslot;
+import scheduler.util.CompressedBitmap;
 
-import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * Her öğrenci için bir günde en fazla maxPerDay sınav olmasını sağlar.
+ *
+ * Bağlı programda öğrenci × gün sınav sayılarını artımlı tutar; test o
+ * zaman yalnızca dersin öğrencilerine bakar. Bağlı olmayan bir durumla
+ * çağrılırsa günün yerleşimlerini tarar.
  */
 public class MaxExamsPerDay implements Constraint {
 
-    private final Map<String, Set<String>> courseToStudents; // courseId -> öğrenciler
     private final int maxPerDay; // örn: 2
 
-    public MaxExamsPerDay(Map<String, Set<String>> courseToStudents, int maxPerDay) {
-        this.courseToStudents = courseToStudents;
+    // Tekrar kullanılan sayaç ve kesişim tamponları (test başına ayırma yok)
+    private int[] countPerStudent = new int[0];
+    private int[] common = new int[0];
+
+    // Bağlı durum: load[gün][öğrenci ordinali] = o gün yerleşmiş sınav sayısı
+    private EncodedSchedule tracked;
+    private int[][] load = new int[0][];
+    // ders ordinali -> öğrenci ordinalleri (tembel)
+    private int[][] studentsOf = new int[0][];
+
+    public MaxExamsPerDay(int maxPerDay) {
         this.maxPerDay = maxPerDay;
     }
 
     @Override
-    public boolean test(PartialSchedule state, Candidate cand) {
-        Set<String> newStudents = courseToStudents.get(cand.courseId);
-        if (newStudents == null || newStudents.isEmpty())
-            return true;
+    public void reset(EncodedSchedule state) {
+        tracked = state;
+        load = new int[state.problem().dayCount()][];
+        for (int d = 0; d < load.length; d++) {
+            for (int i = 0, n = state.dayCount(d); i < n; i++)
+                count(state.problem(), state.dayCourse(d, i), d, +1);
+        }
+    }
 
-        Timeslot newSlot = cand.timeslot;
-        LocalDate day = newSlot.getDate();
+    @Override
+    public void onPlace(EncodedSchedule state, int course, int slot, int combo) {
+        if (state == tracked)
+            count(state.problem(), course, EncodedProblem.slotDay(slot), +1);
+    }
 
-        // O gün için: öğrenci -> o gün kaç sınavı var?
-        Map<String, Integer> countPerStudent = new HashMap<>();
+    @Override
+    public void onRemove(EncodedSchedule state, int course, int slot, int combo) {
+        if (state == tracked)
+            count(state.problem(), course, EncodedProblem.slotDay(slot), -1);
+    }
 
-        for (Placement p : state.getPlacements().values()) {
-            Timeslot oldSlot = p.getTimeslot();
-            if (!oldSlot.getDate().equals(day)) {
-                continue; // farklı gün, ilgilenmiyoruz
+    private void count(EncodedProblem problem, int course, int day, int delta) {
+        if (day >= load.length)
+            load = Arrays.copyOf(load, Math.max(day + 1, load.length * 2));
+        int[] students = studentsOf(problem, course);
+        if (students.length == 0)
+            return;
+        int[] l = load[day];
+        int max = students[students.length - 1];
+        if (l == null || l.length <= max)
+            load[day] = l = l == null ? new int[max + 1] : Arrays.copyOf(l, Math.max(max + 1, l.length * 2));
+        for (int s : students)
+            l[s] += delta;
+    }
+
+    private int[] studentsOf(EncodedProblem problem, int course) {
+        if (course >= studentsOf.length)
+            studentsOf = Arrays.copyOf(studentsOf, Math.max(course + 1, studentsOf.length * 2));
+        int[] s = studentsOf[course];
+        if (s == null)
+            studentsOf[course] = s = problem.students(course).toArray();
+        return s;
+    }
+
+    @Override
+    public boolean test(EncodedSchedule state, int course, int slot, int combo) {
+        EncodedProblem problem = state.problem();
+        CompressedBitmap newStudents = problem.students(course);
+        if (newStudents.isEmpty())
+            return true;
+
+        int day = EncodedProblem.slotDay(slot);
+        if (state == tracked) {
+            // bu öğrenci için bu gün zaten maxPerDay sınav varsa bir tane daha eklenemez
+            int[] l = day < load.length ? load[day] : null;
+            if (l == null)
+                return true;
+            for (int s : studentsOf(problem, course)) {
+                if (s < l.length && l[s] >= maxPerDay)
+                    return false;
             }
-            Set<String> oldStudents = courseToStudents.get(p.getCourseId());
-            if (oldStudents == null || oldStudents.isEmpty()) {
+            return true;
+        }
+        int size = newStudents.cardinality();
+        boolean cleared = false;
+
+        // Yeni dersin öğrencileri için (rank sırasıyla): o gün kaç sınavı var?
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            CompressedBitmap oldStudents = problem.students(state.dayCourse(day, i));
+            if (!newStudents.intersects(oldStudents))
                 continue;
+
+            if (!cleared) {
+                if (countPerStudent.length < size) {
+                    countPerStudent = new int[size];
+                    common = new int[size];
+                } else {
+                    Arrays.fill(countPerStudent, 0, size, 0);
+                }
+                cleared = true;
             }
-            for (String sid : oldStudents) {
-                countPerStudent.put(sid, countPerStudent.getOrDefault(sid, 0) + 1);
-            }
-        }
 
-        // Yeni sınav eklendiğinde sayıları bir artırmış gibi düşün
-        for (String sid : newStudents) {
-            int current = countPerStudent.getOrDefault(sid, 0);
-            if (current >= maxPerDay) {
-                // Bu öğrenci için bu gün zaten maxPerDay sınav var,
+            int k = newStudents.andRanks(oldStudents, common);
+            for (int j = 0; j < k; j++) {
+                // Yeni sınav eklendiğinde sayıları bir artırmış gibi düşün:
+                // bu öğrenci için bu gün zaten maxPerDay sınav varsa
                 // bir tane daha ekleyemeyiz.
-                return false;
+                if (++countPerStudent[common[j]] >= maxPerDay)
+                    return false;
             }
         }
 
         return true;
     }
 
+    /**
+     * O gün zaten maxPerDay sınavı olan öğrenciler ve bu öğrencilerin o günkü
+     * sınavları.
+     */
+    @Override
+    public void blame(EncodedSchedule state, int course, int slot, int combo, Blame out) {
+        EncodedProblem problem = state.problem();
+        CompressedBitmap newStudents = problem.students(course);
+        int day = EncodedProblem.slotDay(slot);
+        int[] ords = newStudents.toArray();
+        int[] count = new int[ords.length];
+        int[] ranks = new int[ords.length];
+
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int k = newStudents.andRanks(problem.students(state.dayCourse(day, i)), ranks);
+            for (int j = 0; j < k; j++)
+                count[ranks[j]]++;
+        }
+        for (int r = 0; r < ords.length; r++) {
+            if (count[r] >= maxPerDay)
+                out.student(ords[r]);
+        }
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+            int k = newStudents.andRanks(problem.students(other), ranks);
+            for (int j = 0; j < k; j++) {
+                if (count[ranks[j]] >= maxPerDay) {
+                    out.course(other);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean dependsOnRooms() {
+        return false;
+    }
+
     @Override
-    public String getViolationMessage() {
-        return "Daily exam limit per student exceeded";
+    public ViolationCode getCode() {
+        return ViolationCode.DAILY_LIMIT;
     }
 
-}
\ No newline at end of file
+}
@@ -1,62 +1,74 @@
 package scheduler.constraints;
 
-import scheduler.model.Placement;
-import scheduler.model.Timeslot;
-
-import java.time.Duration;
-import java.util.Map;
-import java.util.Set;
+import scheduler.util.CompressedBitmap;
 
 public class NoStudentClashAndMinGap implements Constraint {
-    private final Map<String, Set<String>> courseToStudents; // courseId -> öğrenciler
     private final int minGapMinutes;
 
-    public NoStudentClashAndMinGap(Map<String, Set<String>> courseToStudents, int minGapMinutes) {
-        this.courseToStudents = courseToStudents;
+    public NoStudentClashAndMinGap(int minGapMinutes) {
         this.minGapMinutes = minGapMinutes;
     }
 
     @Override
-    public boolean test(PartialSchedule state, Candidate cand) {
-        Set<String> sNew = courseToStudents.get(cand.courseId);
-        if (sNew == null || sNew.isEmpty())
+    public boolean test(EncodedSchedule state, int course, int slot, int combo) {
+        EncodedProblem problem = state.problem();
+        CompressedBitmap sNew = problem.students(course);
+        if (sNew.isEmpty())
             return true;
 
-        for (Placement p : state.getPlacements().values()) {
-            Set<String> sOld = courseToStudents.get(p.getCourseId());
-            if (sOld == null || sOld.isEmpty())
-                continue;
+        // farklı gün: sorun yok, yalnızca aynı günün yerleşimlerine bak
+        int day = EncodedProblem.slotDay(slot);
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
 
             // Ortak öğrenci var mı?
-            if (!java.util.Collections.disjoint(sNew, sOld)) {
-                Timeslot a = p.getTimeslot();
-                Timeslot b = cand.timeslot;
-
-                if (!a.getDate().equals(b.getDate())) {
-                    // farklı gün: sorun yok
-                    continue;
-                }
-
-                // Zaman bindirmesi var mı?
-                boolean overlap = a.getEnd().isAfter(b.getStart()) &&
-                        a.getStart().isBefore(b.getEnd());
-                if (overlap)
-                    return false;
-
-                // Min gap kontrolü (aynı gün)
-                long gapAB = Math.min(
-                        Math.abs(Duration.between(a.getEnd(), b.getStart()).toMinutes()),
-                        Math.abs(Duration.between(b.getEnd(), a.getStart()).toMinutes()));
-                if (gapAB < minGapMinutes)
-                    return false;
-            }
+            if (!sNew.intersects(problem.students(other)))
+                continue;
+
+            // Zaman bindirmesi ya da min gap ihlali var mı?
+            if (tooClose(state.slotOf(other), slot))
+                return false;
         }
         return true;
     }
 
+    // Ortak öğrencisi olup çakışan ya da min gap'i bozan yerleşimler
+    @Override
+    public void blame(EncodedSchedule state, int course, int slot, int combo, Blame out) {
+        EncodedProblem problem = state.problem();
+        CompressedBitmap sNew = problem.students(course);
+        int day = EncodedProblem.slotDay(slot);
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+            if (sNew.intersects(problem.students(other)) && tooClose(state.slotOf(other), slot))
+                out.course(other);
+        }
+    }
+
+    // Aynı gündeki iki slot bindiriyor ya da aralarında minGap'ten az var mı?
+    private boolean tooClose(int a, int b) {
+        int aStart = EncodedProblem.slotStart(a);
+        int aEnd = EncodedProblem.slotEnd(a);
+        int bStart = EncodedProblem.slotStart(b);
+        int bEnd = EncodedProblem.slotEnd(b);
+
+        // Zaman bindirmesi var mı?
+        if (aEnd > bStart && aStart < bEnd)
+            return true;
+
+        // Min gap kontrolü (aynı gün)
+        int gapAB = Math.min(Math.abs(bStart - aEnd), Math.abs(aStart - bEnd));
+        return gapAB < minGapMinutes;
+    }
+
+    @Override
+    public boolean dependsOnRooms() {
+        return false;
+    }
+
     @Override
-    public String getViolationMessage() {
-        return "Student clash or minimum gap between exams violated";
+    public ViolationCode getCode() {
+        return ViolationCode.STUDENT_CLASH_OR_GAP;
     }
 
-}
\ No newline at end of file
+}
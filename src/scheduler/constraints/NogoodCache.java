@@ -0,0 +1,185 @@
+package scheduler.constraints;
+
+/**
+ * Başarısız (ders, slot, oda kombinasyonu) adaylarının kaydı.
+ *
+ * Kısıtlar monotondur: yeni yerleşim eklemek reddedilmiş bir adayı asla
+ * geçerli yapmaz. Bu yüzden bir aday, onu engelleyebilecek yerleşimler
+ * (aynı gün, ortak öğrenci veya çakışan saatte ortak oda) yerinde kaldıkça
+ * yine reddedilir. Her kayıt bu engelleyicilerin sürümünü saklar; bunlardan
+ * biri kaldırıldığında (veya yeniden eklendiğinde) kayıt geçersiz olur.
+ *
+ * Anahtar ilkel üçlüden paketlenmiş bir long'dur; tablo açık adreslemeli,
+ * engelleyiciler düz dizilerde tutulur (arama ve kayıt nesne ayırmaz).
+ * Tablo ya da havuz dolunca önce sıkıştırılır: geçersiz kayıtlar ve üzerine
+ * yazılmış kayıtların engelleyicileri atılır, diziler yalnızca canlı kayıtlar
+ * yer tutmadığında büyür.
+ */
+public class NogoodCache {
+
+    private static final int COURSE_BITS = 16;
+    private static final int COMBO_BITS = 17;
+
+    // Açık adresleme tablosu: 0 = boş anahtar
+    private long[] keys = new long[1024];
+    private int[] masks = new int[1024];
+    private int[] offsets = new int[1024];
+    private int[] lengths = new int[1024];
+    private int size = 0;
+
+    // Engelleyici havuzu: (ders ordinali, sürüm) çiftleri
+    private int[] blockerPool = new int[4096];
+    private long[] versionPool = new long[4096];
+    private int poolSize = 0;
+
+    private long hits = 0;
+    private long stored = 0;
+
+    /**
+     * Aday için hâlâ geçerli bir kayıt varsa ihlal maskesini döner, yoksa 0.
+     */
+    public int lookup(EncodedSchedule state, int course, int slot, int combo) {
+        long key = keyOf(course, slot, combo);
+        if (key == 0)
+            return 0;
+        int i = find(key);
+        if (keys[i] != key || masks[i] == 0)
+            return 0;
+        if (!stillValid(state, blockerPool, versionPool, offsets[i], lengths[i])) {
+            masks[i] = 0; // geçersiz, bir sonraki kayıt ya da sıkıştırma atar
+            return 0;
+        }
+        hits++;
+        return masks[i];
+    }
+
+    public void record(EncodedSchedule state, int course, int slot, int combo, int mask) {
+        long key = keyOf(course, slot, combo);
+        if (key == 0 || mask == 0)
+            return;
+        int pending = state.dayCount(EncodedProblem.slotDay(slot));
+        if ((size + 1) * 2 > keys.length || poolSize + pending > blockerPool.length)
+            compact(state, pending);
+
+        int offset = poolSize;
+        appendBlockers(state, course, slot, combo);
+
+        int i = find(key);
+        if (keys[i] != key) {
+            keys[i] = key;
+            size++;
+        }
+        masks[i] = mask;
+        offsets[i] = offset;
+        lengths[i] = poolSize - offset;
+        stored++;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getStored() {
+        return stored;
+    }
+
+    // Adayı reddedebilecek tüm yerleşimler (kısıtların baktığı kümenin üst kümesi)
+    private void appendBlockers(EncodedSchedule state, int course, int slot, int combo) {
+        EncodedProblem problem = state.problem();
+        int day = EncodedProblem.slotDay(slot);
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+            boolean blocks = problem.students(course).intersects(problem.students(other))
+                    || (EncodedProblem.overlaps(state.slotOf(other), slot)
+                            && problem.sharesRoom(state.comboOf(other), combo));
+            if (!blocks)
+                continue;
+            blockerPool[poolSize] = other;
+            versionPool[poolSize] = state.versionOf(other);
+            poolSize++;
+        }
+    }
+
+    // Paketlenemeyen (çok büyük ordinal) adaylar için 0: önbelleğe alınmaz
+    private static long keyOf(int course, int slot, int combo) {
+        if (course >= (1 << COURSE_BITS) || combo >= (1 << COMBO_BITS))
+            return 0;
+        return ((long) slot << (COURSE_BITS + COMBO_BITS)) | ((long) combo << COURSE_BITS) | course;
+    }
+
+    private int find(long key) {
+        int m = keys.length - 1;
+        int i = (int) (mix(key) & m);
+        while (keys[i] != 0 && keys[i] != key)
+            i = (i + 1) & m;
+        return i;
+    }
+
+    private static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    /**
+     * Tabloyu ve havuzu yalnızca hâlâ geçerli kayıtlarla yeniden kurar.
+     * Canlı kayıtlar tablonun dörtte birini, engelleyicileri (ve eklenecek
+     * pending tanesi) havuzun yarısını aşıyorsa ilgili dizi büyütülür.
+     */
+    private void compact(EncodedSchedule state, int pending) {
+        long[] oldKeys = keys;
+        int[] oldMasks = masks, oldOffsets = offsets, oldLengths = lengths;
+        int[] oldBlockers = blockerPool;
+        long[] oldVersions = versionPool;
+
+        int live = 0, liveBlockers = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0)
+                continue;
+            if (oldMasks[i] != 0 && stillValid(state, oldBlockers, oldVersions, oldOffsets[i], oldLengths[i])) {
+                live++;
+                liveBlockers += oldLengths[i];
+            } else {
+                oldMasks[i] = 0;
+            }
+        }
+
+        int n = oldKeys.length;
+        while ((live + 1) * 4 > n)
+            n *= 2;
+        int poolCap = oldBlockers.length;
+        while ((liveBlockers + pending) * 2 > poolCap)
+            poolCap *= 2;
+
+        keys = new long[n];
+        masks = new int[n];
+        offsets = new int[n];
+        lengths = new int[n];
+        blockerPool = new int[poolCap];
+        versionPool = new long[poolCap];
+        size = 0;
+        poolSize = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0 || oldMasks[i] == 0)
+                continue;
+            int j = find(oldKeys[i]);
+            keys[j] = oldKeys[i];
+            masks[j] = oldMasks[i];
+            offsets[j] = poolSize;
+            lengths[j] = oldLengths[i];
+            System.arraycopy(oldBlockers, oldOffsets[i], blockerPool, poolSize, oldLengths[i]);
+            System.arraycopy(oldVersions, oldOffsets[i], versionPool, poolSize, oldLengths[i]);
+            poolSize += oldLengths[i];
+            size++;
+        }
+    }
+
+    private static boolean stillValid(EncodedSchedule state, int[] blockers, long[] versions, int offset, int length) {
+        for (int b = offset, end = offset + length; b < end; b++) {
+            if (state.versionOf(blockers[b]) != versions[b])
+                return false;
+        }
+        return true;
+    }
+}
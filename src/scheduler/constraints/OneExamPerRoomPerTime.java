@@ -1,45 +1,51 @@
 package scheduler.constraints;
 
-import scheduler.model.Placement;
-import scheduler.model.Timeslot;
-import scheduler.model.Classroom;
-
-import java.util.Map;
-
 public class OneExamPerRoomPerTime implements Constraint {
 
     @Override
-    public boolean test(PartialSchedule state, Candidate cand) {
-        // Mevcut yerleşimler
-        for (Map.Entry<String, Placement> e : state.getPlacements().entrySet()) {
-            Placement p = e.getValue();
+    public boolean test(EncodedSchedule state, int course, int slot, int combo) {
+        EncodedProblem problem = state.problem();
+        int day = EncodedProblem.slotDay(slot);
 
-            // Zaman çakışıyor mu?
-            if (overlap(p.getTimeslot(), cand.timeslot)) {
-                // Ortak sınıf var mı?
-                for (Classroom rNew : cand.classrooms) {
-                    for (Classroom rOld : p.getClassrooms()) {
-                        if (rNew.getId().equals(rOld.getId())) {
-                            return false; // aynı anda aynı sınıf kullanılamaz
-                        }
-                    }
-                }
+        // Aynı gündeki yerleşimler
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+
+            // Zaman çakışıyor mu? Ortak sınıf var mı?
+            if (EncodedProblem.overlaps(state.slotOf(other), slot)
+                    && problem.sharesRoom(state.comboOf(other), combo)) {
+                return false; // aynı anda aynı sınıf kullanılamaz
             }
         }
         return true;
     }
 
+    // Çakışan saatte ortak oda tutan yerleşimler ve o odalar
     @Override
-    public String getViolationMessage() {
-        return "Room is already occupied at that time";
+    public void blame(EncodedSchedule state, int course, int slot, int combo, Blame out) {
+        EncodedProblem problem = state.problem();
+        int day = EncodedProblem.slotDay(slot);
+        int[] wanted = problem.comboRooms(combo);
+        for (int i = 0, n = state.dayCount(day); i < n; i++) {
+            int other = state.dayCourse(day, i);
+            if (!EncodedProblem.overlaps(state.slotOf(other), slot))
+                continue;
+            boolean blocks = false;
+            for (int b : problem.comboRooms(state.comboOf(other))) {
+                for (int r : wanted) {
+                    if (r == b) {
+                        out.room(r);
+                        blocks = true;
+                    }
+                }
+            }
+            if (blocks)
+                out.course(other);
+        }
     }
 
-    private boolean overlap(Timeslot a, Timeslot b) {
-        if (!a.getDate().equals(b.getDate()))
-            return false;
-        // [start,end) aralıkları kesişiyor mu?
-        boolean endsAfterStart = a.getEnd().isAfter(b.getStart());
-        boolean startsBeforeEnd = a.getStart().isBefore(b.getEnd());
-        return endsAfterStart && startsBeforeEnd;
+    @Override
+    public ViolationCode getCode() {
+        return ViolationCode.ROOM_OCCUPIED;
     }
-}
\ No newline at end of file
+}
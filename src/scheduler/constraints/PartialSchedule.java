@@ -1,20 +1,128 @@
 package scheduler.constraints;
 
+import scheduler.model.Classroom;
 import scheduler.model.Placement;
-import java.util.HashMap;
+import scheduler.util.PersistentHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Yerleşimlerin tutulduğu durum + geri alma (trail) kaydı.
+ *
+ * Açık bir checkpoint varken her ekleme/silme, türetilmiş sayaçlar (oda
+ * kullanımları, sürümler) ve dinleyiciler dahil, geri alınabilir şekilde
+ * trail'e yazılır. checkpoint() O(1)'dir; rollback(cp) yalnızca o noktadan
+ * sonraki değişiklikleri tersine uygular.
+ *
+ * Yerleşimler ve türetilmiş sayaçlar değiştirilemez (persistent) haritalarda
+ * durur: snapshot() ve fork() O(1)'dir, her değişiklik O(log n) düğüm
+ * kopyalar. Bir Snapshot iş parçacıkları arasında kilitsiz paylaşılır ve
+ * her fork kendi başına değişir (ör. ScenarioRunner senaryoları temel
+ * çözümün fork'undan başlar). Dinleyiciler ve trail fork'a taşınmaz: yeni
+ * dinleyiciler bağlanırken mevcut yerleşimlerden kurulur (ConstraintSet,
+ * ScheduleEvaluator ve DayIndex attach, EncodedProblem.encodingOf).
+ */
 public class PartialSchedule {
     // Yerleştirilen dersler (courseId -> Placement)
-    private final Map<String, Placement> placements = new HashMap<>();
+    private PersistentHashMap<String, Placement> placements;
+    // courseId -> yerleşim sürümü (her ekleme yeni sürüm alır, silinince düşer)
+    private PersistentHashMap<String, Long> versions;
+    private long clock;
+    // roomId -> o odayı kullanan yerleşim sayısı (dengeleme için)
+    private PersistentHashMap<String, Integer> roomUseCount;
+    private final List<ScheduleListener> listeners = new ArrayList<>();
+
+    /**
+     * Bir PartialSchedule'ın değiştirilemez anlık görüntüsü. İş parçacıkları
+     * arasında serbestçe paylaşılabilir.
+     */
+    public static final class Snapshot {
+        private final PersistentHashMap<String, Placement> placements;
+        private final PersistentHashMap<String, Long> versions;
+        private final PersistentHashMap<String, Integer> roomUseCount;
+        private final long clock;
+
+        private Snapshot(PersistentHashMap<String, Placement> placements, PersistentHashMap<String, Long> versions,
+                PersistentHashMap<String, Integer> roomUseCount, long clock) {
+            this.placements = placements;
+            this.versions = versions;
+            this.roomUseCount = roomUseCount;
+            this.clock = clock;
+        }
+
+        public Map<String, Placement> getPlacements() {
+            return placements;
+        }
+
+        // Bu görüntüden başlayan, bağımsız olarak değiştirilebilir yeni durum (O(1))
+        public PartialSchedule fork() {
+            return new PartialSchedule(this);
+        }
+    }
 
+    public PartialSchedule() {
+        this.placements = PersistentHashMap.empty();
+        this.versions = PersistentHashMap.empty();
+        this.roomUseCount = PersistentHashMap.empty();
+        this.clock = 0;
+    }
+
+    private PartialSchedule(Snapshot base) {
+        this.placements = base.placements;
+        this.versions = base.versions;
+        this.roomUseCount = base.roomUseCount;
+        this.clock = base.clock;
+    }
+
+    // Geri alma kaydı: sadece açık checkpoint varken dolar
+    private record TrailEntry(boolean added, Placement placement, long version) {
+    }
+
+    private final List<TrailEntry> trail = new ArrayList<>();
+    // Açık checkpoint'ler: {işaret numarası, trail'deki başlangıç konumu}
+    private final Deque<int[]> marks = new ArrayDeque<>();
+    private int nextMark;
+
+    // Salt okunur görünüm (persistent harita; sonraki değişikliklerden etkilenmez)
     public Map<String, Placement> getPlacements() {
         return placements;
     }
 
-    // Yeni yerleşim ekle
+    public Snapshot snapshot() {
+        return new Snapshot(placements, versions, roomUseCount, clock);
+    }
+
+    // Mevcut durumdan bağımsız bir kopya (O(1)); dinleyiciler ve trail kopyalanmaz
+    public PartialSchedule fork() {
+        return snapshot().fork();
+    }
+
+    public void addListener(ScheduleListener l) {
+        listeners.add(l);
+    }
+
+    // Verilen türdeki ekli dinleyiciler (eklenme sırasıyla)
+    public <T extends ScheduleListener> List<T> getListeners(Class<T> type) {
+        List<T> out = new ArrayList<>();
+        for (ScheduleListener l : listeners) {
+            if (type.isInstance(l))
+                out.add(type.cast(l));
+        }
+        return out;
+    }
+
+    // Yeni yerleşim ekle (aynı dersin eski yerleşimi varsa önce kaldırılır)
     public void addPlacement(Placement placement) {
-        placements.put(placement.getCourseId(), placement);
+        if (placements.containsKey(placement.getCourseId()))
+            removePlacement(placement.getCourseId());
+        long v = ++clock;
+        doAdd(placement, v);
+        if (!marks.isEmpty())
+            trail.add(new TrailEntry(true, placement, v));
     }
 
     // Belirli dersin yerleşimi var mı kontrol et
@@ -24,6 +132,96 @@ public class PartialSchedule {
 
     // Dersin yerleşimini kaldır (backtracking için)
     public Placement removePlacement(String courseId) {
-        return placements.remove(courseId);
+        Placement p = placements.get(courseId);
+        if (p == null)
+            return null;
+        long v = versions.getOrDefault(courseId, 0L);
+        doRemove(p);
+        if (!marks.isEmpty())
+            trail.add(new TrailEntry(false, p, v));
+        return p;
+    }
+
+    // Dersin mevcut yerleşim sürümü (yerleşmemişse 0)
+    public long versionOf(String courseId) {
+        return versions.getOrDefault(courseId, 0L);
+    }
+
+    public int getRoomUseCount(String roomId) {
+        return roomUseCount.getOrDefault(roomId, 0);
+    }
+
+    public Map<String, Integer> getRoomUseCounts() {
+        return roomUseCount;
+    }
+
+    // --- TRAIL ---
+
+    /**
+     * Geri dönülebilecek bir nokta işaretler. Dönen değer artan bir işaret
+     * numarasıdır (trail konumu değil) ve rollback/commit'e verilir. İç içe
+     * checkpoint açılabilir; araya değişiklik girmese de her işaret ayrıdır.
+     */
+    public int checkpoint() {
+        int id = ++nextMark;
+        marks.push(new int[] { id, trail.size() });
+        return id;
+    }
+
+    // cp'den sonraki tüm değişiklikleri geri al ve cp'yi (ve içindekileri) kapat
+    public void rollback(int cp) {
+        int start = offsetOf(cp);
+        for (int i = trail.size() - 1; i >= start; i--) {
+            TrailEntry e = trail.remove(i);
+            if (e.added) {
+                doRemove(e.placement);
+            } else {
+                doAdd(e.placement, e.version);
+            }
+        }
+        closeMarks(cp);
+    }
+
+    // cp'deki değişiklikleri kalıcı yap (dış checkpoint yoksa trail boşalır)
+    public void commit(int cp) {
+        offsetOf(cp);
+        closeMarks(cp);
+    }
+
+    // Açık işaretin trail konumu; kapanmış/bilinmeyen işaret hatadır
+    private int offsetOf(int cp) {
+        for (int[] m : marks) {
+            if (m[0] == cp)
+                return m[1];
+            if (m[0] < cp)
+                break;
+        }
+        throw new IllegalStateException("Checkpoint " + cp + " is not open");
+    }
+
+    // cp ve ondan sonra açılan (içteki) işaretleri kapat; dıştakiler açık kalır
+    private void closeMarks(int cp) {
+        while (!marks.isEmpty() && marks.peek()[0] >= cp)
+            marks.pop();
+        if (marks.isEmpty())
+            trail.clear();
+    }
+
+    private void doAdd(Placement p, long version) {
+        placements = placements.plus(p.getCourseId(), p);
+        versions = versions.plus(p.getCourseId(), version);
+        for (Classroom r : p.getClassrooms())
+            roomUseCount = roomUseCount.plus(r.getId(), roomUseCount.getOrDefault(r.getId(), 0) + 1);
+        for (ScheduleListener l : listeners)
+            l.onPlace(p);
+    }
+
+    private void doRemove(Placement p) {
+        placements = placements.minus(p.getCourseId());
+        versions = versions.minus(p.getCourseId());
+        for (Classroom r : p.getClassrooms())
+            roomUseCount = roomUseCount.plus(r.getId(), roomUseCount.getOrDefault(r.getId(), 0) - 1);
+        for (ScheduleListener l : listeners)
+            l.onRemove(p);
     }
 }
@@ -0,0 +1,13 @@
+package scheduler.constraints;
+
+import scheduler.model.Placement;
+
+/**
+ * PartialSchedule üzerindeki her değişikliği (geri alma dahil) dinleyen
+ * türetilmiş indeksler için.
+ */
+public interface ScheduleListener {
+    void onPlace(Placement p);
+
+    void onRemove(Placement p);
+}
@@ -0,0 +1,21 @@
+package scheduler.constraints;
+
+/**
+ * Yumuşak kısıt: ihlal edilebilir ama her ihlal ceza getirir.
+ *
+ * delta, dersi (slot, kombinasyon) adayıyla yerleştirmenin ceza artışıdır ve
+ * yalnızca dersin öğrencileriyle ortak öğrencisi olan yerleşimlere bakar.
+ * Dersin kendi yerleşimi (varsa) yok sayılır; böylece bir taşımanın maliyeti
+ * delta(yeni) - delta(eski) olur. Değerler ağırlıksızdır, ağırlıklar
+ * SoftConstraintSet'tedir.
+ */
+public interface SoftConstraint {
+
+    int delta(EncodedSchedule state, int course, int slot, int combo);
+
+    // Programın toplam (ağırlıksız) cezası
+    long penalty(EncodedSchedule state);
+
+    // Raporlarda gösterilecek ad
+    String getName();
+}
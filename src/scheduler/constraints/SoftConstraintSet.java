@@ -0,0 +1,64 @@
+package scheduler.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ağırlıklı yumuşak kısıtlar. Sert kısıtlardan (ConstraintSet) geçmiş
+ * adaylar arasında seçim yapmak için ceza farkı (delta) verir; toplam ceza
+ * programın kalite ölçüsüdür.
+ */
+public class SoftConstraintSet {
+    private final List<SoftConstraint> list = new ArrayList<>();
+    private SoftConstraint[] array = new SoftConstraint[0];
+    private int[] weights = new int[0];
+
+    public SoftConstraintSet add(SoftConstraint c, int weight) {
+        if (weight <= 0)
+            return this; // ağırlığı sıfır olan kısıt hiç değerlendirilmez
+        list.add(c);
+        array = list.toArray(new SoftConstraint[0]);
+        weights = Arrays.copyOf(weights, array.length);
+        weights[array.length - 1] = weight;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return array.length == 0;
+    }
+
+    // Dersi adaya yerleştirmenin ağırlıklı ceza artışı (ders programda değilmiş gibi)
+    public int delta(EncodedSchedule s, int course, int slot, int combo) {
+        int d = 0;
+        for (int i = 0; i < array.length; i++)
+            d += weights[i] * array[i].delta(s, course, slot, combo);
+        return d;
+    }
+
+    // Yerleşmiş dersi adaya taşımanın ağırlıklı ceza farkı (yerleşmemişse delta ile aynı)
+    public int moveDelta(EncodedSchedule s, int course, int slot, int combo) {
+        int d = delta(s, course, slot, combo);
+        if (s.isPlaced(course))
+            d -= delta(s, course, s.slotOf(course), s.comboOf(course));
+        return d;
+    }
+
+    // Programın ağırlıklı toplam cezası
+    public long penalty(EncodedSchedule s) {
+        long p = 0;
+        for (int i = 0; i < array.length; i++)
+            p += weights[i] * array[i].penalty(s);
+        return p;
+    }
+
+    // Kısıt adı -> ağırlıklı ceza, ekleme sırasıyla
+    public Map<String, Long> breakdown(EncodedSchedule s) {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (int i = 0; i < array.length; i++)
+            out.put(array[i].getName(), weights[i] * array[i].penalty(s));
+        return out;
+    }
+}
@@ -0,0 +1,50 @@
+package scheduler.constraints;
+
+/**
+ * Bir dersin neden yerleşemediğinin tipli kodu. Kısıt ihlalleri ve
+ * kısıt dışı (veri / altyapı) hataları aynı sayaç dizisinde ordinal ile
+ * sayılır; metin yalnızca gösterim için, format() ile üretilir.
+ */
+public enum ViolationCode {
+    // Kısıt ihlalleri
+    ROOM_OCCUPIED(true, "Room is already occupied at that time"),
+    STUDENT_CLASH_OR_GAP(true, "Student clash or minimum gap between exams violated"),
+    DAILY_LIMIT(true, "Daily exam limit per student exceeded"),
+
+    // Kısıt dışı hatalar
+    NO_ENROLLMENTS(false, "No enrollments found (0 students)."),
+    NO_MATCHING_ROOMS(false, "Configuration Error: No rooms match capacity filters."),
+    INSUFFICIENT_CAPACITY(false, "Infrastructure Error: Insufficient total room capacity (needed=%d, rooms=%d)"),
+    NO_VALID_TIMESLOTS(false, "Configuration Error: No valid timeslots."),
+    UNKNOWN(false, "Skipped (Unknown Reason)");
+
+    private final boolean constraint;
+    private final String template;
+
+    ViolationCode(boolean constraint, String template) {
+        this.constraint = constraint;
+        this.template = template;
+    }
+
+    public boolean isConstraint() {
+        return constraint;
+    }
+
+    // Kısıdın kendi mesajı (önek yok)
+    public String getMessage() {
+        return template;
+    }
+
+    // Gösterim metni; kısıt ihlalleri "Constraint Error: " önekini alır
+    public String format(int... args) {
+        String text = args == null || args.length == 0 ? template : String.format(template, (Object[]) boxed(args));
+        return constraint ? "Constraint Error: " + text : text;
+    }
+
+    private static Integer[] boxed(int[] args) {
+        Integer[] out = new Integer[args.length];
+        for (int i = 0; i < args.length; i++)
+            out[i] = args[i];
+        return out;
+    }
+}
@@ -0,0 +1,42 @@
+package scheduler.core;
+
+import java.util.Arrays;
+
+/**
+ * Ağırlıklı çakışma grafiği: iki ders ortak öğrencisi varsa komşudur,
+ * kenar ağırlığı ortak öğrenci sayısıdır. Ders ordinalleri (EncodedProblem)
+ * üzerinde, komşu listeleri ordinale göre sıralı düz dizilerdir.
+ * ConflictGraphBuilder.buildWeightedGraph kurar.
+ */
+public final class ConflictGraph {
+
+    private static final int[] NONE = new int[0];
+
+    private final int[][] neighbours;
+    private final int[][] weights;
+
+    ConflictGraph(int[][] neighbours, int[][] weights) {
+        this.neighbours = neighbours;
+        this.weights = weights;
+    }
+
+    public int courseCount() {
+        return neighbours.length;
+    }
+
+    // Komşu ordinalleri, artan sırada (değiştirilmemeli)
+    public int[] neighbours(int course) {
+        return course < neighbours.length && neighbours[course] != null ? neighbours[course] : NONE;
+    }
+
+    // neighbours(course) ile aynı sırada ortak öğrenci sayıları (değiştirilmemeli)
+    public int[] weights(int course) {
+        return course < weights.length && weights[course] != null ? weights[course] : NONE;
+    }
+
+    // Ortak öğrenci sayısı (komşu değilse 0)
+    public int weight(int a, int b) {
+        int i = Arrays.binarySearch(neighbours(a), b);
+        return i < 0 ? 0 : weights[a][i];
+    }
+}
@@ -1,6 +1,9 @@
 package scheduler.core;
 
+import scheduler.constraints.EncodedProblem;
 import scheduler.model.Enrollment;
+import scheduler.util.CompressedBitmap;
+
 import java.util.*;
 
 public class ConflictGraphBuilder {
@@ -14,23 +17,127 @@ public class ConflictGraphBuilder {
         return map;
     }
 
-    // courseId -> derece (kaç dersle öğrenci çakışması var)
-    public Map<String, Integer> buildDegrees(Map<String, Set<String>> c2s) {
+    // courseId -> öğrenci ordinallerinin sıkıştırılmış kümesi
+    public Map<String, CompressedBitmap> buildCourseBitmaps(Map<String, Set<String>> c2s, StudentIndex index) {
+        Map<String, CompressedBitmap> map = new HashMap<>();
+        for (Map.Entry<String, Set<String>> e : c2s.entrySet()) {
+            int[] ords = new int[e.getValue().size()];
+            int n = 0;
+            for (String sid : e.getValue())
+                ords[n++] = index.ordinal(sid);
+            map.put(e.getKey(), CompressedBitmap.of(ords));
+        }
+        return map;
+    }
+
+    /**
+     * courseId -> derece (kaç dersle öğrenci çakışması var). Çakışma testi
+     * yalnızca süper düğümler arasında yapılır: bir grup, çakıştığı her
+     * grubun üye sayısı kadar ve kendi kardeşleri kadar derece alır.
+     *
+     * İç içe bir grubun komşuları, kapsayan grubun komşuları ve kapsayan
+     * grubun kendisi arasındadır. Bu yüzden yalnızca kapsanmayan gruplar
+     * ikişer ikişer karşılaştırılır; iç içe gruplar büyükten küçüğe, kapsayan
+     * grubun o ana kadar bulunmuş komşularından süzülür.
+     */
+    public Map<String, Integer> buildDegrees(Map<String, CompressedBitmap> c2s, CourseGroups groups) {
+        Map<String, List<String>> adj = new HashMap<>();
+        List<String> roots = new ArrayList<>();
+        List<String> nested = new ArrayList<>();
+        for (String rep : groups.getGroups().keySet()) {
+            adj.put(rep, new ArrayList<>());
+            (groups.supersetOf(rep) == null ? roots : nested).add(rep);
+        }
+        // Kapsayan grup her zaman daha büyüktür, dolayısıyla önce işlenir
+        nested.sort(Comparator.comparingInt((String r) -> -c2s.get(r).cardinality()).thenComparing(r -> r));
+
+        for (int i = 0; i < roots.size(); i++) {
+            for (int j = i + 1; j < roots.size(); j++) {
+                String a = roots.get(i), b = roots.get(j);
+                if (c2s.get(a).intersects(c2s.get(b)))
+                    link(adj, a, b);
+            }
+        }
+        for (String a : nested) {
+            String sup = groups.supersetOf(a);
+            CompressedBitmap sa = c2s.get(a);
+            List<String> candidates = adj.get(sup);
+            for (int k = 0, n = candidates.size(); k < n; k++) {
+                if (sa.intersects(c2s.get(candidates.get(k))))
+                    link(adj, a, candidates.get(k));
+            }
+            link(adj, a, sup);
+        }
+
+        Map<String, Integer> repDeg = new HashMap<>();
+        for (Map.Entry<String, List<String>> e : adj.entrySet()) {
+            int d = 0;
+            for (String b : e.getValue())
+                d += groups.membersOf(b).size();
+            repDeg.put(e.getKey(), d);
+        }
+
         Map<String, Integer> deg = new HashMap<>();
-        List<String> courses = new ArrayList<>(c2s.keySet());
-        for (int i = 0; i < courses.size(); i++) {
-            for (int j = i + 1; j < courses.size(); j++) {
-                String a = courses.get(i), b = courses.get(j);
-                Set<String> sa = c2s.get(a), sb = c2s.get(b);
-                if (!Collections.disjoint(sa, sb)) {
-                    deg.put(a, deg.getOrDefault(a, 0) + 1);
-                    deg.put(b, deg.getOrDefault(b, 0) + 1);
+        for (String c : c2s.keySet()) {
+            String rep = groups.representativeOf(c);
+            int siblings = c2s.get(c).isEmpty() ? 0 : groups.membersOf(c).size() - 1;
+            deg.put(c, repDeg.getOrDefault(rep, 0) + siblings);
+        }
+        return deg;
+    }
+
+    private static void link(Map<String, List<String>> adj, String a, String b) {
+        adj.get(a).add(b);
+        adj.get(b).add(a);
+    }
+
+    /**
+     * Ders ordinalleri üzerinde ağırlıklı çakışma grafiği. buildDegrees gibi
+     * kesişim yalnızca süper düğümler arasında hesaplanır; üyeler grubun
+     * kenarlarını, kardeşler birbirlerini (tüm öğrencileri ortak) komşu alır.
+     */
+    public ConflictGraph buildWeightedGraph(EncodedProblem problem, CourseGroups groups) {
+        int n = problem.courseCount();
+        List<List<int[]>> adj = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            adj.add(new ArrayList<>());
+
+        List<String> reps = new ArrayList<>(groups.getGroups().keySet());
+        for (int i = 0; i < reps.size(); i++) {
+            List<String> ma = groups.membersOf(reps.get(i));
+            CompressedBitmap sa = problem.students(problem.courseOrdinal(reps.get(i)));
+            for (String a : ma) {
+                for (String b : ma) {
+                    if (!a.equals(b))
+                        adj.get(problem.courseOrdinal(a)).add(new int[] { problem.courseOrdinal(b), sa.cardinality() });
+                }
+            }
+            for (int j = i + 1; j < reps.size(); j++) {
+                CompressedBitmap sb = problem.students(problem.courseOrdinal(reps.get(j)));
+                if (!sa.intersects(sb))
+                    continue;
+                int w = sa.andCardinality(sb);
+                for (String a : ma) {
+                    for (String b : groups.membersOf(reps.get(j))) {
+                        adj.get(problem.courseOrdinal(a)).add(new int[] { problem.courseOrdinal(b), w });
+                        adj.get(problem.courseOrdinal(b)).add(new int[] { problem.courseOrdinal(a), w });
+                    }
                 }
             }
         }
-        // kaydı olmayan dersler 0 derece
-        for (String c : courses)
-            deg.putIfAbsent(c, 0);
-        return deg;
+
+        int[][] neighbours = new int[n][];
+        int[][] weights = new int[n][];
+        for (int c = 0; c < n; c++) {
+            List<int[]> edges = adj.get(c);
+            edges.sort(Comparator.comparingInt(e -> e[0]));
+            neighbours[c] = new int[edges.size()];
+            weights[c] = new int[edges.size()];
+            for (int k = 0; k < edges.size(); k++) {
+                neighbours[c][k] = edges.get(k)[0];
+                weights[c][k] = edges.get(k)[1];
+            }
+        }
+        return new ConflictGraph(neighbours, weights);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package scheduler.core;
+
+import scheduler.model.Course;
+import scheduler.util.CompressedBitmap;
+
+import java.util.*;
+
+/**
+ * Aynı öğrenci listesine sahip dersleri tek bir "süper düğümde" toplar.
+ *
+ * Çok şubeli ve çapraz kodlu derslerde öğrenci kümeleri çoğu zaman birebir
+ * aynıdır. Öğrenci kümesi, süresi ve oda filtreleri aynı olan dersler
+ * birbirinin yerine geçebilir: aynı komşularla çakışır, aynı slotları ve
+ * aynı oda adaylarını görür. Bu yüzden çakışma grafiği süper düğümler
+ * üzerinde kurulur ve aynı durumda başarısız olan bir üyenin sonucu
+ * kardeşleri için de geçerlidir.
+ *
+ * Birlikte aynı saate konamazlar (ortak öğrencileri var); süper düğüm
+ * yalnızca aramayı ve grafiği küçültür. Bir kümenin kesin alt kümesi olan
+ * gruplar ayrıca kapsayan gruba bağlanır (iç içe şubeler): alt grubun
+ * çakıştığı her grup kapsayanla da çakışır (bkz. ConflictGraphBuilder.buildDegrees).
+ */
+public class CourseGroups {
+
+    private record Signature(CompressedBitmap students, int duration, int minCap, int maxCap) {
+    }
+
+    // courseId -> grubun temsilcisi (en küçük id)
+    private final Map<String, String> representative = new HashMap<>();
+    // temsilci -> üyeler (id sırasıyla)
+    private final Map<String, List<String>> members = new TreeMap<>();
+    // temsilci -> öğrencileri bu grubu kesin kapsayan en küçük grubun temsilcisi
+    private final Map<String, String> superset = new HashMap<>();
+
+    public CourseGroups(List<Course> courses, Map<String, CompressedBitmap> courseStudents) {
+        Map<String, Course> byId = new HashMap<>();
+        for (Course c : courses)
+            byId.put(c.getId(), c);
+
+        // Sıralı ordinal dizisinin hash'i (CompressedBitmap.hashCode) ile grupla
+        Map<Signature, List<String>> bySignature = new HashMap<>();
+        for (String id : new TreeSet<>(courseStudents.keySet())) {
+            CompressedBitmap s = courseStudents.get(id);
+            if (s.isEmpty())
+                continue;
+            Course c = byId.get(id);
+            Signature sig = c == null ? new Signature(s, -1, 0, 0)
+                    : new Signature(s, c.getDurationMinutes(), c.getMinRoomCapacity(), c.getMaxRoomCapacity());
+            bySignature.computeIfAbsent(sig, k -> new ArrayList<>()).add(id);
+        }
+        for (List<String> group : bySignature.values()) {
+            String rep = group.get(0);
+            members.put(rep, List.copyOf(group));
+            for (String id : group)
+                representative.put(id, rep);
+        }
+
+        findNested(courseStudents);
+    }
+
+    /**
+     * Her grup için onu kesin kapsayan en küçük grup (eşitlikte temsilci
+     * id'si). Kapsayan grup, grubun her öğrencisini içerir; bu yüzden aday
+     * olarak yalnızca grubun en seyrek öğrencisini içeren gruplar denenir
+     * (öğrenci -> gruplar ters indeksi).
+     */
+    private void findNested(Map<String, CompressedBitmap> courseStudents) {
+        Map<Integer, List<String>> byStudent = new HashMap<>();
+        for (String rep : members.keySet())
+            courseStudents.get(rep).forEach(s -> byStudent.computeIfAbsent(s, k -> new ArrayList<>()).add(rep));
+
+        for (String a : members.keySet()) {
+            CompressedBitmap sa = courseStudents.get(a);
+            List<String> candidates = null;
+            for (int s : sa.toArray()) {
+                List<String> l = byStudent.get(s);
+                if (candidates == null || l.size() < candidates.size())
+                    candidates = l;
+            }
+            String best = null;
+            int bestSize = Integer.MAX_VALUE;
+            for (String b : candidates) {
+                int size = courseStudents.get(b).cardinality();
+                if (size <= sa.cardinality() || size >= bestSize)
+                    continue;
+                if (sa.andCardinality(courseStudents.get(b)) == sa.cardinality()) {
+                    best = b;
+                    bestSize = size;
+                }
+            }
+            if (best != null)
+                superset.put(a, best);
+        }
+    }
+
+    // Grubu olmayan (öğrencisiz) ders kendi temsilcisidir
+    public String representativeOf(String courseId) {
+        return representative.getOrDefault(courseId, courseId);
+    }
+
+    public List<String> membersOf(String courseId) {
+        return members.getOrDefault(representativeOf(courseId), List.of(courseId));
+    }
+
+    public boolean sameGroup(String a, String b) {
+        return representativeOf(a).equals(representativeOf(b));
+    }
+
+    // Öğrencileri bu dersinkileri kesin kapsayan grubun temsilcisi, yoksa null
+    public String supersetOf(String courseId) {
+        return superset.get(representativeOf(courseId));
+    }
+
+    // temsilci -> üyeler
+    public Map<String, List<String>> getGroups() {
+        return Collections.unmodifiableMap(members);
+    }
+
+    public int groupCount() {
+        return members.size();
+    }
+
+    public int nestedCount() {
+        return superset.size();
+    }
+}
@@ -0,0 +1,238 @@
+package scheduler.core;
+
+import scheduler.constraints.PartialSchedule;
+import scheduler.constraints.ScheduleListener;
+import scheduler.model.Classroom;
+import scheduler.model.DayWindow;
+import scheduler.model.Placement;
+import scheduler.model.TimeRange;
+import scheduler.model.Timeslot;
+import scheduler.util.CompressedBitmap;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Gün bazında artımlı özetler: önce gün, sonra saat aramak için.
+ *
+ * Her yerleşimde güncellenir ve şunları O(1) cevaplar:
+ * - blocked[c][d]: c dersinin, d gününde günlük limite ulaşmış öğrenci sayısı
+ *   (> 0 ise c o güne hiç konamaz)
+ * - shared[c][d]: c'nin öğrencilerinin d günündeki toplam sınav sayısı
+ *   (gün sıralaması için yük ölçüsü)
+ * - d gününde odaların kullanılan koltuk×dakika miktarı
+ * - her öğrencinin yerleşmiş toplam sınav sayısı
+ *
+ * PartialSchedule dinleyicisi olarak eklenir; geri almalarda da güncel kalır.
+ */
+public class DayIndex implements ScheduleListener {
+
+    private final Map<String, CompressedBitmap> courseToStudents;
+    // öğrenci ordinali -> aldığı dersler
+    private final List<List<String>> studentToCourses;
+    private final int maxPerDay;
+
+    private final Map<LocalDate, Integer> dayIdx = new HashMap<>();
+    private final int dayCount;
+
+    // studentLoad[ordinal * dayCount + d]: öğrencinin d günündeki sınav sayısı
+    private final int[] studentLoad;
+    // studentTotal[ordinal]: öğrencinin tüm günlerdeki sınav sayısı
+    private final int[] studentTotal;
+    private final Map<String, int[]> blocked = new HashMap<>();
+    private final Map<String, int[]> shared = new HashMap<>();
+    private final long[] usedSeatMinutes;
+    private final long[] seatMinuteCapacity;
+    // orderSlots'un rastgele gün sırası tamponu
+    private final int[] dayRank;
+
+    public DayIndex(Map<String, CompressedBitmap> courseToStudents,
+                    int studentCount,
+                    List<Classroom> classrooms,
+                    List<DayWindow> dayWindows,
+                    int maxPerDay) {
+        this.courseToStudents = courseToStudents;
+        this.maxPerDay = maxPerDay;
+
+        studentToCourses = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++)
+            studentToCourses.add(new ArrayList<>(4));
+        for (Map.Entry<String, CompressedBitmap> e : courseToStudents.entrySet()) {
+            e.getValue().forEach(sid -> studentToCourses.get(sid).add(e.getKey()));
+        }
+
+        int idx = 0;
+        for (DayWindow dw : dayWindows) {
+            if (!dayIdx.containsKey(dw.getDate()))
+                dayIdx.put(dw.getDate(), idx++);
+        }
+        dayCount = idx;
+        dayRank = new int[dayCount];
+        studentLoad = new int[studentCount * dayCount];
+        studentTotal = new int[studentCount];
+
+        long totalCapacity = RoomComboGenerator.totalCapacity(classrooms);
+        usedSeatMinutes = new long[dayCount];
+        seatMinuteCapacity = new long[dayCount];
+        for (DayWindow dw : dayWindows) {
+            int minutes = 0;
+            for (TimeRange r : dw.getRanges())
+                minutes += r.lengthMinutes();
+            seatMinuteCapacity[dayIdx.get(dw.getDate())] += totalCapacity * minutes;
+        }
+    }
+
+    /**
+     * Programa dinleyici olarak bağlanır ve özetleri mevcut yerleşimlerden
+     * kurar (boş olmayan bir fork'a bağlanırken gerekir).
+     */
+    public DayIndex attach(PartialSchedule schedule) {
+        schedule.addListener(this);
+        for (Placement p : schedule.getPlacements().values())
+            update(p, +1);
+        return this;
+    }
+
+    @Override
+    public void onPlace(Placement p) {
+        update(p, +1);
+    }
+
+    @Override
+    public void onRemove(Placement p) {
+        update(p, -1);
+    }
+
+    private void update(Placement p, int delta) {
+        Integer d = dayIdx.get(p.getTimeslot().getDate());
+        if (d == null)
+            return;
+
+        int minutes = minutesOf(p.getTimeslot());
+        usedSeatMinutes[d] += (long) delta * RoomComboGenerator.totalCapacity(p.getClassrooms()) * minutes;
+
+        CompressedBitmap students = courseToStudents.getOrDefault(p.getCourseId(), CompressedBitmap.EMPTY);
+        for (int sid : students.toArray()) {
+            int slot = sid * dayCount + d;
+            int before = studentLoad[slot];
+            studentLoad[slot] += delta;
+            studentTotal[sid] += delta;
+
+            boolean wasSaturated = before >= maxPerDay;
+            boolean isSaturated = studentLoad[slot] >= maxPerDay;
+            for (String cid : studentToCourses.get(sid)) {
+                shared.computeIfAbsent(cid, k -> new int[dayCount])[d] += delta;
+                if (wasSaturated != isSaturated) {
+                    blocked.computeIfAbsent(cid, k -> new int[dayCount])[d] += isSaturated ? 1 : -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gün, ders için toptan imkânsız mı? (Öğrencilerinden biri o gün limitte
+     * ya da odaların kalan koltuk×dakikası yetmiyor.)
+     */
+    public boolean isDayImpossible(String courseId, LocalDate date, int durationMinutes) {
+        Integer d = dayIdx.get(date);
+        if (d == null)
+            return true;
+        int[] b = blocked.get(courseId);
+        if (b != null && b[d] > 0)
+            return true;
+        int needed = courseToStudents.getOrDefault(courseId, CompressedBitmap.EMPTY).cardinality();
+        return usedSeatMinutes[d] + (long) needed * durationMinutes > seatMinuteCapacity[d];
+    }
+
+    // Dersin öğrencilerinin o günkü toplam sınav yükü
+    public int studentLoadOn(String courseId, LocalDate date) {
+        Integer d = dayIdx.get(date);
+        int[] s = shared.get(courseId);
+        return (d == null || s == null) ? 0 : s[d];
+    }
+
+    // Öğrencinin (ordinal) o günkü sınav sayısı
+    public int studentLoadOn(int studentOrdinal, LocalDate date) {
+        Integer d = dayIdx.get(date);
+        return d == null ? 0 : studentLoad[studentOrdinal * dayCount + d];
+    }
+
+    // Öğrencinin (ordinal) şu ana kadar yerleşmiş sınav sayısı
+    public int examCount(int studentOrdinal) {
+        return studentTotal[studentOrdinal];
+    }
+
+    /**
+     * Dersin slotlarını güne göre gruplar ve günleri, dersin öğrencileri için
+     * en az yüklü gün önce gelecek şekilde sıralar (eşitlikte takvim sırası).
+     */
+    public LinkedHashMap<LocalDate, List<Timeslot>> orderedDays(String courseId, List<Timeslot> slots) {
+        Map<LocalDate, List<Timeslot>> byDay = new TreeMap<>();
+        for (Timeslot t : slots)
+            byDay.computeIfAbsent(t.getDate(), k -> new ArrayList<>()).add(t);
+
+        List<LocalDate> days = new ArrayList<>(byDay.keySet());
+        days.sort(Comparator.comparingInt((LocalDate d) -> studentLoadOn(courseId, d))
+                .thenComparing(Comparator.naturalOrder()));
+
+        LinkedHashMap<LocalDate, List<Timeslot>> out = new LinkedHashMap<>();
+        for (LocalDate d : days)
+            out.put(d, byDay.get(d));
+        return out;
+    }
+
+    /**
+     * orderedDays'in ilkel sürümü: slot indekslerini aynı sırayla (gün yükü,
+     * tarih, gün içi sıra) döner. Her eleman (yük, epoch günü, indeks)
+     * paketlenmiş bir long'dur; indeks slotIndex ile alınır.
+     */
+    public long[] orderSlots(String courseId, List<Timeslot> slots) {
+        return orderSlots(courseId, slots, null, new long[slots.size()]);
+    }
+
+    /**
+     * orderSlots'un rastgele eşitlik bozmalı sürümü: yükü eşit günler tarih
+     * yerine bu çağrıya özgü rastgele bir gün sırasıyla dizilir. Gün içi
+     * saat sırası ve gün gruplaması aynı kalır. tieBreak null ise orderSlots.
+     */
+    public long[] orderSlots(String courseId, List<Timeslot> slots, Random tieBreak) {
+        return orderSlots(courseId, slots, tieBreak, new long[slots.size()]);
+    }
+
+    /**
+     * Sıcak yol için tampona yazan sürüm: out yetiyorsa kullanılır (yoksa
+     * yenisi ayrılır) ve dönen dizinin ilk slots.size() elemanı sıralıdır.
+     */
+    public long[] orderSlots(String courseId, List<Timeslot> slots, Random tieBreak, long[] out) {
+        int n = slots.size();
+        long[] keys = out != null && out.length >= n ? out : new long[n];
+        if (tieBreak != null) {
+            for (int d = 0; d < dayCount; d++)
+                dayRank[d] = d;
+            for (int d = dayCount - 1; d > 0; d--) {
+                int j = tieBreak.nextInt(d + 1);
+                int tmp = dayRank[d];
+                dayRank[d] = dayRank[j];
+                dayRank[j] = tmp;
+            }
+        }
+        int[] s = shared.get(courseId);
+        for (int i = 0; i < n; i++) {
+            LocalDate date = slots.get(i).getDate();
+            Integer d = dayIdx.get(date);
+            long load = (d == null || s == null) ? 0 : s[d];
+            long day = tieBreak == null ? date.toEpochDay() : d == null ? dayCount + date.toEpochDay() : dayRank[d];
+            keys[i] = (load << 42) | (day << 21) | i;
+        }
+        Arrays.sort(keys, 0, n);
+        return keys;
+    }
+
+    public static int slotIndex(long orderKey) {
+        return (int) (orderKey & ((1 << 21) - 1));
+    }
+
+    public static int minutesOf(Timeslot t) {
+        return (t.getEnd().toSecondOfDay() - t.getStart().toSecondOfDay()) / 60;
+    }
+}
@@ -0,0 +1,166 @@
+package scheduler.core;
+
+import scheduler.constraints.EncodedProblem;
+import scheduler.constraints.ViolationCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Yerleşemeyen bir dersin tipli teşhisi.
+ *
+ * Baskın kod, kod başına ihlal sayaçları (ViolationCode ordinaline göre),
+ * engelleyen ders / oda / öğrenci ordinalleri ve en yüklü öğrenciler ilkel
+ * dizilerde tutulur. Kimlikler ve metin yalnızca istendiğinde, koşunun kodlama
+ * tablolarından çözülür.
+ */
+public final class Diagnosis {
+
+    private static final int[] NONE = new int[0];
+
+    private final String courseId;
+    private final ViolationCode code;
+    private final int[] args;
+    private final int[] counts;
+
+    private final int[] blockingCourses;
+    private final int[] blockingRooms;
+    private final int[] blockingStudents;
+    private final int[] bottleneckStudents;
+    private final int[] bottleneckLoads;
+    // Sayaçlar adayların bir örneğinden mi çıktı?
+    private final boolean sampled;
+
+    // Ordinal çözümleyiciler (koşuya ait; null olabilir)
+    private final EncodedProblem problem;
+    private final StudentIndex students;
+
+    private Diagnosis(String courseId, ViolationCode code, int[] args, int[] counts,
+                      int[] blockingCourses, int[] blockingRooms, int[] blockingStudents,
+                      int[] bottleneckStudents, int[] bottleneckLoads, boolean sampled,
+                      EncodedProblem problem, StudentIndex students) {
+        this.courseId = courseId;
+        this.code = code;
+        this.args = args;
+        this.counts = counts;
+        this.blockingCourses = blockingCourses;
+        this.blockingRooms = blockingRooms;
+        this.blockingStudents = blockingStudents;
+        this.bottleneckStudents = bottleneckStudents;
+        this.bottleneckLoads = bottleneckLoads;
+        this.sampled = sampled;
+        this.problem = problem;
+        this.students = students;
+    }
+
+    // Kısıt dışı hata (veri / altyapı)
+    public static Diagnosis of(String courseId, ViolationCode code, int... args) {
+        return new Diagnosis(courseId, code, args == null ? NONE : args, NONE,
+                NONE, NONE, NONE, NONE, NONE, false, null, null);
+    }
+
+    /**
+     * Kısıt analizi sonucu.
+     *
+     * @param counts           ViolationCode ordinaline göre ihlal sayıları
+     * @param blockingStudents baskın kısıtın suçladığı öğrenciler (ör. o gün limitte olanlar)
+     * @param sampled          sayaçlar adayların deterministik bir örneğinden mi
+     */
+    public static Diagnosis ofConstraints(String courseId, ViolationCode code, int[] counts,
+                                          int[] blockingCourses, int[] blockingRooms, int[] blockingStudents,
+                                          int[] bottleneckStudents, int[] bottleneckLoads, boolean sampled,
+                                          EncodedProblem problem, StudentIndex students) {
+        return new Diagnosis(courseId, code, NONE, counts, blockingCourses, blockingRooms, blockingStudents,
+                bottleneckStudents, bottleneckLoads, sampled, problem, students);
+    }
+
+    // Aynı teşhis, başka bir ders için (süper düğüm kardeşleri)
+    public Diagnosis forCourse(String otherCourseId) {
+        return new Diagnosis(otherCourseId, code, args, counts, blockingCourses, blockingRooms, blockingStudents,
+                bottleneckStudents, bottleneckLoads, sampled, problem, students);
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public ViolationCode getCode() {
+        return code;
+    }
+
+    // Bu kod için sayılan ihlal (aday) sayısı
+    public int getCount(ViolationCode c) {
+        return c.ordinal() < counts.length ? counts[c.ordinal()] : 0;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public List<String> getBlockingCourseIds() {
+        if (problem == null)
+            return Collections.emptyList();
+        List<String> out = new ArrayList<>(blockingCourses.length);
+        for (int c : blockingCourses)
+            out.add(problem.courseId(c));
+        return out;
+    }
+
+    public List<String> getBlockingRoomIds() {
+        if (problem == null)
+            return Collections.emptyList();
+        List<String> out = new ArrayList<>(blockingRooms.length);
+        for (int r : blockingRooms)
+            out.add(problem.room(r).getId());
+        return out;
+    }
+
+    // Baskın kısıtın en çok suçladığı öğrenciler
+    public List<String> getBlockingStudentIds() {
+        if (students == null)
+            return Collections.emptyList();
+        List<String> out = new ArrayList<>(blockingStudents.length);
+        for (int s : blockingStudents)
+            out.add(students.id(s));
+        return out;
+    }
+
+    // En yüklü öğrenciler, yük sırasıyla
+    public List<String> getBottleneckStudentIds() {
+        if (students == null)
+            return Collections.emptyList();
+        List<String> out = new ArrayList<>(bottleneckStudents.length);
+        for (int s : bottleneckStudents)
+            out.add(students.id(s));
+        return out;
+    }
+
+    // getBottleneckStudentIds ile aynı sırada, o ana kadarki sınav sayıları
+    public int[] getBottleneckLoads() {
+        return Arrays.copyOf(bottleneckLoads, bottleneckLoads.length);
+    }
+
+    /**
+     * Gösterim metni. Eski serbest metin biçimiyle aynıdır:
+     * "Constraint Error: ... | Bottleneck students: S1(3), S2(2)".
+     */
+    public String render() {
+        StringBuilder sb = new StringBuilder(code.format(args));
+        if (bottleneckStudents.length > 0 && students != null) {
+            sb.append(" | Bottleneck students: ");
+            for (int i = 0; i < bottleneckStudents.length; i++) {
+                if (i > 0)
+                    sb.append(", ");
+                sb.append(students.id(bottleneckStudents[i])).append('(').append(bottleneckLoads[i]).append(')');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -2,108 +2,653 @@ package scheduler.core;
 
 import scheduler.assign.StudentDistributor;
 import scheduler.config.SchedulingConfig;
+import scheduler.config.SolverParameters;
 import scheduler.constraints.*;
 import scheduler.model.*;
+import scheduler.util.CompressedBitmap;
 
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Sınav yerleştirici. Nesnenin kendisi durumsuzdur: her koşunun değişken
+ * durumu bir SolveContext'te tutulur ve sonuç değiştirilemez bir SolveResult
+ * olarak döner. Aynı örnek birden çok iş parçacığından eşzamanlı
+ * kullanılabilir.
+ */
 public class ExamScheduler {
 
-        private final Map<String, String> unscheduledReasons = new HashMap<>();
-        // Track room usage across the whole run (for balancing)
-        private final Map<String, Integer> roomUseCount = new HashMap<>();
+        public SolveResult solve(List<Student> students,
+                        List<Course> courses,
+                        List<Enrollment> enrollments,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows) {
+                return solve(students, courses, enrollments, classrooms, dayWindows, SolverParameters.defaults());
+        }
 
-        public Map<String, String> getUnscheduledReasons() {
-                return unscheduledReasons;
+        // Varsayılan ayarlar, verilen tohumla
+        public SolveResult solve(List<Student> students,
+                        List<Course> courses,
+                        List<Enrollment> enrollments,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows,
+                        long seed) {
+                return solve(students, courses, enrollments, classrooms, dayWindows,
+                                SolverParameters.defaults().withRandomSeed(seed));
         }
 
-        public Map<String, List<StudentExam>> run(List<Student> students,
+        /**
+         * Koşunun tüm ayarları params'tan gelir (ızgara, kurallar, sayaçlar,
+         * süre sınırı); tohum yeniden başlatmaların eşitlik bozmasını, teşhis
+         * örneklemesini ve koltuk dağıtımını belirler. Aynı girdi ve ayarlar
+         * aynı sonucu verir. params.getStrategy() iki aşamalı ya da kabadan
+         * inceye çözümü seçebilir.
+         */
+        public SolveResult solve(List<Student> students,
                         List<Course> courses,
                         List<Enrollment> enrollments,
                         List<Classroom> classrooms,
-                        List<DayWindow> dayWindows) {
+                        List<DayWindow> dayWindows,
+                        SolverParameters params) {
+                switch (params.getStrategy()) {
+                        case TWO_PHASE:
+                                return solveTwoPhase(students, courses, enrollments, classrooms, dayWindows, params);
+                        case COARSE_TO_FINE:
+                                return solveCoarseToFine(students, courses, enrollments, classrooms, dayWindows, params);
+                        default:
+                                break;
+                }
+                return solve(new PreparedProblem(courses, enrollments), classrooms, dayWindows, params,
+                                Integer.MAX_VALUE, () -> false, null);
+        }
+
+        /**
+         * Paylaşılan hazırlık üzerinde çözüm (ScenarioRunner, PeriodOptimizer):
+         * kayıtlardan türeyen veri yeniden kurulmaz, oda/gün listesi ve ayarlar
+         * koşuya özgüdür. maxUnscheduled'dan fazla dersi
+         * yerleşemeyen koşular kabul edilmez; sınırsız son koşu bu sınırı
+         * aştığı anda, cancelled true döndüğünde ise her koşu yarıda bırakılır.
+         * Kabul edilen koşu yoksa null döner.
+         *
+         * start null değilse program o görüntünün fork'undan başlar (O(1)):
+         * bu koşuda hâlâ geçerli yerleşimler korunur, yalnızca kalanlar
+         * yerleştirilir (bkz. keepValidPlacements).
+         */
+        SolveResult solve(PreparedProblem prepared,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows,
+                        SolverParameters params,
+                        int maxUnscheduled,
+                        BooleanSupplier cancelled,
+                        PartialSchedule.Snapshot start) {
 
                 System.out.println("Scheduler started...");
-                unscheduledReasons.clear();
-                roomUseCount.clear();
-                Map<String, List<StudentExam>> results = new HashMap<>();
 
                 if (dayWindows == null || dayWindows.isEmpty()) {
                         System.out.println("No day windows provided.");
-                        return results;
+                        return SolveResult.empty();
                 }
 
-                // 1. Hazırlık: Grafikler, İstatistikler ve Timeslotlar
-                ConflictGraphBuilder gb = new ConflictGraphBuilder();
-                Map<String, Set<String>> courseToStudents = gb.buildCourseToStudents(enrollments);
-                Map<String, Integer> degrees = gb.buildDegrees(courseToStudents);
+                // 1. Hazırlık: Grafikler, İstatistikler, eşdeğer oda/gün sınıfları ve gün özetleri
+                SolveContext ctx = new SolveContext(prepared, classrooms, dayWindows, params);
+                ctx.maxUnscheduled = maxUnscheduled;
+                ctx.cancelled = cancelled;
+                List<Course> courses = prepared.courses;
 
                 // Timeslot'ları ÖNCE oluştur (ders esnekliği için)
-                TimeslotBuilder tsb = new TimeslotBuilder();
-                Map<String, List<Timeslot>> slotsPerCourse = new HashMap<>();
-                for (Course c : courses) {
-                        slotsPerCourse.put(c.getId(), tsb.build(dayWindows, c.getDurationMinutes()));
-                }
+                Map<String, List<Timeslot>> slotsPerCourse = ctx.prepared.slotsPerCourse(dayWindows,
+                                params.getGridMinutes());
 
                 // Dersleri GERÇEK zorluk derecesine göre sırala (least flexibility first)
-                List<Course> orderedCourses = sortCourses(courses, courseToStudents, degrees, slotsPerCourse);
+                List<Course> orderedCourses = sortCourses(ctx, courses, slotsPerCourse);
 
                 // Kısıtları (Constraints) Hazırla
-                ConstraintSet constraints = new ConstraintSet()
-                                .add(new OneExamPerRoomPerTime())
-                                .add(new NoStudentClashAndMinGap(courseToStudents, SchedulingConfig.MIN_GAP_MINUTES))
-                                .add(new MaxExamsPerDay(courseToStudents, SchedulingConfig.MAX_EXAMS_PER_DAY));
+                ConstraintSet constraints = buildConstraints(ctx);
+                ctx.softConstraints = buildSoftConstraints();
+
+                // Yerleştirme Motoru (başlangıç görüntüsü varsa onun fork'u; dinleyiciler
+                // bağlanırken mevcut yerleşimlerden kurulur)
+                PartialSchedule schedule = start == null ? new PartialSchedule()
+                                : dropUnavailable(start.fork(), slotsPerCourse, classrooms);
+                ctx.dayIndex.attach(schedule);
+                // Yerleşim değişiklikleri kısıtların artımlı durumlarına ve ölçütlere de akar
+                constraints.attach(schedule);
+                ctx.evaluator.attach(schedule);
+                if (start != null)
+                        keepValidPlacements(schedule, constraints);
+                // Luby kesmeli yeniden başlatmalar; gözden kaçanlar her koşu sonunda işaretlenir
+                if (!placeWithRestarts(ctx, courses, orderedCourses, schedule, slotsPerCourse, classrooms,
+                                constraints))
+                        return null;
+
+                // Sonuçları Veritabanına Yaz ve Döndür
+                return finalizeSchedule(ctx, schedule);
+        }
+
+        /**
+         * Çok çözünürlüklü çözüm: önce kaba ızgarada (params.getCoarseGridMinutes())
+         * normal yerleştirme ve backtracking, sonra yerleşemeyen dersler için
+         * ince ızgarada (params.getGridMinutes()) yeniden deneme ve aynı gündeki engelleyici
+         * sınavları birkaç ızgara adımı kaydırarak yer açma. Son olarak yerleşmiş
+         * her ders, kaba başlangıcının bir kaba adım çevresindeki ince saatlere
+         * yumuşak cezayı düşürüyorsa taşınır (bkz. refineOnFineGrid).
+         */
+        public SolveResult solveCoarseToFine(List<Student> students,
+                        List<Course> courses,
+                        List<Enrollment> enrollments,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows) {
+                return solveCoarseToFine(students, courses, enrollments, classrooms, dayWindows,
+                                SolverParameters.defaults());
+        }
+
+        public SolveResult solveCoarseToFine(List<Student> students,
+                        List<Course> courses,
+                        List<Enrollment> enrollments,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows,
+                        SolverParameters params) {
+
+                System.out.println("Scheduler started (coarse-to-fine)...");
+
+                if (dayWindows == null || dayWindows.isEmpty()) {
+                        System.out.println("No day windows provided.");
+                        return SolveResult.empty();
+                }
+
+                SolveContext ctx = new SolveContext(courses, enrollments, classrooms, dayWindows, params);
+
+                Map<String, List<Timeslot>> coarseSlots = ctx.prepared.slotsPerCourse(dayWindows,
+                                params.getCoarseGridMinutes());
+                Map<String, List<Timeslot>> fineSlots = ctx.prepared.slotsPerCourse(dayWindows,
+                                params.getGridMinutes());
+                // Esneklik sıralaması ince ızgaraya göre (gerçek alan büyüklüğü)
+                List<Course> orderedCourses = sortCourses(ctx, courses, fineSlots);
+
+                ConstraintSet constraints = buildConstraints(ctx);
+                ctx.softConstraints = buildSoftConstraints();
+
+                // 1) Kaba ızgara
+                PartialSchedule schedule = new PartialSchedule();
+                ctx.dayIndex.attach(schedule);
+                // Yerleşim değişiklikleri kısıtların artımlı durumlarına ve ölçütlere de akar
+                constraints.attach(schedule);
+                ctx.evaluator.attach(schedule);
+                List<Course> pending = new ArrayList<>();
+                placeCourses(ctx, orderedCourses, schedule, coarseSlots, classrooms, constraints, pending);
+
+                // 2) İnce ızgarada iyileştirme
+                String lastFailed = null;
+                for (Course c : pending) {
+                        if (copySiblingFailure(ctx, c, lastFailed))
+                                continue;
+                        int studentCount = ctx.courseToStudents.get(c.getId()).size();
+                        List<List<Classroom>> roomCandidates = findRoomCandidates(ctx, c, classrooms, studentCount, schedule);
+                        List<Timeslot> slots = fineSlots.get(c.getId());
+
+                        if (attemptPlace(ctx, c, schedule, slots, roomCandidates, constraints)
+                                        || placeByShifting(ctx, c, schedule, fineSlots, roomCandidates, constraints)) {
+                                lastFailed = null;
+                                continue;
+                        }
+                        analyzeFailure(ctx, c, schedule, slots, roomCandidates, constraints);
+                        lastFailed = c.getId();
+                }
+                refineOnFineGrid(ctx, orderedCourses, schedule, fineSlots, constraints);
+
+                markUnknownFailures(ctx, courses, schedule);
+                return finalizeSchedule(ctx, schedule);
+        }
+
+        /**
+         * Alternatif iki aşamalı çözüm: önce yalnızca öğrenci kısıtlarıyla
+         * timeslot renklendirmesi (odalara sığma kontrolüyle), sonra her
+         * bağımsız zaman bloğu için paralel oda paketleme. Paketlenemeyen
+         * dersler normal yerleştirme ile son bir kez denenir.
+         */
+        public SolveResult solveTwoPhase(List<Student> students,
+                        List<Course> courses,
+                        List<Enrollment> enrollments,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows) {
+                return solveTwoPhase(students, courses, enrollments, classrooms, dayWindows,
+                                SolverParameters.defaults());
+        }
+
+        public SolveResult solveTwoPhase(List<Student> students,
+                        List<Course> courses,
+                        List<Enrollment> enrollments,
+                        List<Classroom> classrooms,
+                        List<DayWindow> dayWindows,
+                        SolverParameters params) {
+
+                System.out.println("Scheduler started (two-phase)...");
+
+                if (dayWindows == null || dayWindows.isEmpty()) {
+                        System.out.println("No day windows provided.");
+                        return SolveResult.empty();
+                }
+
+                SolveContext ctx = new SolveContext(courses, enrollments, classrooms, dayWindows, params);
+
+                Map<String, List<Timeslot>> slotsPerCourse = ctx.prepared.slotsPerCourse(dayWindows,
+                                params.getGridMinutes());
+                List<Course> orderedCourses = sortCourses(ctx, courses, slotsPerCourse);
+
+                // Renklendirilecek dersler: öğrencisi ve yeterli odası olanlar
+                Map<String, Integer> needs = new HashMap<>();
+                Map<String, List<Classroom>> eligible = new HashMap<>();
+                List<Course> colorable = new ArrayList<>();
+                for (Course c : orderedCourses) {
+                        int studentCount = ctx.courseToStudents.getOrDefault(c.getId(), Collections.emptySet()).size();
+                        if (studentCount == 0) {
+                                ctx.fail(Diagnosis.of(c.getId(), ViolationCode.NO_ENROLLMENTS));
+                                continue;
+                        }
+                        List<Classroom> filtered = filterRooms(ctx, c, classrooms);
+                        if (filtered.isEmpty())
+                                continue;
+                        if (RoomComboGenerator.totalCapacity(filtered) < studentCount) {
+                                ctx.fail(Diagnosis.of(c.getId(), ViolationCode.INSUFFICIENT_CAPACITY,
+                                                studentCount, filtered.size()));
+                                continue;
+                        }
+                        needs.put(c.getId(), studentCount);
+                        eligible.put(c.getId(), filtered);
+                        colorable.add(c);
+                }
+
+                // 1. AŞAMA: timeslot renklendirme
+                ConstraintSet studentConstraints = new ConstraintSet(ctx.problem)
+                                .add(new NoStudentClashAndMinGap(ctx.params.getMinGapMinutes()))
+                                .add(new MaxExamsPerDay(ctx.params.getMaxExamsPerDay()));
+                RoomBinPacker packer = new RoomBinPacker();
+                PartialSchedule timing = new PartialSchedule();
+                studentConstraints.attach(timing);
+                // renklendirilemeyenler aşağıdaki onarımda denenir
+                new TimeslotColoring(studentConstraints, packer, ctx.symmetry)
+                                .color(colorable, slotsPerCourse, needs, eligible, timing);
+
+                // 2. AŞAMA: bloklar bağımsız, paralel paketle
+                List<Map<String, List<Classroom>>> packed = packer
+                                .splitIntoBlocks(timing.getPlacements().values())
+                                .parallelStream()
+                                .map(block -> packer.pack(block, needs, eligible))
+                                .collect(Collectors.toList());
 
-                // Yerleştirme Motoru
                 PartialSchedule schedule = new PartialSchedule();
-                RoomComboGenerator rcg = new RoomComboGenerator();
+                ctx.dayIndex.attach(schedule);
+                for (Map<String, List<Classroom>> block : packed) {
+                        for (Map.Entry<String, List<Classroom>> e : block.entrySet()) {
+                                Timeslot t = timing.getPlacements().get(e.getKey()).getTimeslot();
+                                schedule.addPlacement(new Placement(e.getKey(), t, e.getValue()));
+                        }
+                }
+
+                // Onarım: renklendirilemeyen / paketlenemeyen dersler normal yolla denenir
+                ConstraintSet constraints = buildConstraints(ctx);
+                ctx.softConstraints = buildSoftConstraints();
+                // Yerleşim değişiklikleri kısıtların artımlı durumlarına ve ölçütlere de akar
+                constraints.attach(schedule);
+                ctx.evaluator.attach(schedule);
+                for (Course c : colorable) {
+                        if (schedule.contains(c.getId()))
+                                continue;
+                        List<List<Classroom>> roomCandidates = findRoomCandidates(ctx, c, classrooms, needs.get(c.getId()), schedule);
+                        if (roomCandidates.isEmpty())
+                                continue;
+                        List<Timeslot> slots = slotsPerCourse.get(c.getId());
+                        if (attemptPlace(ctx, c, schedule, slots, roomCandidates, constraints))
+                                continue;
+                        analyzeFailure(ctx, c, schedule, slots, roomCandidates, constraints);
+                }
+
+                markUnknownFailures(ctx, courses, schedule);
+                return finalizeSchedule(ctx, schedule);
+        }
+
+        // --- YARDIMCI METODLAR (Private Helpers) ---
+
+        /**
+         * Başlangıç fork'undan, bu koşuda olmayan slotlara (gün/ızgara) ya da
+         * odalara bağlı yerleşimleri çıkarır. Dinleyiciler bağlanmadan önce
+         * çağrılır; kısıt kontrolü gerekmez.
+         */
+        private static PartialSchedule dropUnavailable(PartialSchedule schedule,
+                        Map<String, List<Timeslot>> slotsPerCourse, List<Classroom> classrooms) {
+                Set<String> roomIds = new HashSet<>();
+                for (Classroom r : classrooms)
+                        roomIds.add(r.getId());
+                for (Placement p : new ArrayList<>(schedule.getPlacements().values())) {
+                        boolean available = p.getClassrooms().stream().allMatch(r -> roomIds.contains(r.getId()))
+                                        && slotsPerCourse.getOrDefault(p.getCourseId(), Collections.emptyList()).stream()
+                                                        .anyMatch(t -> sameSlot(t, p.getTimeslot()));
+                        if (!available)
+                                schedule.removePlacement(p.getCourseId());
+                }
+                return schedule;
+        }
+
+        private static boolean sameSlot(Timeslot a, Timeslot b) {
+                return a.getDate().equals(b.getDate()) && a.getStart().equals(b.getStart())
+                                && a.getEnd().equals(b.getEnd());
+        }
+
+        /**
+         * Kalan yerleşimleri ders kimliği sırasıyla bu koşunun kısıtlarıyla
+         * (ör. değişmiş günlük sınır) yeniden sınar: her biri çıkarılıp, önce
+         * korunanlarla birlikte hâlâ geçerliyse geri eklenir.
+         */
+        private static void keepValidPlacements(PartialSchedule schedule, ConstraintSet constraints) {
+                List<Placement> seeded = new ArrayList<>(schedule.getPlacements().values());
+                seeded.sort(Comparator.comparing(Placement::getCourseId));
+                for (Placement p : seeded) {
+                        schedule.removePlacement(p.getCourseId());
+                        if (constraints.ok(schedule, new Candidate(p.getCourseId(), p.getTimeslot(), p.getClassrooms())))
+                                schedule.addPlacement(p);
+                }
+        }
+
+        private ConstraintSet buildConstraints(SolveContext ctx) {
+                return new ConstraintSet(ctx.problem)
+                                .add(new OneExamPerRoomPerTime())
+                                .add(new NoStudentClashAndMinGap(ctx.params.getMinGapMinutes()))
+                                .add(new MaxExamsPerDay(ctx.params.getMaxExamsPerDay()))
+                                .withNogoodCache(new NogoodCache());
+        }
+
+        private static SoftConstraintSet buildSoftConstraints() {
+                return new SoftConstraintSet()
+                                .add(new BackToBackPenalty(SchedulingConfig.BACK_TO_BACK_WINDOW_MINUTES),
+                                                SchedulingConfig.SOFT_BACK_TO_BACK_WEIGHT)
+                                .add(new LateExamPenalty(SchedulingConfig.LATE_EXAM_START_MINUTE),
+                                                SchedulingConfig.SOFT_LATE_EXAM_WEIGHT)
+                                .add(new ExamSpreadPenalty(), SchedulingConfig.SOFT_SPREAD_WEIGHT);
+        }
+
+        /**
+         * Luby yeniden başlatmaları: k. koşu en fazla luby(k) × kesme birimi
+         * (getRestartUnitBacktracks) geri izleme dener; aşarsa yarıda bırakılır ve
+         * program koşu başına geri alınır. İlk koşu deterministik sırayla (tek
+         * koşulu davranış) başlar; sonrakiler geri izlemeye düşen grupları öne
+         * alır ve ders/gün eşitliklerini tohumlu rastgele bozar. Son koşu
+         * sınırsızdır. Tamamlanan koşulardan en az dersi yerleşemeyen (eşitlikte
+         * ilki) programda kalır. Süre sınırı geçince yeni koşu açılmaz (henüz
+         * tamamlanan yoksa doğrudan son koşuya geçilir). Hiçbir koşu tamamlanmadıysa (yerleşemeyen sınırı
+         * ya da iptal) program boş kalır ve false döner.
+         */
+        private boolean placeWithRestarts(SolveContext ctx, List<Course> courses, List<Course> orderedCourses,
+                        PartialSchedule schedule, Map<String, List<Timeslot>> slotsPerCourse, List<Classroom> classrooms,
+                        ConstraintSet constraints) {
+                int runs = ctx.params.getRestartLimit();
+                Random rnd = new Random(ctx.params.getRandomSeed());
+                // Yerleşim haritası kalıcı (persistent): geri almadan etkilenmez
+                Map<String, Placement> bestPlacements = null;
+                Map<String, Diagnosis> bestDiagnoses = null;
+
+                for (int run = 0; run < runs; run++) {
+                        boolean last = run == runs - 1;
+                        // Sınırlı koşular öğrenmek için sonuna kadar gider; yalnızca sınırsız son
+                        // koşu, yerleşemeyen sınırını aşınca kesilir
+                        if (last)
+                                ctx.startRun(run == 0 ? null : rnd, Integer.MAX_VALUE, ctx.maxUnscheduled);
+                        else
+                                ctx.startRun(run == 0 ? null : rnd,
+                                                luby(run + 1) * ctx.params.getRestartUnitBacktracks(), Integer.MAX_VALUE);
+                        List<Course> order = run == 0 ? orderedCourses : sortCourses(ctx, courses, slotsPerCourse);
+
+                        int cp = schedule.checkpoint();
+                        boolean complete = placeCourses(ctx, order, schedule, slotsPerCourse, classrooms, constraints, null);
+                        if (complete) {
+                                markUnknownFailures(ctx, courses, schedule);
+                                complete = ctx.diagnoses.size() <= ctx.maxUnscheduled;
+                        }
+                        if (complete && (bestDiagnoses == null || ctx.diagnoses.size() < bestDiagnoses.size())) {
+                                if (ctx.diagnoses.isEmpty() || last) {
+                                        schedule.commit(cp);
+                                        return true;
+                                }
+                                bestPlacements = schedule.getPlacements();
+                                bestDiagnoses = new HashMap<>(ctx.diagnoses);
+                        }
+                        schedule.rollback(cp);
+                        if (ctx.cancelled.getAsBoolean())
+                                break;
+                        if (ctx.pastDeadline()) {
+                                if (bestPlacements != null)
+                                        break;
+                                run = Math.max(run, runs - 2);
+                        }
+                }
+
+                if (bestPlacements == null)
+                        return false;
+                // Son koşu daha kötüydü ya da kesildi: en iyi tamamlanan koşuyu geri yükle
+                for (Placement p : bestPlacements.values())
+                        schedule.addPlacement(p);
+                ctx.diagnoses.clear();
+                ctx.diagnoses.putAll(bestDiagnoses);
+                return true;
+        }
+
+        // Luby dizisinin i. terimi (i >= 1): 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...
+        static int luby(int i) {
+                for (int k = 1;; k++) {
+                        int full = (1 << k) - 1;
+                        if (i == full)
+                                return 1 << (k - 1);
+                        if (i < full)
+                                return luby(i - (1 << (k - 1)) + 1);
+                }
+        }
+
+        /**
+         * Ana döngü: dersleri sırayla yerleştirir, olmazsa backtracking dener.
+         * deferred null değilse başarısız dersler analiz edilmek yerine oraya
+         * eklenir (sonraki bir aşama yeniden deneyecek). Koşunun geri izleme
+         * sınırı aşılırsa yarıda bırakır ve false döner.
+         */
+        private boolean placeCourses(SolveContext ctx, List<Course> orderedCourses, PartialSchedule schedule,
+                        Map<String, List<Timeslot>> slotsPerCourse, List<Classroom> classrooms,
+                        ConstraintSet constraints, List<Course> deferred) {
+                // Hemen önce aynı durumda başarısız olan ders (kardeşi ise sonuç aynıdır)
+                String lastFailed = null;
 
-                // --- ANA DÖNGÜ ---
                 for (Course c : orderedCourses) {
-                        int studentCount = courseToStudents.getOrDefault(c.getId(), Collections.emptySet()).size();
+                        if (ctx.cutOff())
+                                return false;
+                        // Başlangıç görüntüsünden korunan ders
+                        if (schedule.contains(c.getId()))
+                                continue;
+                        if (deferred == null && copySiblingFailure(ctx, c, lastFailed))
+                                continue;
+                        if (deferred != null && lastFailed != null && ctx.groups.sameGroup(c.getId(), lastFailed)) {
+                                deferred.add(c);
+                                continue;
+                        }
+                        lastFailed = null;
+
+                        int studentCount = ctx.courseToStudents.getOrDefault(c.getId(), Collections.emptySet()).size();
 
                         if (studentCount == 0) {
-                                logError(c.getId(), "No enrollments found (0 students).");
+                                ctx.fail(Diagnosis.of(c.getId(), ViolationCode.NO_ENROLLMENTS));
                                 continue;
                         }
 
                         // Olası Oda Kombinasyonlarını Bul
-                        List<List<Classroom>> roomCandidates = findRoomCandidates(c, classrooms, studentCount, rcg);
+                        List<List<Classroom>> roomCandidates = findRoomCandidates(ctx, c, classrooms, studentCount, schedule);
                         if (roomCandidates.isEmpty())
                                 continue; // Hata logu metodun içinde yazıldı
 
                         List<Timeslot> slots = slotsPerCourse.get(c.getId());
 
                         // 1. ADIM: Normal Yerleştirme Dene
-                        if (attemptPlace(c, schedule, slots, roomCandidates, constraints)) {
+                        if (attemptPlace(ctx, c, schedule, slots, roomCandidates, constraints)) {
                                 continue; // Başarılı
                         }
 
                         // 2. ADIM: Transactional Backtracking (Son çare)
-                        if (tryBacktracking(c, schedule, slots, roomCandidates, slotsPerCourse, constraints)) {
+                        ctx.bumpHardness(c.getId());
+                        ctx.backtracks++;
+                        if (tryBacktracking(ctx, c, schedule, slots, roomCandidates, slotsPerCourse, constraints)) {
                                 continue; // Başarılı
                         }
 
+                        // Başarısız denemeler geri alındı: durum, kardeş ders için aynı
+                        lastFailed = c.getId();
+
+                        if (deferred != null) {
+                                deferred.add(c);
+                                continue;
+                        }
+
                         // 3. ADIM: Hata Analizi (Neden olmadı?)
-                        analyzeFailure(c, schedule, slots, roomCandidates, constraints, courseToStudents);
+                        analyzeFailure(ctx, c, schedule, slots, roomCandidates, constraints);
                 }
+                return true;
+        }
+
+        /**
+         * Aynı süper düğümdeki bir kardeş, değişmemiş bir programda az önce
+         * yerleşemediyse bu ders de yerleşemez (aynı öğrenciler, slotlar ve
+         * oda adayları); aramayı tekrarlamadan onun nedenini kopyalar.
+         */
+        private boolean copySiblingFailure(SolveContext ctx, Course c, String lastFailed) {
+                if (lastFailed == null || !ctx.groups.sameGroup(c.getId(), lastFailed))
+                        return false;
+                Diagnosis d = ctx.diagnoses.get(lastFailed);
+                if (d == null)
+                        return false;
+                ctx.fail(d.forCourse(c.getId()));
+                return true;
+        }
 
-                // Fallback: Gözden kaçanlar
-                markUnknownFailures(courses, schedule);
+        /**
+         * Dersin öğrencileriyle aynı gün sınavı olan en fazla
+         * params.getShiftNeighbours() yerleşimi, ince ızgarada en fazla
+         * params.getShiftWindowMinutes() kaydırarak ders için yer açmayı dener.
+         * Başarısız kaydırmalar geri alınır.
+         */
+        private boolean placeByShifting(SolveContext ctx, Course c, PartialSchedule schedule, Map<String, List<Timeslot>> fineSlots,
+                        List<List<Classroom>> cCandidates, ConstraintSet constraints) {
+                CompressedBitmap sc = ctx.courseStudents.getOrDefault(c.getId(), CompressedBitmap.EMPTY);
+                List<Timeslot> cSlots = fineSlots.get(c.getId());
+                if (sc.isEmpty() || cSlots == null || cCandidates.isEmpty())
+                        return false;
 
-                // Sonuçları Veritabanına Yaz ve Döndür
-                return finalizeSchedule(schedule, courseToStudents, results);
+                for (Map.Entry<java.time.LocalDate, List<Timeslot>> day : ctx.dayIndex.orderedDays(c.getId(), cSlots)
+                                .entrySet()) {
+                        List<Placement> blockers = new ArrayList<>();
+                        for (Placement p : schedule.getPlacements().values()) {
+                                if (p.getTimeslot().getDate().equals(day.getKey()) && sc.intersects(
+                                                ctx.courseStudents.getOrDefault(p.getCourseId(), CompressedBitmap.EMPTY)))
+                                        blockers.add(p);
+                        }
+                        blockers.sort(Comparator.comparing(Placement::getCourseId));
+                        if (blockers.size() > ctx.params.getShiftNeighbours())
+                                continue; // çok kalabalık gün, kaydırma yetmez
+
+                        for (Placement orig : blockers) {
+                                int cp = schedule.checkpoint();
+                                schedule.removePlacement(orig.getCourseId());
+                                int origStart = orig.getTimeslot().getStart().toSecondOfDay() / 60;
+
+                                List<Timeslot> shifts = new ArrayList<>();
+                                for (Timeslot alt : fineSlots.getOrDefault(orig.getCourseId(), Collections.emptyList())) {
+                                        int delta = Math.abs(alt.getStart().toSecondOfDay() / 60 - origStart);
+                                        if (alt.getDate().equals(day.getKey()) && delta > 0
+                                                        && delta <= ctx.params.getShiftWindowMinutes())
+                                                shifts.add(alt);
+                                }
+                                shifts.sort(Comparator.comparingInt(
+                                                (Timeslot t) -> Math.abs(t.getStart().toSecondOfDay() / 60 - origStart)));
+
+                                EncodedSchedule enc = ctx.problem.encodingOf(schedule);
+                                int origCombo = ctx.problem.combo(orig.getClassrooms());
+                                for (Timeslot alt : shifts) {
+                                        List<Classroom> rooms = ctx.problem.comboClassrooms(
+                                                        ctx.symmetry.bindRooms(enc, origCombo, ctx.problem.encodeSlot(alt)));
+                                        if (!constraints.ok(schedule, new Candidate(orig.getCourseId(), alt, rooms)))
+                                                continue;
+                                        int shiftCp = schedule.checkpoint();
+                                        schedule.addPlacement(new Placement(orig.getCourseId(), alt, rooms));
+                                        if (attemptPlace(ctx, c, schedule, day.getValue(), cCandidates, constraints)) {
+                                                schedule.commit(cp);
+                                                return true;
+                                        }
+                                        schedule.rollback(shiftCp);
+                                }
+                                schedule.rollback(cp);
+                        }
+                }
+                return false;
         }
 
-        // --- YARDIMCI METODLAR (Private Helpers) ---
+        /**
+         * Kaba ızgarada yerleşmiş dersleri ince ızgarada iyileştirir: her ders
+         * için aynı gün, kaba başlangıcından bir kaba adımdan az uzaktaki ince
+         * saatler yumuşak ceza farkına göre (eşitlikte yakın olan önce) denenir;
+         * hâlâ geçerli ve cezayı düşüren ilk saat alınır, yoksa yerleşim
+         * korunur.
+         */
+        private void refineOnFineGrid(SolveContext ctx, List<Course> orderedCourses, PartialSchedule schedule,
+                        Map<String, List<Timeslot>> fineSlots, ConstraintSet constraints) {
+                if (ctx.softConstraints.isEmpty())
+                        return;
+                int window = ctx.params.getCoarseGridMinutes();
+                for (Course c : orderedCourses) {
+                        Placement orig = schedule.getPlacements().get(c.getId());
+                        List<Timeslot> slots = fineSlots.get(c.getId());
+                        if (orig == null || slots == null)
+                                continue;
+                        EncodedSchedule enc = ctx.problem.encodingOf(schedule);
+                        int course = ctx.problem.courseOrdinal(c.getId());
+                        int combo = ctx.problem.combo(orig.getClassrooms());
+                        int origStart = orig.getTimeslot().getStart().toSecondOfDay() / 60;
+
+                        // {ceza farkı, uzaklık, slot konumu}; yalnızca cezayı düşürenler
+                        List<int[]> better = new ArrayList<>();
+                        for (int k = 0; k < slots.size(); k++) {
+                                Timeslot alt = slots.get(k);
+                                int dist = Math.abs(alt.getStart().toSecondOfDay() / 60 - origStart);
+                                if (dist == 0 || dist >= window || !alt.getDate().equals(orig.getTimeslot().getDate()))
+                                        continue;
+                                int delta = ctx.softConstraints.moveDelta(enc, course, ctx.problem.encodeSlot(alt), combo);
+                                if (delta < 0)
+                                        better.add(new int[] { delta, dist, k });
+                        }
+                        if (better.isEmpty())
+                                continue;
+                        better.sort(Comparator.<int[]>comparingInt(b -> b[0]).thenComparingInt(b -> b[1]));
 
-        private List<Course> sortCourses(List<Course> courses,
-                        Map<String, Set<String>> c2s,
-                        Map<String, Integer> degrees,
+                        int cp = schedule.checkpoint();
+                        schedule.removePlacement(c.getId());
+                        boolean done = false;
+                        for (int[] b : better) {
+                                int slot = ctx.problem.encodeSlot(slots.get(b[2]));
+                                int bound = ctx.symmetry.bindRooms(enc, combo, slot);
+                                if (constraints.ok(enc, course, slot, bound)) {
+                                        schedule.addPlacement(new Placement(c.getId(), slots.get(b[2]),
+                                                        ctx.problem.comboClassrooms(bound)));
+                                        done = true;
+                                        break;
+                                }
+                        }
+                        if (done)
+                                schedule.commit(cp);
+                        else
+                                schedule.rollback(cp);
+                }
+        }
+
+        private List<Course> sortCourses(SolveContext ctx, List<Course> courses,
                         Map<String, List<Timeslot>> slotsPerCourse) {
+                Map<String, Set<String>> c2s = ctx.courseToStudents;
+                Map<String, Integer> degrees = ctx.degrees;
                 List<Course> sorted = new ArrayList<>(courses);
-                sorted.sort(Comparator
+                Comparator<Course> order = Comparator
                                 // 1) En az timeslotu olan ders (least flexibility)
                                 .comparingInt((Course c) -> slotsPerCourse
                                                 .getOrDefault(c.getId(), Collections.emptyList()).size())
@@ -111,47 +656,48 @@ public class ExamScheduler {
                                 .thenComparingInt(c -> degrees.getOrDefault(c.getId(), 0)).reversed()
                                 // 3) Öğrenci sayısı (yüksek = zor)
                                 .thenComparingInt(c -> c2s.getOrDefault(c.getId(), Collections.emptySet()).size())
-                                .reversed()
+                                .reversed();
+                if (ctx.tieBreak != null) {
+                        // Yeniden başlatma: önce önceki koşularda zorlanan gruplar, eşitlikler
+                        // grup başına rastgele anahtarla (kardeşler yine art arda)
+                        Map<String, Integer> noise = new HashMap<>();
+                        for (Course c : courses)
+                                noise.computeIfAbsent(ctx.groups.representativeOf(c.getId()), k -> ctx.tieBreak.nextInt());
+                        order = Comparator.comparingInt((Course c) -> -ctx.hardness(c.getId()))
+                                        .thenComparing(order)
+                                        .thenComparingInt(c -> noise.get(ctx.groups.representativeOf(c.getId())));
+                }
+                sorted.sort(order
+                                // Aynı süper düğümün üyeleri art arda gelsin
+                                .thenComparing((Course c) -> ctx.groups.representativeOf(c.getId()))
                                 // Stabilite için
                                 .thenComparing(Course::getId));
                 return sorted;
         }
 
-        private List<List<Classroom>> findRoomCandidates(Course c, List<Classroom> classrooms, int needed,
-                        RoomComboGenerator rcg) {
-                // Kapasite Filtreleri
-                List<Classroom> filtered = classrooms.stream()
-                                .filter(r -> (c.getMinRoomCapacity() <= 0 || r.getCapacity() >= c.getMinRoomCapacity()))
-                                .filter(r -> (c.getMaxRoomCapacity() <= 0 || r.getCapacity() <= c.getMaxRoomCapacity()))
-                                .collect(Collectors.toList());
-
-                if (filtered.isEmpty()) {
-                        logError(c.getId(), "Configuration Error: No rooms match capacity filters.");
+        private List<List<Classroom>> findRoomCandidates(SolveContext ctx, Course c, List<Classroom> classrooms, int needed,
+                        PartialSchedule schedule) {
+                List<Classroom> filtered = filterRooms(ctx, c, classrooms);
+                if (filtered.isEmpty())
                         return Collections.emptyList();
-                }
 
-                // Kombinasyon Üretimi
-                List<Classroom> greedy = rcg.generateGreedyOrdered(filtered, needed, true);
-                List<List<Classroom>> candidates = new ArrayList<>();
-
-                if (RoomComboGenerator.totalCapacity(greedy) >= needed) {
-                        candidates.add(greedy);
-                }
-                candidates.addAll(rcg.generateMinimalCombos(filtered, needed, 50));
+                // Kombinasyon Üretimi (aynı oda listesi ve ihtiyaç için koşular arasında paylaşılır)
+                List<List<Classroom>> candidates = new ArrayList<>(
+                                ctx.prepared.roomCombos(filtered, needed, ctx.params.getRoomComboLimit()));
 
                 if (candidates.isEmpty()) {
-                        logError(c.getId(),
-                                "Infrastructure Error: Insufficient total room capacity (needed="
-                                + needed + ", rooms=" + filtered.size() + ")");
+                        ctx.fail(Diagnosis.of(c.getId(), ViolationCode.INSUFFICIENT_CAPACITY, needed, filtered.size()));
                 }
 
                 // --- Balance room usage (deterministic) ---
 
-                Random rnd = new Random(42L ^ (c.getId() == null ? 0 : c.getId().hashCode()));
+                // Tohum koşunun tohumu ve grubun temsilcisinden: kardeş dersler aynı aday sırasını görür
+                String seedId = c.getId() == null ? null : ctx.groups.representativeOf(c.getId());
+                Random rnd = new Random(ctx.params.getRandomSeed() ^ (seedId == null ? 0 : seedId.hashCode()));
                 Collections.shuffle(candidates, rnd);
                 candidates.sort(Comparator
                                 .comparingInt((List<Classroom> rs) -> rs.stream()
-                                                .mapToInt(r -> roomUseCount.getOrDefault(r.getId(), 0)).sum())
+                                                .mapToInt(r -> schedule.getRoomUseCount(r.getId())).sum())
                                 .thenComparingInt(rs -> Math.max(0,
                                                 RoomComboGenerator.totalCapacity(rs) - needed))
                                 .thenComparingInt(rs -> rs.stream()
@@ -160,54 +706,148 @@ public class ExamScheduler {
                 return candidates;
         }
 
-        private boolean attemptPlace(Course c, PartialSchedule schedule, List<Timeslot> slots,
+        // Kapasite Filtreleri (boşsa hata loglanır)
+        private List<Classroom> filterRooms(SolveContext ctx, Course c, List<Classroom> classrooms) {
+                List<Classroom> filtered = classrooms.stream()
+                                .filter(r -> (c.getMinRoomCapacity() <= 0 || r.getCapacity() >= c.getMinRoomCapacity()))
+                                .filter(r -> (c.getMaxRoomCapacity() <= 0 || r.getCapacity() <= c.getMaxRoomCapacity()))
+                                .collect(Collectors.toList());
+
+                if (filtered.isEmpty()) {
+                        ctx.fail(Diagnosis.of(c.getId(), ViolationCode.NO_MATCHING_ROOMS));
+                }
+                return filtered;
+        }
+
+        private boolean attemptPlace(SolveContext ctx, Course c, PartialSchedule schedule, List<Timeslot> slots,
                         List<List<Classroom>> candidates, ConstraintSet constraints) {
                 if (slots == null || candidates == null)
                         return false;
-                int retries = Math.min(2, candidates.size());
+                // Sıcak yol: adaylar ilkel (ders, slot kodu, kombinasyon) üçlüleri
+                EncodedSchedule enc = ctx.problem.encodingOf(schedule);
+                int course = ctx.problem.courseOrdinal(c.getId());
+                // Dizi ayırmamak için bağlamın tamponları kullanılır
+                int n = slots.size();
+                if (ctx.slotCodes.length < n)
+                        ctx.slotCodes = new int[n];
+                int[] codes = ctx.slotCodes;
+                for (int k = 0; k < n; k++)
+                        codes[k] = ctx.problem.encodeSlot(slots.get(k));
+                boolean[] redundantDays = ctx.redundantDays = ctx.symmetry.redundantDays(enc, ctx.redundantDays);
+                // Önce gün seç (öğrenci yükü az olan gün önce; eşitlikte tarih ya da koşunun
+                // rastgele gün sırası), sonra gün içindeki saatleri tara
+                long[] order = ctx.slotOrder = ctx.dayIndex.orderSlots(c.getId(), slots, ctx.tieBreak, ctx.slotOrder);
+                // LCV: ilk geçerli slot yerine ilk lcvLimit geçerli slottan en az kısıtlayanı
+                int lcvLimit = ctx.lcvSlots.length;
+                int[] lcvSlots = ctx.lcvSlots;
+                int[] lcvPos = ctx.lcvPos;
+                int[] lcvBound = ctx.lcvBound;
+                int retries = Math.min(ctx.params.getPlacementRetries(), candidates.size());
                 for (int i = 0; i < retries; i++) {
-                        List<Classroom> rooms = candidates.get(i);
-                        for (Timeslot t : slots) {
-                                Candidate cand = new Candidate(c.getId(), t, rooms);
-                                if (constraints.ok(schedule, cand)) {
-                                        schedule.addPlacement(new Placement(c.getId(), t, rooms));
-                                        // update room usage counts
-                                        for (Classroom r : rooms) {
-                                                roomUseCount.put(r.getId(), roomUseCount.getOrDefault(r.getId(), 0) + 1);
+                        int combo = ctx.problem.combo(candidates.get(i));
+                        int lastDay = -1;
+                        boolean skipDay = false;
+                        int feasible = 0;
+                        for (int o = 0; o < n && (lcvLimit == 0 || feasible < lcvLimit); o++) {
+                                int idx = DayIndex.slotIndex(order[o]);
+                                int slot = codes[idx];
+                                int day = EncodedProblem.slotDay(slot);
+                                if (day != lastDay) {
+                                        lastDay = day;
+                                        // eşdeğer boş gün zaten denendi ya da gün toptan elendi
+                                        skipDay = (day < redundantDays.length && redundantDays[day])
+                                                        || ctx.dayIndex.isDayImpossible(c.getId(), slots.get(idx).getDate(),
+                                                                        EncodedProblem.slotEnd(slot)
+                                                                                        - EncodedProblem.slotStart(slot));
+                                }
+                                if (skipDay)
+                                        continue;
+                                int bound = ctx.symmetry.bindRooms(enc, combo, slot);
+                                if (lcvLimit > 0) {
+                                        if (constraints.ok(enc, course, slot, bound)) {
+                                                lcvSlots[feasible] = slot;
+                                                lcvPos[feasible] = o;
+                                                lcvBound[feasible++] = bound;
+                                        }
+                                        continue;
+                                }
+                                if (constraints.ok(enc, course, slot, bound)) {
+                                        if (SchedulingConfig.SOFT_GUIDED_PLACEMENT && !ctx.softConstraints.isEmpty()) {
+                                                long best = bestOnDay(ctx, enc, course, codes, order, n, o, combo, constraints,
+                                                                ctx.softConstraints.delta(enc, course, slot, bound), bound);
+                                                idx = DayIndex.slotIndex(order[(int) (best >>> 32)]);
+                                                bound = (int) best;
                                         }
+                                        // oda kullanım sayaçlarını PartialSchedule günceller
+                                        schedule.addPlacement(new Placement(c.getId(), slots.get(idx),
+                                                        ctx.problem.comboClassrooms(bound)));
                                         return true;
                                 }
                         }
+                        if (feasible > 0) {
+                                int k = ctx.lcv.pick(enc, course, lcvSlots, feasible);
+                                schedule.addPlacement(new Placement(c.getId(), slots.get(DayIndex.slotIndex(order[lcvPos[k]])),
+                                                ctx.problem.comboClassrooms(lcvBound[k])));
+                                return true;
+                        }
                 }
                 return false;
         }
 
-        private boolean tryBacktracking(Course c, PartialSchedule schedule, List<Timeslot> cSlots,
+        /**
+         * order[first] geçerli bir aday; aynı gündeki sonraki geçerli saatlerden
+         * yumuşak cezası daha düşük olanı arar (eşitlikte sıradaki ilk). Dönen
+         * değer (order konumu << 32 | bağlanmış kombinasyon).
+         */
+        private long bestOnDay(SolveContext ctx, EncodedSchedule enc, int course, int[] codes, long[] order, int n, int first, int combo,
+                        ConstraintSet constraints, int firstDelta, int firstBound) {
+                int day = EncodedProblem.slotDay(codes[DayIndex.slotIndex(order[first])]);
+                int bestPos = first, bestBound = firstBound, bestDelta = firstDelta;
+                for (int o = first + 1; o < n && bestDelta > 0; o++) {
+                        int slot = codes[DayIndex.slotIndex(order[o])];
+                        if (EncodedProblem.slotDay(slot) != day)
+                                break; // sıra gün gün gruplu
+                        int bound = ctx.symmetry.bindRooms(enc, combo, slot);
+                        if (!constraints.ok(enc, course, slot, bound))
+                                continue;
+                        int delta = ctx.softConstraints.delta(enc, course, slot, bound);
+                        if (delta < bestDelta) {
+                                bestPos = o;
+                                bestBound = bound;
+                                bestDelta = delta;
+                        }
+                }
+                return ((long) bestPos << 32) | bestBound;
+        }
+
+        private boolean tryBacktracking(SolveContext ctx, Course c, PartialSchedule schedule, List<Timeslot> cSlots,
                         List<List<Classroom>> cCandidates, Map<String, List<Timeslot>> allSlots,
                         ConstraintSet constraints) {
-                // Son eklenen 3 dersi "Kurban" olarak seç
+                // Son eklenen birkaç dersi (getBacktrackVictims) "Kurban" olarak seç
                 List<String> currentIds = new ArrayList<>(schedule.getPlacements().keySet());
                 if (currentIds.isEmpty())
                         return false;
 
-                int removeCount = Math.min(3, currentIds.size());
+                int removeCount = Math.min(ctx.params.getBacktrackVictims(), currentIds.size());
                 List<String> victims = currentIds.subList(currentIds.size() - removeCount, currentIds.size());
                 List<Placement> originalPlacements = new ArrayList<>();
 
+                // Buradan sonraki her değişiklik (sayaçlar ve indeksler dahil) trail'e yazılır
+                int cp = schedule.checkpoint();
+
                 // Kurbanları geçici olarak çıkar
                 for (String vid : victims)
                         originalPlacements.add(schedule.removePlacement(vid));
 
                 // Zor dersi yerleştirmeyi dene
-                boolean mainPlaced = attemptPlace(c, schedule, cSlots, cCandidates, constraints);
+                boolean mainPlaced = attemptPlace(ctx, c, schedule, cSlots, cCandidates, constraints);
                 boolean allRestored = true;
 
                 if (mainPlaced) {
                         for (Placement p : originalPlacements) {
                                 List<List<Classroom>> singleCandidateList = List.of(p.getClassrooms());
-                                if (attemptPlace(new Course(p.getCourseId(), 0), schedule,
+                                if (!attemptPlace(ctx, new Course(p.getCourseId(), 0), schedule,
                                                 allSlots.get(p.getCourseId()), singleCandidateList, constraints)) {
-                                } else {
                                         allRestored = false;
                                         break;
                                 }
@@ -216,130 +856,221 @@ public class ExamScheduler {
 
                 // Hepsi yerleşti mi?
                 if (mainPlaced && allRestored) {
+                        schedule.commit(cp);
                         return true; // İşlem başarılı
-                } else {
-                        // Her şeyi geri al
-                        if (mainPlaced)
-                                schedule.removePlacement(c.getId());
-
-                        // Şu an schedule'da olan ve victims listesinde olanları sil
-                        for (String vid : victims)
-                                schedule.removePlacement(vid);
-
-                        // Orijinalleri geri yükle
-                        for (Placement p : originalPlacements)
-                                schedule.addPlacement(p);
-                        return false;
                 }
+
+                // Her şeyi geri al
+                schedule.rollback(cp);
+                return false;
         }
 
-        private void analyzeFailure(Course c, PartialSchedule schedule, List<Timeslot> slots,
-                        List<List<Classroom>> candidates, ConstraintSet constraints,
-                        Map<String, Set<String>> courseToStudents) {
-                Map<String, Integer> reasons = new HashMap<>();
-                if (slots != null) {
-                        for (List<Classroom> rooms : candidates) {
-                                for (Timeslot t : slots) {
-                                        constraints.explain(schedule, new Candidate(c.getId(), t, rooms))
-                                                        .forEach(r -> reasons.put(r, reasons.getOrDefault(r, 0) + 1));
+        /**
+         * Yerleşemeyen dersin teşhisi. Öğrenci kısıtları oda kombinasyonundan
+         * bağımsız olduğu için slot başına bir kez, oda kısıtları (kombinasyon ×
+         * slot) çifti başına değerlendirilir; sayaçlar yine çift başınadır.
+         * Sorumlular kısıtların kendi blame kancalarından, öğrenci yükleri
+         * DayIndex'ten gelir. Çift sayısı DIAGNOSIS_SAMPLE_LIMIT'i aşarsa slotlar
+         * ve kombinasyonlar deterministik olarak örneklenir.
+         */
+        private void analyzeFailure(SolveContext ctx, Course c, PartialSchedule schedule, List<Timeslot> slots,
+                        List<List<Classroom>> candidates, ConstraintSet constraints) {
+                EncodedSchedule enc = ctx.problem.encodingOf(schedule);
+                int course = ctx.problem.courseOrdinal(c.getId());
+                // Kod başına ihlal sayacı (ViolationCode ordinali) ve kısıt başına sorumlular
+                int[] counts = new int[ViolationCode.values().length];
+                Blame[] blame = new Blame[constraints.size()];
+                for (int i = 0; i < blame.length; i++)
+                        blame[i] = new Blame();
+                boolean sampled = false;
+
+                if (slots != null && !candidates.isEmpty()) {
+                        boolean[] redundantDays = ctx.symmetry.redundantDays(enc);
+                        int[] slotCodes = new int[slots.size()];
+                        int ns = 0;
+                        for (Timeslot t : slots) {
+                                int slot = ctx.problem.encodeSlot(t);
+                                int day = EncodedProblem.slotDay(slot);
+                                if (day >= redundantDays.length || !redundantDays[day])
+                                        slotCodes[ns++] = slot;
+                        }
+                        int[] combos = new int[candidates.size()];
+                        for (int i = 0; i < combos.length; i++)
+                                combos[i] = ctx.problem.combo(candidates.get(i));
+                        int nc = combos.length;
+
+                        int limit = SchedulingConfig.DIAGNOSIS_SAMPLE_LIMIT;
+                        if (limit > 0 && (long) ns * nc > limit) {
+                                sampled = true;
+                                Random rnd = new Random(ctx.params.getRandomSeed() ^ c.getId().hashCode());
+                                ns = sampleInPlace(slotCodes, ns, Math.min(ns, limit), rnd);
+                                nc = sampleInPlace(combos, nc, Math.max(1, limit / Math.max(1, ns)), rnd);
+                        }
+
+                        int roomBits = constraints.roomMask();
+                        int studentBits = ~roomBits;
+                        for (int s = 0; s < ns; s++) {
+                                int slot = slotCodes[s];
+                                int mask = constraints.evaluate(enc, course, slot, combos[0], studentBits);
+                                if (mask != 0) {
+                                        addCounts(counts, constraints, mask, nc);
+                                        constraints.blame(enc, course, slot, combos[0], mask, blame);
+                                }
+                                for (int k = 0; k < nc; k++) {
+                                        int bound = ctx.symmetry.bindRooms(enc, combos[k], slot);
+                                        int roomMask = constraints.evaluate(enc, course, slot, bound, roomBits);
+                                        if (roomMask != 0) {
+                                                addCounts(counts, constraints, roomMask, 1);
+                                                constraints.blame(enc, course, slot, bound, roomMask, blame);
+                                        }
                                 }
                         }
                 }
 
-                String msg = reasons.isEmpty() ? "Configuration Error: No valid timeslots."
-                                : "Constraint Error: " + reasons.entrySet().stream().max(Map.Entry.comparingByValue())
-                                                .get().getKey();
+                ViolationCode dominant = null;
+                for (ViolationCode code : ViolationCode.values()) {
+                        if (counts[code.ordinal()] > 0
+                                        && (dominant == null || counts[code.ordinal()] > counts[dominant.ordinal()]))
+                                dominant = code;
+                }
+                if (dominant == null)
+                        dominant = ViolationCode.NO_VALID_TIMESLOTS;
 
-                String bottlenecks = formatBottleneckStudents(c.getId(), schedule, courseToStudents);
-                if (!bottlenecks.isEmpty()) {
-                        msg = msg + " | Bottleneck students: " + bottlenecks;
+                // Engelleyiciler: baskın kodun kısıtlarının en çok suçladığı dersler ve
+                // öğrenciler; odalar tüm kısıtlardan
+                Blame top = new Blame();
+                int[] roomHits = new int[0];
+                for (int i = 0; i < blame.length; i++) {
+                        if (constraints.code(i) == dominant) {
+                                top = blame[i];
+                        }
+                        if (blame[i].roomCounts().length > roomHits.length)
+                                roomHits = Arrays.copyOf(roomHits, blame[i].roomCounts().length);
+                        for (int r = 0; r < blame[i].roomCounts().length; r++)
+                                roomHits[r] += blame[i].roomCounts()[r];
                 }
+                int[] blockingCourses = topK(top.courseCounts(), BLOCKING_LIMIT);
+                int[] blockingRooms = topK(roomHits, BLOCKING_LIMIT);
+                int[] blockingStudents = topK(top.studentCounts(), BOTTLENECK_STUDENT_LIMIT);
 
-                logError(c.getId(), msg);
+                // Darboğaz öğrenciler: şu ana kadar en çok sınavı yerleşmiş olanlar
+                int[] ords = ctx.problem.students(course).toArray();
+                long[] studentKeys = new long[ords.length];
+                for (int i = 0; i < ords.length; i++)
+                        studentKeys[i] = rankKey(ctx.dayIndex.examCount(ords[i]), ords[i]);
+                int[] bottleneck = topK(studentKeys, ords.length, BOTTLENECK_STUDENT_LIMIT);
+                int[] bottleneckLoads = new int[bottleneck.length];
+                for (int i = 0; i < bottleneck.length; i++)
+                        bottleneckLoads[i] = ctx.dayIndex.examCount(bottleneck[i]);
+
+                ctx.fail(Diagnosis.ofConstraints(c.getId(), dominant, counts, blockingCourses, blockingRooms,
+                                blockingStudents, bottleneck, bottleneckLoads, sampled, ctx.problem, ctx.studentIndex));
         }
 
         private static final int BOTTLENECK_STUDENT_LIMIT = 10;
+        private static final int BLOCKING_LIMIT = 5;
 
-        private String formatBottleneckStudents(String courseId, PartialSchedule schedule,
-                        Map<String, Set<String>> courseToStudents) {
-                if (courseId == null || schedule == null || courseToStudents == null)
-                        return "";
+        private static void addCounts(int[] counts, ConstraintSet constraints, int mask, int weight) {
+                for (int i = 0; i < constraints.size(); i++) {
+                        if ((mask & (1 << i)) != 0)
+                                counts[constraints.code(i).ordinal()] += weight;
+                }
+        }
 
-                Set<String> studentsInCourse = courseToStudents.getOrDefault(courseId, Collections.emptySet());
-                if (studentsInCourse.isEmpty())
-                        return "";
+        // values[0..n)'den k tanesini rastgele seçip başa taşır (kısmi Fisher-Yates); yeni uzunluk
+        private static int sampleInPlace(int[] values, int n, int k, Random rnd) {
+                k = Math.min(n, k);
+                for (int i = 0; i < k; i++) {
+                        int j = i + rnd.nextInt(n - i);
+                        int tmp = values[i];
+                        values[i] = values[j];
+                        values[j] = tmp;
+                }
+                return k;
+        }
 
-                Map<String, Integer> load = computeStudentExamLoad(schedule, courseToStudents);
+        // Ağırlığa göre azalan, eşitlikte ordinale göre artan sıralama anahtarı
+        private static long rankKey(int weight, int ordinal) {
+                return ((long) (Integer.MAX_VALUE - weight) << 32) | ordinal;
+        }
 
-                return studentsInCourse.stream()
-                                .sorted((a, b) -> Integer.compare(load.getOrDefault(b, 0), load.getOrDefault(a, 0)))
-                                .limit(BOTTLENECK_STUDENT_LIMIT)
-                                .map(sid -> sid + "(" + load.getOrDefault(sid, 0) + ")")
-                                .collect(Collectors.joining(", "));
+        private static int[] topK(long[] keys, int n, int k) {
+                Arrays.sort(keys, 0, n);
+                int[] out = new int[Math.min(n, k)];
+                for (int i = 0; i < out.length; i++)
+                        out[i] = (int) keys[i];
+                return out;
         }
 
-        private Map<String, Integer> computeStudentExamLoad(PartialSchedule schedule,
-                        Map<String, Set<String>> courseToStudents) {
-                Map<String, Integer> load = new HashMap<>();
-                for (Placement p : schedule.getPlacements().values()) {
-                        Set<String> ss = courseToStudents.getOrDefault(p.getCourseId(), Collections.emptySet());
-                        for (String sid : ss) {
-                                load.put(sid, load.getOrDefault(sid, 0) + 1);
-                        }
+        // Sayaç dizisinde (ordinal -> sayı) sıfırdan büyük en yüksek k ordinal
+        private static int[] topK(int[] counts, int k) {
+                long[] keys = new long[counts.length];
+                int n = 0;
+                for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0)
+                                keys[n++] = rankKey(counts[i], i);
                 }
-                return load;
+                return topK(keys, n, k);
         }
 
-        private void markUnknownFailures(List<Course> courses, PartialSchedule schedule) {
+        private void markUnknownFailures(SolveContext ctx, List<Course> courses, PartialSchedule schedule) {
                 for (Course c : courses) {
-                        if (!schedule.contains(c.getId()) && !unscheduledReasons.containsKey(c.getId())) {
-                                unscheduledReasons.put(c.getId(), "Skipped (Unknown Reason)");
+                        if (!schedule.contains(c.getId()) && !ctx.diagnoses.containsKey(c.getId())) {
+                                ctx.fail(Diagnosis.of(c.getId(), ViolationCode.UNKNOWN));
                         }
                 }
         }
 
-        private Map<String, List<StudentExam>> finalizeSchedule(PartialSchedule schedule,
-                        Map<String, Set<String>> courseToStudents,
-                        Map<String, List<StudentExam>> results) {
-
-                // Defensive defaults
-                if (results == null) {
-                        results = new HashMap<>();
-                }
-                if (schedule == null || courseToStudents == null) {
-                        return results;
-                }
+        private SolveResult finalizeSchedule(SolveContext ctx, PartialSchedule schedule) {
+                EncodedSchedule enc = ctx.problem.encodingOf(schedule);
+                long softPenalty = ctx.softConstraints == null ? 0 : ctx.softConstraints.penalty(enc);
+                Map<String, Long> softBreakdown = ctx.softConstraints == null ? Collections.emptyMap()
+                                : ctx.softConstraints.breakdown(enc);
+                ScheduleMetrics metrics = ctx.evaluator.metrics(ctx.diagnoses.size());
 
                 StudentDistributor distributor = new StudentDistributor();
+                List<Placement> placements = new ArrayList<>(schedule.getPlacements().values());
+                List<String> ids = ctx.studentIndex.ids();
 
-                // Write placements to DB and build per-student result map
-                for (Placement p : schedule.getPlacements().values()) {
-                        String courseId = p.getCourseId();
-                        Timeslot timeslot = p.getTimeslot();
-                        List<Classroom> rooms = p.getClassrooms();
-
-                        Set<String> studentIds = courseToStudents.getOrDefault(courseId, Collections.emptySet());
-                        if (studentIds.isEmpty()) {
-                                continue;
-                        }
-
-                        // Assign students deterministically to rooms
-                        List<StudentExam> assignments = distributor.assign(
-                                        courseId,
-                                        timeslot,
-                                        rooms,
-                                        new ArrayList<>(studentIds),
-                                        SchedulingConfig.RANDOM_SEED);
-
-                        for (StudentExam se : assignments) {
-                                results.computeIfAbsent(se.getStudentId(), k -> new ArrayList<>()).add(se);
-                        }
+                // 1) Sözlükler sırayla: öğrenciler StudentIndex sırasıyla kaydedilir ki
+                // ordinaller aynı olsun; ders/slot/oda ordinalleri ve her yerleşimin satır
+                // aralığı (oturan öğrenci sayısının önek toplamı) önceden belirlenir
+                ScheduleStore.Builder store = new ScheduleStore.Builder();
+                for (String id : ids)
+                        store.student(id);
+                int n = placements.size();
+                int[] course = new int[n], slot = new int[n], row = new int[n + 1];
+                int[][] roomOrds = new int[n][];
+                for (int i = 0; i < n; i++) {
+                        Placement p = placements.get(i);
+                        course[i] = store.course(p.getCourseId());
+                        slot[i] = store.slot(p.getTimeslot());
+                        roomOrds[i] = new int[p.getClassrooms().size()];
+                        for (int k = 0; k < roomOrds[i].length; k++)
+                                roomOrds[i][k] = store.room(p.getClassrooms().get(k).getId());
+                        int students = ctx.courseToStudents.getOrDefault(p.getCourseId(), Collections.emptySet()).size();
+                        row[i + 1] = row[i] + StudentDistributor.seatedCount(p.getClassrooms(), students);
                 }
+                int first = store.reserve(row[n]);
 
-                return results;
-        }
+                // 2) Karıştırma ve oturtma yerleşimler arasında paralel; her görev kendi
+                // satır aralığına yazar, birleştirme gerekmez. Öğrenci havuzu liste
+                // sürümündeki gibi kayıt kümesinin sırasıyla kurulur, böylece koltuklar
+                // sıralı çalışmayla aynıdır. build() satırları öğrenciye göre kararlı sıralar.
+                IntStream.range(0, n).parallel().forEach(i -> {
+                        Placement p = placements.get(i);
+                        Set<String> studentIds = ctx.courseToStudents.getOrDefault(p.getCourseId(),
+                                        Collections.emptySet());
+                        int[] pool = new int[studentIds.size()];
+                        int k = 0;
+                        for (String sid : studentIds)
+                                pool[k++] = ctx.studentIndex.ordinal(sid);
+                        distributor.seatOrder(p.getCourseId(), p.getTimeslot(), pool, ctx.params.getRandomSeed());
+                        distributor.seats(store, first + row[i], course[i], slot[i], p.getClassrooms(), roomOrds[i], pool,
+                                        row[i + 1] - row[i]);
+                });
 
-        private void logError(String courseId, String msg) {
-                unscheduledReasons.put(courseId, msg);
+                return new SolveResult(store.build(), ctx.diagnoses, metrics, softPenalty, softBreakdown,
+                                schedule.snapshot());
         }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package scheduler.core;
+
+import scheduler.config.SolverParameters;
+import scheduler.constraints.EncodedProblem;
+import scheduler.constraints.EncodedSchedule;
+import scheduler.model.Course;
+import scheduler.model.DayWindow;
+import scheduler.model.TimeRange;
+import scheduler.util.CompressedBitmap;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * En az kısıtlayan değer (least-constraining value) sıralaması için slot puanı.
+ *
+ * Aday slot, dersin henüz yerleşmemiş komşularının (ağırlıklı çakışma
+ * grafiği) o gündeki seçeneklerinden kaçını kapatacağına göre puanlanır.
+ * Bir komşunun gündeki seçenekleri koşunun ızgara çözünürlüğünde bir
+ * başlangıç bit kümesidir: pencerelere sığan başlangıçlardan, zaten
+ * yerleşmiş komşularının çakışma / MIN_GAP aralığına düşenler çıkarılır.
+ * Aday slot bu kümeden kendi aralığına düşen bitleri kapatır; dersin konması
+ * ortak bir öğrenciyi günlük limite getiriyorsa komşu günü tümden kaybeder.
+ * Puan = Σ ortak öğrenci × kaybedilen seçenek.
+ *
+ * Bit kümeleri gün başına bir kez kurulur (adaylar gün gün gruplu gelir);
+ * puanlanacak aday sayısını çağıran sınırlar. Örnek bir koşuya (SolveContext)
+ * aittir, iş parçacıkları arasında paylaşılmaz.
+ */
+public final class LeastConstrainingValue {
+
+    private final EncodedProblem problem;
+    private final ConflictGraph graph;
+    private final DayIndex dayIndex;
+    // ders ordinali -> süre (dakika)
+    private final int[] duration;
+    // gün ordinali -> pencereler [başlangıç0, bitiş0, başlangıç1, ...] (dakika)
+    private final int[][] windows;
+    private final int grid;
+    private final int minGap;
+    private final int maxPerDay;
+    private final int words;
+
+    // Son hazırlanan günün komşu başına seçenek kümeleri (open[k] false = seçenek yok)
+    private long[][] free = new long[0][];
+    private boolean[] open = new boolean[0];
+    private boolean[] losesDay = new boolean[0];
+
+    public LeastConstrainingValue(EncodedProblem problem, ConflictGraph graph, DayIndex dayIndex,
+            List<Course> courses, List<DayWindow> dayWindows, SolverParameters params) {
+        this.problem = problem;
+        this.grid = params.getGridMinutes();
+        this.minGap = params.getMinGapMinutes();
+        this.maxPerDay = params.getMaxExamsPerDay();
+        this.graph = graph;
+        this.dayIndex = dayIndex;
+        this.words = (24 * 60 / grid + 63) / 64;
+
+        duration = new int[problem.courseCount()];
+        for (Course c : courses) {
+            int ord = problem.courseOrdinal(c.getId());
+            if (ord < duration.length)
+                duration[ord] = c.getDurationMinutes();
+        }
+
+        windows = new int[problem.dayCount()][0];
+        for (DayWindow dw : dayWindows) {
+            int day = problem.dayOrdinal(dw.getDate());
+            int[] w = windows[day];
+            int n = w.length;
+            w = Arrays.copyOf(w, n + 2 * dw.getRanges().size());
+            for (TimeRange r : dw.getRanges()) {
+                w[n++] = r.getStart().toSecondOfDay() / 60;
+                w[n++] = r.getEnd().toSecondOfDay() / 60;
+            }
+            windows[day] = w;
+        }
+    }
+
+    /**
+     * slots[0..n) adaylarından en az kısıtlayanın konumu (eşitlikte ilki).
+     * Aynı günün adayları art arda gelmelidir.
+     */
+    public int pick(EncodedSchedule enc, int course, int[] slots, int n) {
+        int[] nb = graph.neighbours(course);
+        int[] w = graph.weights(course);
+        if (nb.length == 0 || n <= 1)
+            return 0;
+        if (free.length < nb.length) {
+            free = new long[nb.length][words];
+            open = new boolean[nb.length];
+            losesDay = new boolean[nb.length];
+        }
+
+        int best = 0;
+        long bestScore = Long.MAX_VALUE;
+        int day = -1;
+        for (int i = 0; i < n; i++) {
+            int slot = slots[i];
+            if (EncodedProblem.slotDay(slot) != day) {
+                day = EncodedProblem.slotDay(slot);
+                prepare(enc, course, day, nb);
+            }
+            long score = 0;
+            for (int k = 0; k < nb.length && score < bestScore; k++) {
+                if (!open[k])
+                    continue;
+                int lost = losesDay[k] ? count(free[k], 0, words << 6)
+                        : count(free[k], low(slot, duration[nb[k]]), high(slot));
+                score += (long) w[k] * lost;
+            }
+            if (score < bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // Komşuların gündeki seçenek kümeleri ve günü tümden kaybedip kaybetmedikleri
+    private void prepare(EncodedSchedule enc, int course, int day, int[] nb) {
+        LocalDate date = problem.date(day);
+        CompressedBitmap saturating = saturatingStudents(course, date);
+        for (int k = 0; k < nb.length; k++) {
+            int n = nb[k];
+            int dur = duration[n];
+            open[k] = false;
+            if (enc.isPlaced(n) || dur <= 0 || dayIndex.isDayImpossible(problem.courseId(n), date, dur))
+                continue;
+
+            long[] bits = free[k];
+            Arrays.fill(bits, 0L);
+            int[] w = day < windows.length ? windows[day] : new int[0];
+            for (int r = 0; r < w.length; r += 2) {
+                for (int t = w[r]; t + dur <= w[r + 1]; t += grid)
+                    bits[(t / grid) >>> 6] |= 1L << ((t / grid) & 63);
+            }
+            // Yerleşmiş komşularının çakışma / boşluk aralıkları zaten kapalı
+            for (int i = 0, m = enc.dayCount(day); i < m; i++) {
+                int other = enc.dayCourse(day, i);
+                if (graph.weight(n, other) > 0)
+                    clear(bits, low(enc.slotOf(other), dur), high(enc.slotOf(other)));
+            }
+            if (count(bits, 0, words << 6) == 0)
+                continue;
+            open[k] = true;
+            losesDay[k] = !saturating.isEmpty() && saturating.intersects(problem.students(n));
+        }
+    }
+
+    // Ders o güne konarsa günlük limite ulaşacak öğrencileri
+    private CompressedBitmap saturatingStudents(int course, LocalDate date) {
+        int[] ords = problem.students(course).toArray();
+        int n = 0;
+        for (int s : ords) {
+            if (dayIndex.studentLoadOn(s, date) + 1 >= maxPerDay)
+                ords[n++] = s;
+        }
+        return n == 0 ? CompressedBitmap.EMPTY : CompressedBitmap.of(Arrays.copyOf(ords, n));
+    }
+
+    // dur süreli bir komşunun slotla çakışan / boşluğu bozan ilk başlangıç konumu
+    private int low(int slot, int dur) {
+        return Math.floorDiv(EncodedProblem.slotStart(slot) - minGap - dur, grid) + 1;
+    }
+
+    // ... ve son konumun bir fazlası (aralık [low, high))
+    private int high(int slot) {
+        return Math.floorDiv(EncodedProblem.slotEnd(slot) + minGap + grid - 1, grid);
+    }
+
+    private static int count(long[] bits, int lo, int hi) {
+        lo = Math.max(lo, 0);
+        hi = Math.min(hi, bits.length << 6);
+        int c = 0;
+        while (lo < hi) {
+            int wi = lo >>> 6;
+            int to = Math.min(64, hi - (wi << 6));
+            long mask = (to == 64 ? -1L : (1L << to) - 1) & (-1L << (lo & 63));
+            c += Long.bitCount(bits[wi] & mask);
+            lo = (wi + 1) << 6;
+        }
+        return c;
+    }
+
+    private static void clear(long[] bits, int lo, int hi) {
+        lo = Math.max(lo, 0);
+        hi = Math.min(hi, bits.length << 6);
+        while (lo < hi) {
+            int wi = lo >>> 6;
+            int to = Math.min(64, hi - (wi << 6));
+            bits[wi] &= ~((to == 64 ? -1L : (1L << to) - 1) & (-1L << (lo & 63)));
+            lo = (wi + 1) << 6;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package scheduler.core;
+
+import java.util.*;
+
+/**
+ * Portföy koşularının baskın olmayan sonuçları (Pareto arşivi).
+ *
+ * Her sonuç, Objective sırasıyla küçültülecek bir amaç vektörüne indirgenir;
+ * ölçütler koşu sırasında hesaplandığından vektör hazırdır ve baskınlık
+ * kontrolü tek bir döngüdür. Arşiv kapasiteyi aşarsa en kalabalık bölgedeki
+ * (en küçük yığılma mesafeli) sonuç atılır; her amacın uç noktaları ve
+ * sözlük sırasına göre en iyi sonuç korunur.
+ *
+ * Sıra bağımlıdır (eşitlikte ilk gelen kalır); deterministik sonuç için
+ * sonuçlar sabit sırayla ve tek iş parçacığından eklenmelidir.
+ */
+public final class ParetoArchive {
+
+    /** Küçültülecek amaçlar; sıra, eşitlik bozmada kullanılan sözlük sırasıdır. */
+    public enum Objective {
+        UNSCHEDULED("Unscheduled"),
+        DAYS_USED("Days"),
+        SOFT_PENALTY("Soft penalty"),
+        LOAD_VARIANCE("Load variance"),
+        BACK_TO_BACK("Back-to-back");
+
+        private final String label;
+
+        Objective(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        double of(SolveResult r) {
+            ScheduleMetrics m = r.getMetrics();
+            switch (this) {
+                case UNSCHEDULED:
+                    return m.getUnscheduledCount();
+                case DAYS_USED:
+                    return m.getDaysUsed();
+                case SOFT_PENALTY:
+                    return r.getSoftPenalty();
+                case LOAD_VARIANCE:
+                    return m.getLoadVariance();
+                default:
+                    return m.getBackToBack();
+            }
+        }
+    }
+
+    private static final Objective[] OBJECTIVES = Objective.values();
+
+    /** Arşivdeki bir sonuç ve amaç vektörü. */
+    public static final class Entry {
+        private final SolveResult result;
+        private final double[] objectives;
+
+        private Entry(SolveResult result) {
+            this.result = result;
+            this.objectives = new double[OBJECTIVES.length];
+            for (int i = 0; i < OBJECTIVES.length; i++)
+                objectives[i] = OBJECTIVES[i].of(result);
+        }
+
+        public SolveResult getResult() {
+            return result;
+        }
+
+        public double get(Objective o) {
+            return objectives[o.ordinal()];
+        }
+    }
+
+    // Sözlük sırası: önce yerleşemeyen, sonra gün, ceza, varyans, ardışık
+    private static final Comparator<Entry> LEXICOGRAPHIC = (a, b) -> Arrays.compare(a.objectives, b.objectives);
+
+    private final int capacity;
+    private final List<Entry> entries = new ArrayList<>();
+
+    public ParetoArchive(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sonucu arşive sunar. Arşivdeki bir sonuç tarafından baskılanıyorsa ya
+     * da aynı vektör zaten varsa reddedilir; kabul edilirse baskıladığı
+     * sonuçlar çıkarılır. Kabul edildiyse ve kapasite yüzünden atılmadıysa true.
+     */
+    public boolean offer(SolveResult result) {
+        Entry e = new Entry(result);
+        for (Entry other : entries) {
+            if (dominatesOrEquals(other.objectives, e.objectives))
+                return false;
+        }
+        entries.removeIf(other -> dominatesOrEquals(e.objectives, other.objectives));
+        entries.add(e);
+        if (entries.size() > capacity)
+            return evictMostCrowded() != e;
+        return true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    // Arşiv, sözlük sırasıyla (ilk eleman eski tek-sonuç seçimine karşılık gelir)
+    public List<Entry> front() {
+        List<Entry> out = new ArrayList<>(entries);
+        out.sort(LEXICOGRAPHIC);
+        return Collections.unmodifiableList(out);
+    }
+
+    // Sözlük sırasına göre en iyi sonuç (arşiv boşsa null)
+    public SolveResult best() {
+        return entries.isEmpty() ? null : Collections.min(entries, LEXICOGRAPHIC).getResult();
+    }
+
+    // a, b'yi baskılar ya da ona eşittir: her amaçta a <= b
+    private static boolean dominatesOrEquals(double[] a, double[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] > b[i])
+                return false;
+        }
+        return true;
+    }
+
+    // Yığılma mesafesi en küçük olanı atar (uçlar sonsuz sayılır; sözlük sırası en iyisi hiç atılmaz)
+    private Entry evictMostCrowded() {
+        int n = entries.size();
+        double[] crowding = new double[n];
+        Integer[] order = new Integer[n];
+        for (int k = 0; k < OBJECTIVES.length; k++) {
+            final int obj = k;
+            for (int i = 0; i < n; i++)
+                order[i] = i;
+            Arrays.sort(order, Comparator.comparingDouble(i -> entries.get(i).objectives[obj]));
+            double min = entries.get(order[0]).objectives[obj];
+            double range = entries.get(order[n - 1]).objectives[obj] - min;
+            crowding[order[0]] = Double.POSITIVE_INFINITY;
+            crowding[order[n - 1]] = Double.POSITIVE_INFINITY;
+            if (range == 0)
+                continue;
+            for (int i = 1; i < n - 1; i++) {
+                crowding[order[i]] += (entries.get(order[i + 1]).objectives[obj]
+                        - entries.get(order[i - 1]).objectives[obj]) / range;
+            }
+        }
+        int kept = entries.indexOf(Collections.min(entries, LEXICOGRAPHIC));
+
+        // Eşitlikte (ör. hepsi uç nokta) en son eklenen atılır
+        int victim = -1;
+        for (int i = n - 1; i >= 0; i--) {
+            if (i != kept && (victim < 0 || crowding[i] < crowding[victim]))
+                victim = i;
+        }
+        return entries.remove(victim);
+    }
+}
@@ -0,0 +1,187 @@
+package scheduler.core;
+
+import scheduler.config.SolverParameters;
+import scheduler.model.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sınav döneminin en kısa uzunluğunu arar ("dönem kaç güne inebilir?").
+ *
+ * Aday dönemler, verilen günlerin tarih sırasıyla ilk k günüdür. Önce tüm
+ * dönem çözülür; bu hem üst sınırdır hem de hedefi verir: k günlük bir
+ * dönem, tüm dönemdekinden fazla ders yerleşemeyen bırakmıyorsa uygundur.
+ * Alt sınır ucuzdur (öğrenci başına günlük sınav limiti ve koltuk×dakika
+ * kapasitesi). Aradaki k değerleri paralel deneme çözümleriyle taranır;
+ * bir deneme, yerleşemeyen sınırını aştığı ya da başka bir denemenin
+ * sonucu onu gereksiz kıldığı anda yarıda bırakılır. Denemeler sıfırdan
+ * değil, tüm dönem programının fork'undan başlar: ilk k güne düşen
+ * yerleşimler korunur, yalnızca atılan günlerdeki dersler yeniden
+ * yerleştirilir.
+ *
+ * Çözücü sezgisel olduğundan uygunluğun k'de tekdüze olduğu varsayılır;
+ * bulunan dönem, denenenler içinde en kısa uygun dönemdir.
+ */
+public class PeriodOptimizer {
+
+    /** Aramanın sonucu: en kısa uygun dönem ve o dönemin programı. */
+    public static final class Result {
+        private final List<DayWindow> period;
+        private final SolveResult schedule;
+        private final int lowerBound;
+        private final int probes;
+
+        Result(List<DayWindow> period, SolveResult schedule, int lowerBound, int probes) {
+            this.period = period;
+            this.schedule = schedule;
+            this.lowerBound = lowerBound;
+            this.probes = probes;
+        }
+
+        // Bulunan dönemin günleri (tarih sırasıyla)
+        public List<DayWindow> getPeriod() {
+            return period;
+        }
+
+        public int getDays() {
+            return period.size();
+        }
+
+        public SolveResult getSchedule() {
+            return schedule;
+        }
+
+        // Çözmeden hesaplanan alt sınır (gün)
+        public int getLowerBound() {
+            return lowerBound;
+        }
+
+        // Tüm dönem dahil yapılan çözüm sayısı
+        public int getProbes() {
+            return probes;
+        }
+    }
+
+    private final ExamScheduler scheduler;
+    private final int parallelism;
+
+    public PeriodOptimizer(ExamScheduler scheduler) {
+        this(scheduler, Runtime.getRuntime().availableProcessors());
+    }
+
+    public PeriodOptimizer(ExamScheduler scheduler, int parallelism) {
+        this.scheduler = scheduler;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public Result optimize(List<Course> courses,
+            List<Enrollment> enrollments,
+            List<Classroom> classrooms,
+            List<DayWindow> dayWindows,
+            long seed) {
+        return optimize(courses, enrollments, classrooms, dayWindows, SolverParameters.defaults().withRandomSeed(seed));
+    }
+
+    // Tüm denemeler aynı ayarlarla çözülür
+    public Result optimize(List<Course> courses,
+            List<Enrollment> enrollments,
+            List<Classroom> classrooms,
+            List<DayWindow> dayWindows,
+            SolverParameters params) {
+        List<DayWindow> days = new ArrayList<>(dayWindows);
+        days.sort(Comparator.comparing(DayWindow::getDate));
+
+        // Kayıtlardan türeyen hazırlık ve slot/oda kataloğu tüm denemelerde ortak
+        PreparedProblem prepared = new PreparedProblem(courses, enrollments);
+        int perDay = params.getMaxExamsPerDay();
+
+        // Üst sınır ve hedef: tüm dönem
+        SolveResult full = scheduler.solve(prepared, classrooms, days, params, Integer.MAX_VALUE, () -> false, null);
+        int target = full.getDiagnoses().size();
+        int probes = 1;
+
+        // Alt sınır yalnızca tüm dönemde yerleşen derslerden (yerleşemeyenler hedefte zaten var)
+        int lo = Math.min(days.size(), lowerBound(prepared, classrooms, days, perDay, full.getDiagnoses().keySet()));
+        int lowerBound = lo;
+        int hi = days.size();
+        SolveResult best = full;
+
+        // Değişmez: hi uygun, lo'dan küçük her k uygun değil
+        while (lo < hi) {
+            int[] ks = probePoints(lo, hi, parallelism);
+            AtomicInteger feasibleBelow = new AtomicInteger(hi);
+            AtomicInteger infeasibleAbove = new AtomicInteger(lo - 1);
+
+            List<SolveResult> results = Arrays.stream(ks).parallel()
+                    .mapToObj(k -> {
+                        // Daha kısa uygun ya da daha uzun uygunsuz bir dönem bulunduysa bu deneme gereksiz
+                        SolveResult r = scheduler.solve(prepared, classrooms, days.subList(0, k), params, target,
+                                () -> k >= feasibleBelow.get() || k <= infeasibleAbove.get(), full.getPlacements());
+                        if (r != null && r.getDiagnoses().size() <= target)
+                            feasibleBelow.accumulateAndGet(k, Math::min);
+                        else if (r == null && k < feasibleBelow.get() && k > infeasibleAbove.get())
+                            infeasibleAbove.accumulateAndGet(k, Math::max);
+                        return r;
+                    })
+                    .collect(Collectors.toList());
+            probes += ks.length;
+
+            for (int i = 0; i < ks.length; i++) {
+                SolveResult r = results.get(i);
+                if (r != null && r.getDiagnoses().size() <= target && ks[i] < hi) {
+                    hi = ks[i];
+                    best = r;
+                }
+            }
+            // Tekdüzelik bozulursa (uzun dönem uygunsuz, kısa uygun) arama biter
+            lo = Math.min(hi, Math.max(lo, infeasibleAbove.get() + 1));
+        }
+
+        return new Result(Collections.unmodifiableList(new ArrayList<>(days.subList(0, hi))), best, lowerBound, probes);
+    }
+
+    // [lo, hi) içinde eşit aralıklı en fazla n deneme noktası (artan, tekrarsız); n = 1 ikili aramadır
+    static int[] probePoints(int lo, int hi, int n) {
+        int span = hi - lo;
+        int count = Math.min(n, span);
+        int[] ks = new int[count];
+        for (int i = 0; i < count; i++)
+            ks[i] = lo + (int) ((long) span * (i + 1) / (count + 1));
+        return ks;
+    }
+
+    /**
+     * Çözmeden gün alt sınırı: en çok sınavı olan öğrencinin
+     * ceil(sınav / perDay) günü ve derslerin toplam koltuk×dakika
+     * ihtiyacını karşılayacak ilk günler. excluded dersler sayılmaz.
+     */
+    static int lowerBound(PreparedProblem prepared, List<Classroom> classrooms, List<DayWindow> days, int perDay,
+            Set<String> excluded) {
+        Map<String, Integer> examsPerStudent = new HashMap<>();
+        long seatMinutes = 0;
+        for (Course c : prepared.courses) {
+            Set<String> students = prepared.courseToStudents.get(c.getId());
+            if (students == null || excluded.contains(c.getId()))
+                continue;
+            for (String sid : students)
+                examsPerStudent.merge(sid, 1, Integer::sum);
+            seatMinutes += (long) students.size() * c.getDurationMinutes();
+        }
+
+        int bound = 1;
+        for (int n : examsPerStudent.values())
+            bound = Math.max(bound, (n + perDay - 1) / perDay);
+
+        long capacity = RoomComboGenerator.totalCapacity(classrooms);
+        long offered = 0;
+        int k = 0;
+        while (k < days.size() && offered < seatMinutes) {
+            for (TimeRange r : days.get(k).getRanges())
+                offered += capacity * r.lengthMinutes();
+            k++;
+        }
+        return Math.max(bound, k);
+    }
+}
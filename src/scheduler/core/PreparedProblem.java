@@ -0,0 +1,125 @@
+package scheduler.core;
+
+import scheduler.constraints.EncodedProblem;
+import scheduler.model.*;
+import scheduler.util.CompressedBitmap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Yalnızca derslerden ve kayıtlardan türeyen, koşular arasında paylaşılan
+ * değişmez hazırlık: öğrenci indeksi, ders bit kümeleri, süper düğümler ve
+ * dereceler. LCV kullanan ilk koşu ağırlıklı çakışma grafiğini kurar; oda ve
+ * gün listesine bağlı slot kataloğu ile oda kombinasyonları da ilk
+ * istendiklerinde üretilip saklanır.
+ *
+ * Oda/gün listeleri anahtarda nesne kimliğiyle karşılaştırılır (Classroom ve
+ * DayWindow equals tanımlamaz): aynı listeyi kullanan koşular aynı sonucu
+ * paylaşır. İş parçacıkları arasında eşzamanlı kullanılabilir; SolveContext
+ * her koşuda yalnızca değişken durumu yeniden kurar.
+ *
+ * Ömrü tek bir çağrıdır (public solve, ScenarioRunner.run veya
+ * PeriodOptimizer.optimize); yine de her senaryo/deneme yeni oda ve gün
+ * listeleri getirdiğinden önbellekler sınırlıdır: sınır aşılınca önbellek
+ * boşaltılır ve girdiler yeniden üretilir (sonuç değişmez, yalnızca süre).
+ */
+final class PreparedProblem {
+
+    private record SlotKey(List<DayWindow> days, int grid, int duration) {
+    }
+
+    private record ComboKey(List<Classroom> rooms, int needed, int limit) {
+    }
+
+    final List<Course> courses;
+    final List<Enrollment> enrollments;
+    final Map<String, Set<String>> courseToStudents;
+    final StudentIndex studentIndex;
+    final Map<String, CompressedBitmap> courseStudents;
+    final CourseGroups groups;
+    final Map<String, Integer> degrees;
+    // EncodedProblem ders ordinalleri üzerinde, ilk istendiğinde kurulur; ordinaller
+    // yalnızca ders listesine ve kayıtlara bağlı olduğundan her koşunun kodlamasına uyar
+    private volatile ConflictGraph graph;
+
+    // Önbellek sınırları (girdi sayısı)
+    private static final int MAX_SLOT_ENTRIES = 512;
+    private static final int MAX_COMBO_ENTRIES = 8192;
+
+    private final Map<SlotKey, List<Timeslot>> slots = new ConcurrentHashMap<>();
+    private final Map<ComboKey, List<List<Classroom>>> combos = new ConcurrentHashMap<>();
+
+    PreparedProblem(List<Course> courses, List<Enrollment> enrollments) {
+        this.courses = List.copyOf(courses);
+        this.enrollments = List.copyOf(enrollments);
+        ConflictGraphBuilder gb = new ConflictGraphBuilder();
+        courseToStudents = gb.buildCourseToStudents(enrollments);
+        studentIndex = new StudentIndex(courseToStudents);
+        courseStudents = gb.buildCourseBitmaps(courseToStudents, studentIndex);
+        groups = new CourseGroups(courses, courseStudents);
+        degrees = gb.buildDegrees(courseStudents, groups);
+    }
+
+    // Ağırlıklı çakışma grafiği (LCV); eşzamanlı koşular tek bir örneği paylaşır
+    ConflictGraph graph() {
+        ConflictGraph g = graph;
+        if (g == null) {
+            synchronized (this) {
+                g = graph;
+                if (g == null)
+                    graph = g = new ConflictGraphBuilder().buildWeightedGraph(encode(null, null), groups);
+            }
+        }
+        return g;
+    }
+
+    // Bu koşunun kodlama tabloları (ders ordinalleri her seferinde aynı)
+    EncodedProblem encode(List<Classroom> classrooms, List<DayWindow> dayWindows) {
+        return new EncodedProblem(courses.stream().map(Course::getId).collect(Collectors.toList()),
+                courseStudents, classrooms, dayWindows);
+    }
+
+    // courseId -> slotlar (listeler paylaşılır, değiştirilmemeli)
+    Map<String, List<Timeslot>> slotsPerCourse(List<DayWindow> dayWindows, int gridMinutes) {
+        TimeslotBuilder tsb = new TimeslotBuilder();
+        Map<String, List<Timeslot>> out = new HashMap<>();
+        for (Course c : courses) {
+            out.put(c.getId(), cached(slots, MAX_SLOT_ENTRIES,
+                    new SlotKey(dayWindows, gridMinutes, c.getDurationMinutes()),
+                    k -> List.copyOf(tsb.build(k.days(), k.duration(), k.grid()))));
+        }
+        return out;
+    }
+
+    /**
+     * Filtrelenmiş odalar ve ihtiyaç için aday kombinasyonlar: açgözlü
+     * kombinasyon (yetiyorsa) ve kapasite imzası başına birer kombinasyon
+     * (en fazla limit).
+     * Sıralama programa bağlı olduğundan çağıran kopyalayıp sıralar.
+     */
+    List<List<Classroom>> roomCombos(List<Classroom> filtered, int needed, int limit) {
+        return cached(combos, MAX_COMBO_ENTRIES, new ComboKey(filtered, needed, limit), k -> {
+            RoomComboGenerator rcg = new RoomComboGenerator();
+            List<List<Classroom>> out = new ArrayList<>();
+            List<Classroom> greedy = rcg.generateGreedyOrdered(filtered, needed, true);
+            if (RoomComboGenerator.totalCapacity(greedy) >= needed)
+                out.add(greedy);
+            // Aynı kapasitedeki odalar eşdeğer: her kapasite imzasından tek kombinasyon
+            out.addAll(rcg.generateCapacityClassCombos(filtered, needed, limit, true));
+            return List.copyOf(out);
+        });
+    }
+
+    // Sınırlı önbellek: doluysa önce boşalt (eşzamanlı clear güvenli, en kötü ihtimalle yeniden üretilir)
+    private static <K, V> V cached(Map<K, V> cache, int max, K key, Function<K, V> build) {
+        V v = cache.get(key);
+        if (v != null)
+            return v;
+        if (cache.size() >= max)
+            cache.clear();
+        return cache.computeIfAbsent(key, build);
+    }
+}
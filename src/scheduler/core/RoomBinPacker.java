@@ -0,0 +1,162 @@
+package scheduler.core;
+
+import scheduler.model.Classroom;
+import scheduler.model.Placement;
+import scheduler.model.Timeslot;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * İki aşamalı çözümün 2. aşaması: saatleri belli olan derslere oda atar.
+ *
+ * Bir gün içinde zaman aralıkları birbirine zincirlenen dersler bir "blok"
+ * oluşturur; farklı bloklar hiçbir odayı aynı anda istemediği için
+ * birbirinden bağımsızdır ve paralel paketlenebilir. Blok içinde dersler
+ * büyükten küçüğe (first-fit-decreasing) yerleştirilir; her ders için önce
+ * yeten en küçük tek oda, yoksa en az oda sayısıyla kapasiteyi karşılayan
+ * ve artık koltuğu azaltan kombinasyon seçilir.
+ *
+ * Sınıf durumsuzdur, aynı örnek birden çok iş parçacığından kullanılabilir.
+ */
+public class RoomBinPacker {
+
+    /**
+     * Yerleşimleri (oda listeleri boş olabilir) bağımsız bloklara ayırır.
+     */
+    public List<List<Placement>> splitIntoBlocks(Collection<Placement> placements) {
+        Map<LocalDate, List<Placement>> byDay = new TreeMap<>();
+        for (Placement p : placements)
+            byDay.computeIfAbsent(p.getTimeslot().getDate(), k -> new ArrayList<>()).add(p);
+
+        List<List<Placement>> blocks = new ArrayList<>();
+        for (List<Placement> day : byDay.values()) {
+            day.sort(Comparator.comparing((Placement p) -> p.getTimeslot().getStart())
+                    .thenComparing(Placement::getCourseId));
+            List<Placement> current = new ArrayList<>();
+            java.time.LocalTime maxEnd = null;
+            for (Placement p : day) {
+                Timeslot t = p.getTimeslot();
+                if (maxEnd != null && !t.getStart().isBefore(maxEnd)) {
+                    blocks.add(current);
+                    current = new ArrayList<>();
+                    maxEnd = null;
+                }
+                current.add(p);
+                if (maxEnd == null || t.getEnd().isAfter(maxEnd))
+                    maxEnd = t.getEnd();
+            }
+            if (!current.isEmpty())
+                blocks.add(current);
+        }
+        return blocks;
+    }
+
+    /**
+     * Bir bloğa oda atar. Dönen haritada olmayan dersler paketlenemedi demektir.
+     *
+     * @param block    aynı blokta kalan yerleşimler (saatleri sabit)
+     * @param needs    courseId -> öğrenci sayısı
+     * @param eligible courseId -> kapasite filtresinden geçen odalar
+     */
+    public Map<String, List<Classroom>> pack(List<Placement> block,
+                                             Map<String, Integer> needs,
+                                             Map<String, List<Classroom>> eligible) {
+        List<Placement> order = new ArrayList<>(block);
+        order.sort(Comparator.comparingInt((Placement p) -> needs.getOrDefault(p.getCourseId(), 0)).reversed()
+                .thenComparing(Placement::getCourseId));
+
+        Map<String, List<Classroom>> assigned = new LinkedHashMap<>();
+        Map<String, Timeslot> slotOf = new HashMap<>();
+
+        for (Placement p : order) {
+            Set<String> used = new HashSet<>();
+            for (Map.Entry<String, List<Classroom>> e : assigned.entrySet()) {
+                if (overlap(slotOf.get(e.getKey()), p.getTimeslot())) {
+                    for (Classroom r : e.getValue())
+                        used.add(r.getId());
+                }
+            }
+
+            List<Classroom> rooms = chooseRooms(eligible.getOrDefault(p.getCourseId(), Collections.emptyList()),
+                    used, needs.getOrDefault(p.getCourseId(), 0));
+            if (rooms != null) {
+                assigned.put(p.getCourseId(), rooms);
+                slotOf.put(p.getCourseId(), p.getTimeslot());
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Verilen derslerin hepsi aynı anda sınav yapsa odalara sığar mı?
+     * (1. aşamada kapasite farkındalığı için kötümser kontrol.)
+     */
+    public boolean fitsTogether(List<String> courseIds,
+                                Map<String, Integer> needs,
+                                Map<String, List<Classroom>> eligible) {
+        List<String> order = new ArrayList<>(courseIds);
+        order.sort(Comparator.comparingInt((String id) -> needs.getOrDefault(id, 0)).reversed());
+        Set<String> used = new HashSet<>();
+        for (String id : order) {
+            List<Classroom> rooms = chooseRooms(eligible.getOrDefault(id, Collections.emptyList()), used,
+                    needs.getOrDefault(id, 0));
+            if (rooms == null)
+                return false;
+            for (Classroom r : rooms)
+                used.add(r.getId());
+        }
+        return true;
+    }
+
+    // Boş odalardan, önce en az oda sayısı sonra en az artık koltuk olacak şekilde seç
+    private List<Classroom> chooseRooms(List<Classroom> candidates, Set<String> used, int needed) {
+        List<Classroom> free = new ArrayList<>();
+        for (Classroom r : candidates) {
+            if (!used.contains(r.getId()))
+                free.add(r);
+        }
+        if (free.isEmpty())
+            return null;
+
+        // 1) Yeten en küçük tek oda
+        Classroom bestSingle = null;
+        for (Classroom r : free) {
+            if (r.getCapacity() >= needed && (bestSingle == null || r.getCapacity() < bestSingle.getCapacity()))
+                bestSingle = r;
+        }
+        if (bestSingle != null)
+            return List.of(bestSingle);
+
+        // 2) Büyükten küçüğe al, son odayı yeten en küçük oda ile değiştir
+        free.sort(Comparator.comparingInt(Classroom::getCapacity).reversed().thenComparing(Classroom::getId));
+        List<Classroom> chosen = new ArrayList<>();
+        int total = 0;
+        for (Classroom r : free) {
+            chosen.add(r);
+            total += r.getCapacity();
+            if (total >= needed)
+                break;
+        }
+        if (total < needed)
+            return null;
+
+        Classroom last = chosen.remove(chosen.size() - 1);
+        int remaining = needed - (total - last.getCapacity());
+        Classroom tighter = last;
+        for (Classroom r : free) {
+            if (chosen.contains(r))
+                continue;
+            if (r.getCapacity() >= remaining && r.getCapacity() < tighter.getCapacity())
+                tighter = r;
+        }
+        chosen.add(tighter);
+        return List.copyOf(chosen);
+    }
+
+    private static boolean overlap(Timeslot a, Timeslot b) {
+        return a.getDate().equals(b.getDate())
+                && a.getEnd().isAfter(b.getStart())
+                && a.getStart().isBefore(b.getEnd());
+    }
+}
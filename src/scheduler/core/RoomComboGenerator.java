@@ -93,6 +93,103 @@ public class RoomComboGenerator {
         return result;
     }
 
+    /**
+     * generateMinimalCombos ile aynı sırada üretir, ancak aynı kapasitedeki
+     * odaları eşdeğer sayar: kapasite imzası aynı olan kombinasyonlardan
+     * yalnızca biri (sınıfın ilk odaları ile) döner. Hangi somut odanın
+     * kullanılacağına yerleştirme anında SymmetryReducer.bindRooms karar verir.
+     */
+    public List<List<Classroom>> generateCapacityClassCombos(List<Classroom> rooms,
+                                                             int needed,
+                                                             int maxReturn,
+                                                             boolean preferLargeFirst) {
+        if (rooms == null || rooms.isEmpty())
+            return List.of();
+
+        // kapasite -> odalar, kapasiteye göre sıralı sınıflar
+        Map<Integer, List<Classroom>> byCap = new TreeMap<>(
+                preferLargeFirst ? Comparator.<Integer>reverseOrder() : Comparator.<Integer>naturalOrder());
+        for (Classroom r : rooms)
+            byCap.computeIfAbsent(r.getCapacity(), k -> new ArrayList<>()).add(r);
+        List<List<Classroom>> classes = new ArrayList<>(byCap.values());
+        int n = classes.size();
+
+        List<List<Classroom>> result = new ArrayList<>();
+
+        // 1) Tek sınıf
+        for (int i = 0; i < n; i++) {
+            if (cap(classes, i) >= needed) {
+                result.add(List.of(classes.get(i).get(0)));
+                if (result.size() >= maxReturn)
+                    return result;
+            }
+        }
+
+        // 2) İkili (aynı kapasite sınıfından iki oda da olabilir)
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                if (!available(classes, i, j, -1))
+                    continue;
+                if (cap(classes, i) + cap(classes, j) >= needed) {
+                    result.add(pick(classes, i, j, -1));
+                    if (result.size() >= maxReturn)
+                        return result;
+                }
+            }
+        }
+
+        // 3) Üçlü
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                if (!available(classes, i, j, -1))
+                    continue;
+                int capAB = cap(classes, i) + cap(classes, j);
+                if (capAB >= needed)
+                    continue; // ikili zaten yeterliydi
+                for (int k = j; k < n; k++) {
+                    if (!available(classes, i, j, k))
+                        continue;
+                    if (capAB + cap(classes, k) >= needed) {
+                        result.add(pick(classes, i, j, k));
+                        if (result.size() >= maxReturn)
+                            return result;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static int cap(List<List<Classroom>> classes, int i) {
+        return classes.get(i).get(0).getCapacity();
+    }
+
+    // Aynı sınıftan istenen sayıda oda var mı? (k < 0 ise ikili)
+    private static boolean available(List<List<Classroom>> classes, int i, int j, int k) {
+        Map<Integer, Integer> need = new HashMap<>();
+        need.merge(i, 1, Integer::sum);
+        need.merge(j, 1, Integer::sum);
+        if (k >= 0)
+            need.merge(k, 1, Integer::sum);
+        for (Map.Entry<Integer, Integer> e : need.entrySet()) {
+            if (classes.get(e.getKey()).size() < e.getValue())
+                return false;
+        }
+        return true;
+    }
+
+    // Her sınıftan sıradaki temsilci odayı al
+    private static List<Classroom> pick(List<List<Classroom>> classes, int i, int j, int k) {
+        Map<Integer, Integer> used = new HashMap<>();
+        List<Classroom> out = new ArrayList<>(3);
+        for (int idx : (k >= 0 ? new int[] { i, j, k } : new int[] { i, j })) {
+            int u = used.merge(idx, 1, Integer::sum) - 1;
+            out.add(classes.get(idx).get(u));
+        }
+        return List.copyOf(out);
+    }
+
     /**
      * Greedy oda seçimi.
      * <p>
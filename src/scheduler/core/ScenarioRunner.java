@@ -0,0 +1,278 @@
+package scheduler.core;
+
+import scheduler.config.SolverParameters;
+import scheduler.constraints.PartialSchedule;
+import scheduler.model.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * "Ne olur?" senaryoları: temel problem ve her senaryo için bir değişiklik
+ * listesi (oda kapatma, dönemi kaydırma, gün çıkarma, günlük sınav sınırı).
+ *
+ * Kayıtlardan türeyen hazırlık (öğrenci indeksi, süper düğümler, ağırlıklı
+ * çakışma grafiği) bir kez kurulur; slot kataloğu aynı gün listesini, oda
+ * kombinasyonları aynı oda listesini kullanan senaryolar arasında
+ * paylaşılır. Önce temel durum çözülür; senaryolar sonra eşzamanlı olarak
+ * temel programın fork'undan (O(1), görüntü kilitsiz paylaşılır) başlar:
+ * senaryoda hâlâ geçerli yerleşimler korunur, yalnızca değişiklikten
+ * etkilenen dersler yeniden yerleştirilir. Böylece tablo, temel programın
+ * en az değişiklikle onarılmış hâlini karşılaştırır. Amaç ölçütleri temel
+ * duruma göre farklarıyla döner; her çözüm deterministiktir.
+ */
+public class ScenarioRunner {
+
+    /** Bir senaryonun oda/gün listesi ve ayarları; değişiklikler bunu düzenler. */
+    static final class Variant {
+        List<Classroom> classrooms;
+        List<DayWindow> dayWindows;
+        SolverParameters params;
+
+        Variant(List<Classroom> classrooms, List<DayWindow> dayWindows, SolverParameters params) {
+            this.classrooms = new ArrayList<>(classrooms);
+            this.dayWindows = new ArrayList<>(dayWindows);
+            this.params = params;
+        }
+    }
+
+    /** Temel probleme uygulanan tek bir değişiklik. */
+    public static final class Delta {
+        private final String description;
+        private final Consumer<Variant> change;
+
+        private Delta(String description, Consumer<Variant> change) {
+            this.description = description;
+            this.change = change;
+        }
+
+        // Verilen odalar kullanılamaz
+        public static Delta closeRooms(String... roomIds) {
+            Set<String> closed = Set.of(roomIds);
+            return new Delta("Closed " + String.join(", ", roomIds),
+                    v -> v.classrooms.removeIf(r -> closed.contains(r.getId())));
+        }
+
+        // Tüm dönem days gün kaydırılır (negatif = öne), saat pencereleri aynı kalır
+        public static Delta shiftDays(int days) {
+            return new Delta("Shifted " + (days > 0 ? "+" : "") + days + " days",
+                    v -> v.dayWindows = v.dayWindows.stream()
+                            .map(dw -> new DayWindow(dw.getDate().plusDays(days), dw.getRanges()))
+                            .collect(Collectors.toList()));
+        }
+
+        // Verilen tarihler dönemden çıkarılır
+        public static Delta dropDays(LocalDate... dates) {
+            Set<LocalDate> dropped = Set.of(dates);
+            return new Delta("Dropped " + Arrays.stream(dates).map(LocalDate::toString)
+                    .collect(Collectors.joining(", ")),
+                    v -> v.dayWindows.removeIf(dw -> dropped.contains(dw.getDate())));
+        }
+
+        // Öğrenci başına günlük sınav sınırı
+        public static Delta maxExamsPerDay(int limit) {
+            return new Delta("Max " + limit + " exams/day", v -> v.params = v.params.withMaxExamsPerDay(limit));
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /** Adlı bir değişiklik listesi; değişiklikler sırayla uygulanır. */
+    public static final class Scenario {
+        private final String name;
+        private final List<Delta> deltas;
+
+        public Scenario(String name, Delta... deltas) {
+            this(name, List.of(deltas));
+        }
+
+        public Scenario(String name, List<Delta> deltas) {
+            this.name = name;
+            this.deltas = List.copyOf(deltas);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Delta> getDeltas() {
+            return deltas;
+        }
+    }
+
+    /** Bir senaryonun sonucu (karşılaştırma tablosunun bir satırı). */
+    public static final class Outcome {
+        private final Scenario scenario;
+        private final SolveResult result;
+        private final long elapsedMs;
+
+        Outcome(Scenario scenario, SolveResult result, long elapsedMs) {
+            this.scenario = scenario;
+            this.result = result;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        public SolveResult getResult() {
+            return result;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        // Amacın değeri (ParetoArchive ile aynı tanım)
+        public double get(ParetoArchive.Objective objective) {
+            return objective.of(result);
+        }
+    }
+
+    /** Temel durum ve senaryolar, verildikleri sırayla. */
+    public static final class Comparison {
+        private final Outcome base;
+        private final List<Outcome> scenarios;
+
+        Comparison(Outcome base, List<Outcome> scenarios) {
+            this.base = base;
+            this.scenarios = Collections.unmodifiableList(scenarios);
+        }
+
+        public Outcome getBase() {
+            return base;
+        }
+
+        public List<Outcome> getScenarios() {
+            return scenarios;
+        }
+
+        // Senaryo değeri - temel değer (pozitif = senaryoda daha kötü)
+        public double delta(Outcome outcome, ParetoArchive.Objective objective) {
+            return outcome.get(objective) - base.get(objective);
+        }
+
+        /**
+         * Düz metin tablo: satır başına bir senaryo, sütun başına bir amaç;
+         * senaryo hücrelerinde temel duruma göre fark parantez içinde.
+         */
+        public String toTable() {
+            ParetoArchive.Objective[] objectives = ParetoArchive.Objective.values();
+            List<String[]> rows = new ArrayList<>();
+            String[] header = new String[objectives.length + 3];
+            header[0] = "Scenario";
+            for (int i = 0; i < objectives.length; i++)
+                header[i + 1] = objectives[i].getLabel();
+            header[objectives.length + 1] = "Room use";
+            header[objectives.length + 2] = "Time";
+            rows.add(header);
+            rows.add(row(base, false));
+            for (Outcome o : scenarios)
+                rows.add(row(o, true));
+
+            int[] width = new int[header.length];
+            for (String[] r : rows) {
+                for (int i = 0; i < r.length; i++)
+                    width[i] = Math.max(width[i], r[i].length());
+            }
+            StringBuilder sb = new StringBuilder();
+            for (String[] r : rows) {
+                for (int i = 0; i < r.length; i++) {
+                    sb.append(i == 0 ? String.format("%-" + width[i] + "s", r[i])
+                            : String.format("  %" + width[i] + "s", r[i]));
+                }
+                sb.append(System.lineSeparator());
+            }
+            return sb.toString();
+        }
+
+        private String[] row(Outcome o, boolean withDelta) {
+            ParetoArchive.Objective[] objectives = ParetoArchive.Objective.values();
+            String[] r = new String[objectives.length + 3];
+            r[0] = o.getScenario().getName();
+            for (int i = 0; i < objectives.length; i++) {
+                String cell = format(o.get(objectives[i]));
+                double d = delta(o, objectives[i]);
+                if (withDelta && d != 0)
+                    cell += " (" + (d > 0 ? "+" : "-") + format(Math.abs(d)) + ")";
+                r[i + 1] = cell;
+            }
+            r[objectives.length + 1] = String.format("%.1f%%", o.getResult().getMetrics().getRoomUtilisation() * 100);
+            r[objectives.length + 2] = o.getElapsedMs() + " ms";
+            return r;
+        }
+
+        private static String format(double v) {
+            return v == Math.rint(v) ? String.valueOf((long) v) : String.format("%.3f", v);
+        }
+
+        @Override
+        public String toString() {
+            return toTable();
+        }
+    }
+
+    private final ExamScheduler scheduler;
+
+    public ScenarioRunner(ExamScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public Comparison run(List<Course> courses,
+            List<Enrollment> enrollments,
+            List<Classroom> classrooms,
+            List<DayWindow> dayWindows,
+            List<Scenario> scenarios,
+            long seed) {
+        return run(courses, enrollments, classrooms, dayWindows, scenarios,
+                SolverParameters.defaults().withRandomSeed(seed));
+    }
+
+    /**
+     * Temel durumu ve senaryoları aynı ayarlarla (değişiklikler hariç)
+     * çözer; senaryolar eşzamanlı ve temel programdan başlayarak. Senaryo
+     * değişiklikleri girdi listelerini değiştirmez.
+     */
+    public Comparison run(List<Course> courses,
+            List<Enrollment> enrollments,
+            List<Classroom> classrooms,
+            List<DayWindow> dayWindows,
+            List<Scenario> scenarios,
+            SolverParameters params) {
+        PreparedProblem prepared = new PreparedProblem(courses, enrollments);
+
+        List<Variant> variants = new ArrayList<>();
+        for (Scenario s : scenarios) {
+            Variant v = new Variant(classrooms, dayWindows, params);
+            for (Delta d : s.getDeltas())
+                d.change.accept(v);
+            variants.add(v);
+        }
+
+        Outcome base = solve(new Scenario("Base"), prepared, new Variant(classrooms, dayWindows, params), null);
+        PartialSchedule.Snapshot start = base.getResult().getPlacements();
+        List<Outcome> outcomes = IntStream.range(0, scenarios.size()).parallel()
+                .mapToObj(i -> solve(scenarios.get(i), prepared, variants.get(i), start))
+                .collect(Collectors.toList());
+
+        return new Comparison(base, outcomes);
+    }
+
+    private Outcome solve(Scenario scenario, PreparedProblem prepared, Variant v, PartialSchedule.Snapshot start) {
+        long t0 = System.nanoTime();
+        SolveResult r = scheduler.solve(prepared, v.classrooms, v.dayWindows, v.params, Integer.MAX_VALUE,
+                () -> false, start);
+        return new Outcome(scenario, r, (System.nanoTime() - t0) / 1_000_000);
+    }
+}
@@ -0,0 +1,241 @@
+package scheduler.core;
+
+import scheduler.config.SchedulingConfig;
+import scheduler.constraints.BackToBackPenalty;
+import scheduler.constraints.EncodedProblem;
+import scheduler.constraints.EncodedSchedule;
+import scheduler.constraints.PartialSchedule;
+import scheduler.constraints.ScheduleListener;
+import scheduler.model.Classroom;
+import scheduler.model.Placement;
+import scheduler.model.ScheduleStore;
+import scheduler.model.Timeslot;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Amaç ölçütlerinin (ScheduleMetrics) hesaplanması.
+ *
+ * İki yolu vardır:
+ * - attach(schedule): çözücünün programına dinleyici olarak bağlanır; her
+ *   yerleşim ve geri almada artımlı güncellenir, metrics() O(1)'dir.
+ * - evaluate(store, ...): bitmiş bir programda (ör. veritabanından yüklenen)
+ *   öğrenciler üzerinde paralel tek geçiş, yalnızca ilkel dizilerle.
+ *
+ * Yük varyansı tam sayı toplamlarından hesaplanır; iki yol aynı programda
+ * aynı değeri verir. Oda doluluğu artımlı yolda ayrılan kombinasyonların,
+ * geçişte ise koltuk verilmiş (slot, oda) çiftlerinin kapasitesine bölünür.
+ */
+public final class ScheduleEvaluator implements ScheduleListener {
+
+    private final EncodedProblem problem;
+    private final BackToBackPenalty backToBack = new BackToBackPenalty(SchedulingConfig.BACK_TO_BACK_WINDOW_MINUTES);
+    private final int dayCount;
+    // Bağlı programın kodlaması (null = bağlı değil)
+    private EncodedSchedule attached;
+
+    // Öğrenci ordinali -> toplam sınav; (ordinal * dayCount + gün) -> o günkü sınav
+    private final int[] load;
+    private final int[] dayLoad;
+    // dayHist[k]: tam k sınavı olan (öğrenci, gün) çifti sayısı
+    private int[] dayHist = new int[8];
+    private final int[] coursesOnDay;
+    private int daysUsed;
+
+    private int loaded;
+    private long loadSum;
+    private long loadSquares;
+    private long backToBackPairs;
+    private long seatsUsed;
+    private long seatsOffered;
+
+    public ScheduleEvaluator(EncodedProblem problem, int studentCount) {
+        this.problem = problem;
+        this.dayCount = Math.max(1, problem.dayCount());
+        this.load = new int[studentCount];
+        this.dayLoad = new int[studentCount * dayCount];
+        this.coursesOnDay = new int[dayCount];
+    }
+
+    /**
+     * Programa bağlanır ve ölçütleri mevcut yerleşimlerden kurar. Aynı
+     * programa tekrar bağlamak etkisizdir.
+     */
+    public ScheduleEvaluator attach(PartialSchedule schedule) {
+        // Kodlama dinleyicisi önce eklenmeli ki ardışık sınav farkı güncel günü görsün
+        EncodedSchedule enc = problem.encodingOf(schedule);
+        if (attached == enc)
+            return this;
+        if (attached != null)
+            throw new IllegalStateException("ScheduleEvaluator is already attached to another schedule");
+        attached = enc;
+        schedule.addListener(this);
+        for (Placement p : schedule.getPlacements().values())
+            update(p, +1, false);
+        backToBackPairs = backToBack.penalty(enc);
+        return this;
+    }
+
+    @Override
+    public void onPlace(Placement p) {
+        if (attached != null)
+            update(p, +1, true);
+    }
+
+    @Override
+    public void onRemove(Placement p) {
+        if (attached != null)
+            update(p, -1, true);
+    }
+
+    private void update(Placement p, int sign, boolean pairs) {
+        int course = problem.courseOrdinal(p.getCourseId());
+        int slot = problem.encodeSlot(p.getTimeslot());
+        int combo = problem.combo(p.getClassrooms());
+        int day = EncodedProblem.slotDay(slot);
+
+        if (sign > 0 ? coursesOnDay[day]++ == 0 : --coursesOnDay[day] == 0)
+            daysUsed += sign;
+
+        problem.students(course).forEach(s -> {
+            int before = load[s];
+            load[s] += sign;
+            loadSum += sign;
+            loadSquares += (long) load[s] * load[s] - (long) before * before;
+            if (before == 0)
+                loaded++;
+            else if (load[s] == 0)
+                loaded--;
+
+            int k = s * dayCount + day;
+            int b = dayLoad[k];
+            dayLoad[k] += sign;
+            if (b > 0)
+                dayHist[b]--;
+            if (dayLoad[k] > 0) {
+                if (dayLoad[k] >= dayHist.length)
+                    dayHist = Arrays.copyOf(dayHist, dayHist.length * 2);
+                dayHist[dayLoad[k]]++;
+            }
+        });
+
+        int capacity = 0;
+        for (int r : problem.comboRooms(combo))
+            capacity += Math.max(0, problem.room(r).getCapacity());
+        seatsUsed += (long) sign * problem.students(course).cardinality();
+        seatsOffered += (long) sign * capacity;
+
+        // Fark, dersin kendi yerleşimini yok sayar: ekleme ve çıkarmada aynı çiftler
+        if (pairs)
+            backToBackPairs += (long) sign * backToBack.delta(attached, course, slot, combo);
+    }
+
+    // Anlık ölçütler; yerleşemeyen ders sayısı programın dışındadır (teşhislerden)
+    public ScheduleMetrics metrics(int unscheduledCount) {
+        int maxPerDay = 0;
+        for (int k = dayHist.length - 1; k > 0; k--) {
+            if (dayHist[k] > 0) {
+                maxPerDay = k;
+                break;
+            }
+        }
+        return new ScheduleMetrics(unscheduledCount, daysUsed, variance(loaded, loadSum, loadSquares),
+                backToBackPairs, maxPerDay, utilisation(seatsUsed, seatsOffered));
+    }
+
+    // --- TEK GEÇİŞ ---
+
+    /**
+     * Bitmiş bir programın ölçütleri. Her öğrencinin satırları ardışık
+     * olduğundan öğrenciler bağımsız işlenir ve paralel toplanır.
+     */
+    public static ScheduleMetrics evaluate(ScheduleStore store, int unscheduledCount, List<Classroom> classrooms) {
+        // Slot -> (gün, başlangıç, bitiş) kodu; gün numarası yalnızca eşitlik için
+        Map<LocalDate, Integer> dayOrd = new HashMap<>();
+        int[] code = new int[store.slotCount()];
+        for (int t = 0; t < code.length; t++) {
+            Timeslot ts = store.timeslot(t);
+            Integer day = dayOrd.get(ts.getDate());
+            if (day == null) {
+                day = dayOrd.size();
+                dayOrd.put(ts.getDate(), day);
+            }
+            code[t] = EncodedProblem.encodeSlot(day, ts.getStart().toSecondOfDay() / 60,
+                    ts.getEnd().toSecondOfDay() / 60);
+        }
+
+        int window = SchedulingConfig.BACK_TO_BACK_WINDOW_MINUTES;
+        Pass pass = IntStream.range(0, store.studentCount()).parallel()
+                .collect(Pass::new, (a, s) -> a.add(store, code, s, window), Pass::merge);
+
+        // Koltuk verilmiş her (slot, oda) çifti bir kez sayılır
+        Map<String, Integer> capacityOf = new HashMap<>();
+        if (classrooms != null) {
+            for (Classroom c : classrooms)
+                capacityOf.put(c.getId(), Math.max(0, c.getCapacity()));
+        }
+        int rooms = store.roomCount();
+        boolean[] seen = new boolean[code.length * rooms];
+        long offered = 0;
+        for (int row = 0; row < store.size(); row++) {
+            int k = store.slotOf(row) * rooms + store.roomOf(row);
+            if (!seen[k]) {
+                seen[k] = true;
+                offered += capacityOf.getOrDefault(store.roomId(store.roomOf(row)), 0);
+            }
+        }
+
+        return new ScheduleMetrics(unscheduledCount, dayOrd.size(), variance(pass.students, pass.sum, pass.squares),
+                pass.backToBack, pass.maxPerDay, utilisation(store.size(), offered));
+    }
+
+    // Öğrenci başına kısmi toplamlar
+    private static final class Pass {
+        int students;
+        long sum;
+        long squares;
+        long backToBack;
+        int maxPerDay;
+
+        void add(ScheduleStore store, int[] code, int student, int window) {
+            int n = store.examCount(student);
+            students++;
+            sum += n;
+            squares += (long) n * n;
+            for (int i = 0; i < n; i++) {
+                int a = code[store.slotOf(store.studentRow(student, i))];
+                int sameDay = 1;
+                for (int j = 0; j < n; j++) {
+                    if (j == i)
+                        continue;
+                    int b = code[store.slotOf(store.studentRow(student, j))];
+                    if (EncodedProblem.slotDay(a) != EncodedProblem.slotDay(b))
+                        continue;
+                    sameDay++;
+                    if (j > i && BackToBackPenalty.withinWindow(a, b, window))
+                        backToBack++;
+                }
+                maxPerDay = Math.max(maxPerDay, sameDay);
+            }
+        }
+
+        void merge(Pass o) {
+            students += o.students;
+            sum += o.sum;
+            squares += o.squares;
+            backToBack += o.backToBack;
+            maxPerDay = Math.max(maxPerDay, o.maxPerDay);
+        }
+    }
+
+    // Tam sayı toplamlarından varyans: (n·Σx² − (Σx)²) / n²
+    private static double variance(long n, long sum, long squares) {
+        return n == 0 ? 0 : (double) (n * squares - sum * sum) / ((double) n * n);
+    }
+
+    private static double utilisation(long used, long offered) {
+        return offered == 0 ? 0 : (double) used / offered;
+    }
+}
@@ -0,0 +1,61 @@
+package scheduler.core;
+
+/**
+ * Bir programın amaç ölçütleri (değiştirilemez anlık görüntü).
+ * ScheduleEvaluator üretir; koşular bunlarla karşılaştırılır.
+ */
+public final class ScheduleMetrics {
+
+    private final int unscheduledCount;
+    private final int daysUsed;
+    private final double loadVariance;
+    private final long backToBack;
+    private final int maxExamsPerDay;
+    private final double roomUtilisation;
+
+    ScheduleMetrics(int unscheduledCount, int daysUsed, double loadVariance, long backToBack,
+            int maxExamsPerDay, double roomUtilisation) {
+        this.unscheduledCount = unscheduledCount;
+        this.daysUsed = daysUsed;
+        this.loadVariance = loadVariance;
+        this.backToBack = backToBack;
+        this.maxExamsPerDay = maxExamsPerDay;
+        this.roomUtilisation = roomUtilisation;
+    }
+
+    // Yerleşemeyen ders sayısı
+    public int getUnscheduledCount() {
+        return unscheduledCount;
+    }
+
+    // En az bir sınav olan gün sayısı
+    public int getDaysUsed() {
+        return daysUsed;
+    }
+
+    // Sınavı olan öğrencilerin toplam sınav sayısı varyansı
+    public double getLoadVariance() {
+        return loadVariance;
+    }
+
+    // Aynı gün, aralarında BACK_TO_BACK_WINDOW_MINUTES'tan az olan (öğrenci, sınav çifti) sayısı
+    public long getBackToBack() {
+        return backToBack;
+    }
+
+    // Bir öğrencinin tek bir gündeki en yüksek sınav sayısı
+    public int getMaxExamsPerDay() {
+        return maxExamsPerDay;
+    }
+
+    // Oturan öğrenci / ayrılan odaların kapasitesi (0..1)
+    public double getRoomUtilisation() {
+        return roomUtilisation;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("unscheduled=%d, days=%d, loadVariance=%.3f, backToBack=%d, maxPerDay=%d, roomUtil=%.1f%%",
+                unscheduledCount, daysUsed, loadVariance, backToBack, maxExamsPerDay, roomUtilisation * 100);
+    }
+}
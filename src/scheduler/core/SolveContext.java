@@ -0,0 +1,135 @@
+package scheduler.core;
+
+import scheduler.config.SolverParameters;
+import scheduler.constraints.EncodedProblem;
+import scheduler.constraints.SoftConstraintSet;
+import scheduler.model.*;
+import scheduler.util.CompressedBitmap;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tek bir çözüm koşusunun tüm değişken durumu: indeksler, kodlama, gün
+ * özetleri ve teşhisler. ExamScheduler her koşu için yenisini kurar; bir
+ * bağlam koşular ya da iş parçacıkları arasında paylaşılmaz.
+ */
+final class SolveContext {
+
+    // Yerleşemeyen dersler ve tipli teşhisleri
+    final Map<String, Diagnosis> diagnoses = new HashMap<>();
+    // Senaryolar / denemeler arasında paylaşılan değişmez hazırlık
+    final PreparedProblem prepared;
+    // Bu koşunun ayarları (ızgara, kurallar, sayaçlar, tohum)
+    final SolverParameters params;
+    final Map<String, Set<String>> courseToStudents;
+    // Öğrenci id <-> ordinal ve ders başına öğrenci bit kümeleri
+    final StudentIndex studentIndex;
+    final Map<String, CompressedBitmap> courseStudents;
+    // Aynı kayıtlı derslerin süper düğümleri
+    final CourseGroups groups;
+    // Kısıtların sıcak yolu için ilkel kodlama
+    final EncodedProblem problem;
+    final Map<String, Integer> degrees;
+    // Birbirinin yerine geçebilen odalar / günler
+    final SymmetryReducer symmetry;
+    // Gün bazında öğrenci yükü / oda kullanımı özetleri
+    final DayIndex dayIndex;
+    // Ağırlıklı kalite ölçütleri (yumuşak kısıtlar)
+    SoftConstraintSet softConstraints;
+    // Amaç ölçütleri; bağlı programla birlikte güncel tutulur
+    final ScheduleEvaluator evaluator;
+    // En az kısıtlayan slot puanlaması (null = ilk geçerli slot)
+    final LeastConstrainingValue lcv;
+
+    // Yeniden başlatmalar arasında paylaşılan öğrenme: süper düğüm temsilcisi ordinali -> zorluk
+    private final int[] hardness;
+    // Bu koşunun eşitlik bozucusu (null = deterministik sıra)
+    Random tieBreak;
+    // Bu koşudaki geri izleme denemeleri ve Luby kesme sınırı
+    int backtracks;
+    int backtrackLimit = Integer.MAX_VALUE;
+    // Deneme çözümlerinde: bundan fazla yerleşemeyenli koşu kabul edilmez; iptal edilirse koşu kesilir
+    int maxUnscheduled = Integer.MAX_VALUE;
+    BooleanSupplier cancelled = () -> false;
+    // Bu koşuda yerleşemeyen sayısı bunu aşınca kesilir
+    private int failureLimit = Integer.MAX_VALUE;
+    // Bu andan sonra yeni yeniden başlatma koşusu açılmaz (System.nanoTime; Long.MAX_VALUE = yok)
+    private final long deadline;
+
+    // attemptPlace'in çağrılar arasında yeniden kullanılan tamponları (iç içe çağrılmaz)
+    int[] slotCodes = new int[0];
+    long[] slotOrder = new long[0];
+    boolean[] redundantDays = new boolean[0];
+    final int[] lcvSlots;
+    final int[] lcvPos;
+    final int[] lcvBound;
+
+    SolveContext(List<Course> courses, List<Enrollment> enrollments, List<Classroom> classrooms,
+            List<DayWindow> dayWindows, SolverParameters params) {
+        this(new PreparedProblem(courses, enrollments), classrooms, dayWindows, params);
+    }
+
+    // Paylaşılan hazırlık üzerine yalnızca oda/gün listesine bağlı ve değişken durum kurulur
+    SolveContext(PreparedProblem prepared, List<Classroom> classrooms, List<DayWindow> dayWindows,
+            SolverParameters params) {
+        this.prepared = prepared;
+        this.params = params;
+        this.deadline = params.getDeadlineMs() > 0 ? System.nanoTime() + params.getDeadlineMs() * 1_000_000
+                : Long.MAX_VALUE;
+        courseToStudents = prepared.courseToStudents;
+        studentIndex = prepared.studentIndex;
+        courseStudents = prepared.courseStudents;
+        groups = prepared.groups;
+        problem = prepared.encode(classrooms, dayWindows);
+        degrees = prepared.degrees;
+        symmetry = new SymmetryReducer(dayWindows);
+        dayIndex = new DayIndex(courseStudents, studentIndex.size(), classrooms, dayWindows,
+                params.getMaxExamsPerDay());
+        evaluator = new ScheduleEvaluator(problem, studentIndex.size());
+        lcv = params.isLcvSlotOrdering()
+                ? new LeastConstrainingValue(problem, prepared.graph(), dayIndex, prepared.courses, dayWindows,
+                        params)
+                : null;
+        hardness = new int[problem.courseCount()];
+        int lcvLimit = lcv == null ? 0 : params.getLcvScoreLimit();
+        lcvSlots = new int[lcvLimit];
+        lcvPos = new int[lcvLimit];
+        lcvBound = new int[lcvLimit];
+    }
+
+    // Yeni bir koşu: teşhisler ve sayaç sıfırlanır, öğrenilen zorluklar kalır
+    void startRun(Random tieBreak, int backtrackLimit, int failureLimit) {
+        diagnoses.clear();
+        this.tieBreak = tieBreak;
+        this.backtracks = 0;
+        this.backtrackLimit = backtrackLimit;
+        this.failureLimit = failureLimit;
+    }
+
+    // Kesme sınırı aşıldı mı? (koşu yarıda bırakılır)
+    boolean cutOff() {
+        return backtracks > backtrackLimit || diagnoses.size() > failureLimit || cancelled.getAsBoolean();
+    }
+
+    // Süre sınırı geçti mi? (yalnızca yeni koşu açmayı engeller)
+    boolean pastDeadline() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0;
+    }
+
+    // Yerleşmekte zorlanan dersin grubunu sonraki koşularda öne al
+    void bumpHardness(String courseId) {
+        int ord = problem.courseOrdinal(groups.representativeOf(courseId));
+        if (ord < hardness.length)
+            hardness[ord]++;
+    }
+
+    int hardness(String courseId) {
+        int ord = problem.courseOrdinal(groups.representativeOf(courseId));
+        return ord < hardness.length ? hardness[ord] : 0;
+    }
+
+    void fail(Diagnosis d) {
+        diagnoses.put(d.getCourseId(), d);
+    }
+}
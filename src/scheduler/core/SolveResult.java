@@ -0,0 +1,76 @@
+package scheduler.core;
+
+import scheduler.constraints.PartialSchedule;
+import scheduler.model.ScheduleStore;
+
+import java.util.*;
+
+/**
+ * Bir çözüm koşusunun değiştirilemez sonucu: öğrenci bazında sınav
+ * atamaları, yerleşemeyen derslerin teşhisleri, amaç ölçütleri ve yumuşak
+ * kısıt cezası.
+ * İş parçacıkları arasında serbestçe paylaşılabilir.
+ */
+public final class SolveResult {
+
+    private final ScheduleStore schedule;
+    private final Map<String, Diagnosis> diagnoses;
+    private final ScheduleMetrics metrics;
+    private final long softPenalty;
+    private final Map<String, Long> softBreakdown;
+    // Yerleşimlerin değiştirilemez görüntüsü (sonraki çözümler fork'undan başlayabilir)
+    private final PartialSchedule.Snapshot placements;
+
+    SolveResult(ScheduleStore schedule, Map<String, Diagnosis> diagnoses, ScheduleMetrics metrics,
+            long softPenalty, Map<String, Long> softBreakdown, PartialSchedule.Snapshot placements) {
+        this.schedule = schedule;
+        this.placements = placements;
+        this.metrics = metrics;
+        this.diagnoses = Collections.unmodifiableMap(new HashMap<>(diagnoses));
+        this.softPenalty = softPenalty;
+        this.softBreakdown = Collections.unmodifiableMap(new LinkedHashMap<>(softBreakdown));
+    }
+
+    static SolveResult empty() {
+        return new SolveResult(ScheduleStore.EMPTY, Collections.emptyMap(),
+                new ScheduleMetrics(0, 0, 0, 0, 0, 0), 0, Collections.emptyMap(), new PartialSchedule().snapshot());
+    }
+
+    // Koltuk atamaları (öğrenci, ders ve oda bazında erişilebilir)
+    public ScheduleStore getSchedule() {
+        return schedule;
+    }
+
+    // Yerleşemeyen dersler ve tipli teşhisleri
+    public Map<String, Diagnosis> getDiagnoses() {
+        return diagnoses;
+    }
+
+    // Yalnızca gösterim için: teşhislerin metin hâli (her çağrıda üretilir)
+    public Map<String, String> getUnscheduledReasons() {
+        Map<String, String> out = new HashMap<>();
+        for (Map.Entry<String, Diagnosis> e : diagnoses.entrySet())
+            out.put(e.getKey(), e.getValue().render());
+        return out;
+    }
+
+    // Amaç ölçütleri (koşu sırasında artımlı tutuldu; okumak ücretsiz)
+    public ScheduleMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Ağırlıklı yumuşak kısıt cezası (düşük = daha iyi)
+    public long getSoftPenalty() {
+        return softPenalty;
+    }
+
+    // Kısıt adı -> ağırlıklı ceza
+    public Map<String, Long> getSoftBreakdown() {
+        return softBreakdown;
+    }
+
+    // Yerleşimler (ders -> slot ve odalar); fork() ile yeni bir çözümün başlangıcı olur
+    public PartialSchedule.Snapshot getPlacements() {
+        return placements;
+    }
+}
@@ -0,0 +1,40 @@
+package scheduler.core;
+
+import java.util.*;
+
+/**
+ * Öğrenci kimliklerini 0..n-1 arası sabit ordinallere eşler. Ordinaller
+ * sıralı kimlik sırasıyla verilir, böylece aynı girdi her zaman aynı
+ * numaralandırmayı üretir (CompressedBitmap kümeleri bu numaraları tutar).
+ */
+public class StudentIndex {
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> ids;
+
+    public StudentIndex(Map<String, Set<String>> courseToStudents) {
+        SortedSet<String> all = new TreeSet<>();
+        for (Set<String> ss : courseToStudents.values())
+            all.addAll(ss);
+        ids = List.copyOf(all);
+        for (int i = 0; i < ids.size(); i++)
+            ordinals.put(ids.get(i), i);
+    }
+
+    // Bilinmeyen öğrenci için -1
+    public int ordinal(String studentId) {
+        return ordinals.getOrDefault(studentId, -1);
+    }
+
+    public String id(int ordinal) {
+        return ids.get(ordinal);
+    }
+
+    public List<String> ids() {
+        return ids;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
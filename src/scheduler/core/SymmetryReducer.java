@@ -0,0 +1,173 @@
+package scheduler.core;
+
+import scheduler.constraints.EncodedProblem;
+import scheduler.constraints.EncodedSchedule;
+import scheduler.model.DayWindow;
+import scheduler.model.TimeRange;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Birbirinin yerine geçebilen oda ve günleri eşdeğerlik sınıflarına ayırır.
+ *
+ * Aynı kapasitedeki odalar ve aynı TimeRange pencerelerine sahip boş günler
+ * arama açısından simetriktir: birinde başarısız olan aday, diğerinde de
+ * başarısız olur. Bu yüzden her sınıftan yalnızca bir temsilci denenir;
+ * simetri bozulduğunda (oda dolu, güne sınav yerleşmiş) gerçek oda/gün seçilir.
+ */
+public class SymmetryReducer {
+
+    // tarih -> pencere imzası ("09:00-17:00;...")
+    private final Map<LocalDate, String> dayClass = new LinkedHashMap<>();
+    // Tarih sırasıyla günler ve pencere sınıfı numaraları
+    private final List<LocalDate> orderedDates = new ArrayList<>();
+    private int[] dayClassIds = new int[0];
+    private int classCount = 0;
+
+    // bindRooms için: oda ordinali -> dolu işaretlendiği çağrı
+    private int[] busyStamp = new int[0];
+    private int stamp = 0;
+    private int[] bound = new int[0];
+    // redundantDays için: görülen boş gün sınıfları
+    private boolean[] seenEmptyClasses = new boolean[0];
+
+    // Aynı kapasitedeki odalar EncodedProblem.roomsWithCapacity ile bulunur
+    public SymmetryReducer(List<DayWindow> dayWindows) {
+        if (dayWindows != null) {
+            List<DayWindow> ordered = new ArrayList<>(dayWindows);
+            ordered.sort(Comparator.comparing(DayWindow::getDate));
+            for (DayWindow dw : ordered) {
+                dayClass.put(dw.getDate(), windowKey(dw));
+            }
+        }
+
+        Map<String, Integer> classIds = new HashMap<>();
+        dayClassIds = new int[dayClass.size()];
+        for (Map.Entry<LocalDate, String> e : dayClass.entrySet()) {
+            Integer id = classIds.get(e.getValue());
+            if (id == null) {
+                id = classCount++;
+                classIds.put(e.getValue(), id);
+            }
+            dayClassIds[orderedDates.size()] = id;
+            orderedDates.add(e.getKey());
+        }
+    }
+
+    public static String windowKey(DayWindow dw) {
+        StringBuilder sb = new StringBuilder();
+        for (TimeRange r : dw.getRanges()) {
+            sb.append(r.getStart()).append('-').append(r.getEnd()).append(';');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Henüz hiç sınav yerleşmemiş ve aynı pencereye sahip daha erken bir boş
+     * günü olan günler (gün ordinaline göre işaretli). Bu günlerdeki slotlar
+     * temsilci günle aynı sonucu verir, aday üretiminde atlanabilir.
+     */
+    public boolean[] redundantDays(EncodedSchedule schedule) {
+        return redundantDays(schedule, null);
+    }
+
+    /**
+     * Sıcak yol için tampona yazan sürüm: out yetiyorsa temizlenip kullanılır
+     * (yoksa yenisi ayrılır); dönen dizide gün ordinalleri geçerlidir.
+     */
+    public boolean[] redundantDays(EncodedSchedule schedule, boolean[] out) {
+        EncodedProblem problem = schedule.problem();
+        if (seenEmptyClasses.length < classCount)
+            seenEmptyClasses = new boolean[classCount];
+        Arrays.fill(seenEmptyClasses, false);
+        boolean[] redundant;
+        if (out != null && out.length >= problem.dayCount()) {
+            redundant = out;
+            Arrays.fill(redundant, false);
+        } else {
+            redundant = new boolean[problem.dayCount()];
+        }
+        for (int i = 0; i < orderedDates.size(); i++) {
+            int day = problem.dayOrdinal(orderedDates.get(i));
+            if (schedule.dayCount(day) > 0)
+                continue;
+            if (seenEmptyClasses[dayClassIds[i]]) {
+                if (day < redundant.length)
+                    redundant[day] = true;
+            } else {
+                seenEmptyClasses[dayClassIds[i]] = true;
+            }
+        }
+        return redundant;
+    }
+
+    /**
+     * Kombinasyondaki her odayı, slotta boşsa olduğu gibi bırakır; doluysa
+     * aynı kapasite sınıfından boş ve en az kullanılmış bir oda ile değiştirir.
+     * Eşdeğer boş oda yoksa orijinal kombinasyon kalır (kısıt kontrolü
+     * reddeder). Odaların hiçbiri dolu değilse aynı kombinasyon id'si döner
+     * (nesne ayırmadan); aksi halde bağlanmış kombinasyon kodlanır.
+     */
+    public int bindRooms(EncodedSchedule schedule, int combo, int slot) {
+        EncodedProblem problem = schedule.problem();
+        int[] rooms = problem.comboRooms(combo);
+        if (rooms.length == 0)
+            return combo;
+
+        markBusy(schedule, slot);
+        boolean anyBusy = false;
+        for (int r : rooms) {
+            if (busyStamp[r] == stamp) {
+                anyBusy = true;
+                break;
+            }
+        }
+        if (!anyBusy)
+            return combo;
+
+        if (bound.length < rooms.length)
+            bound = new int[rooms.length];
+        for (int i = 0; i < rooms.length; i++)
+            bound[i] = busyStamp[rooms[i]] == stamp ? -1 : rooms[i];
+
+        for (int i = 0; i < rooms.length; i++) {
+            if (bound[i] >= 0)
+                continue;
+            int best = -1;
+            for (int alt : problem.roomsWithCapacity(problem.room(rooms[i]).getCapacity())) {
+                if (busyStamp[alt] == stamp || contains(bound, rooms.length, alt))
+                    continue;
+                if (best < 0 || schedule.roomUse(alt) < schedule.roomUse(best))
+                    best = alt;
+            }
+            if (best < 0)
+                return combo;
+            bound[i] = best;
+        }
+        return problem.combo(bound, rooms.length);
+    }
+
+    private void markBusy(EncodedSchedule schedule, int slot) {
+        int rooms = schedule.problem().roomCount();
+        if (busyStamp.length < rooms)
+            busyStamp = Arrays.copyOf(busyStamp, rooms);
+        stamp++;
+        int day = EncodedProblem.slotDay(slot);
+        for (int i = 0, n = schedule.dayCount(day); i < n; i++) {
+            int other = schedule.dayCourse(day, i);
+            if (EncodedProblem.overlaps(schedule.slotOf(other), slot)) {
+                for (int r : schedule.problem().comboRooms(schedule.comboOf(other)))
+                    busyStamp[r] = stamp;
+            }
+        }
+    }
+
+    private static boolean contains(int[] xs, int len, int x) {
+        for (int i = 0; i < len; i++) {
+            if (xs[i] == x)
+                return true;
+        }
+        return false;
+    }
+}
@@ -10,6 +10,11 @@ import java.util.List;
 public class TimeslotBuilder {
 
     public List<Timeslot> build(List<DayWindow> dayWindows, int durationMinutes) {
+        return build(dayWindows, durationMinutes, SchedulingConfig.GRID_MINUTES);
+    }
+
+    // Verilen ızgara adımıyla (dakika) slot üret; kaba-ince çözüm için
+    public List<Timeslot> build(List<DayWindow> dayWindows, int durationMinutes, int gridMinutes) {
         List<Timeslot> result = new ArrayList<>();
 
         for (DayWindow dw : dayWindows) {
@@ -23,8 +28,8 @@ public class TimeslotBuilder {
                         break;
 
                     result.add(new Timeslot(dw.getDate(), start, end));
-                    // 10 dakikalık adımlarla ilerle
-                    start = start.plusMinutes(SchedulingConfig.GRID_MINUTES);
+                    // ızgara adımıyla ilerle (varsayılan 10 dakika)
+                    start = start.plusMinutes(gridMinutes);
                 }
             }
         }
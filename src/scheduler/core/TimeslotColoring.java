@@ -0,0 +1,89 @@
+package scheduler.core;
+
+import scheduler.constraints.ConstraintSet;
+import scheduler.constraints.EncodedProblem;
+import scheduler.constraints.EncodedSchedule;
+import scheduler.constraints.PartialSchedule;
+import scheduler.model.Classroom;
+import scheduler.model.Course;
+import scheduler.model.Placement;
+import scheduler.model.Timeslot;
+
+import java.util.*;
+
+/**
+ * İki aşamalı çözümün 1. aşaması: çakışma grafiği üzerinde kapasiteye duyarlı
+ * renklendirme. Her "renk" bir timeslot'tur; dersler zorluk sırasıyla,
+ * öğrenci kısıtlarını (çakışma, min gap, günlük limit) sağlayan ve o saatte
+ * aynı anda sınav yapan derslerle birlikte odalara hâlâ sığan ilk slota
+ * atanır. Oda seçimi 2. aşamaya (RoomBinPacker) bırakılır.
+ */
+public class TimeslotColoring {
+
+    private final ConstraintSet studentConstraints;
+    private final RoomBinPacker packer;
+    private final SymmetryReducer symmetry;
+
+    public TimeslotColoring(ConstraintSet studentConstraints, RoomBinPacker packer, SymmetryReducer symmetry) {
+        this.studentConstraints = studentConstraints;
+        this.packer = packer;
+        this.symmetry = symmetry;
+    }
+
+    /**
+     * @param ordered  renklendirme sırası (zor dersler önce)
+     * @param schedule oda listesi boş yerleşimlerle doldurulur
+     * @return renklendirilemeyen dersler
+     */
+    public List<Course> color(List<Course> ordered,
+                              Map<String, List<Timeslot>> slotsPerCourse,
+                              Map<String, Integer> needs,
+                              Map<String, List<Classroom>> eligible,
+                              PartialSchedule schedule) {
+        List<Course> uncolored = new ArrayList<>();
+        EncodedProblem problem = studentConstraints.getProblem();
+        EncodedSchedule enc = problem.encodingOf(schedule);
+        // Renklendirmede oda yok: tüm adaylar boş kombinasyonla denenir
+        int noRooms = problem.combo(List.of());
+        boolean[] redundantDays = null;
+
+        for (Course c : ordered) {
+            List<Timeslot> slots = slotsPerCourse.getOrDefault(c.getId(), Collections.emptyList());
+            int course = problem.courseOrdinal(c.getId());
+            redundantDays = symmetry.redundantDays(enc, redundantDays);
+            boolean placed = false;
+
+            for (Timeslot t : slots) {
+                int day = problem.dayOrdinal(t.getDate());
+                if (day < redundantDays.length && redundantDays[day])
+                    continue;
+                if (!studentConstraints.ok(enc, course, problem.encodeSlot(t), noRooms))
+                    continue;
+                if (!fitsRooms(c.getId(), t, schedule, needs, eligible))
+                    continue;
+
+                schedule.addPlacement(new Placement(c.getId(), t, List.of()));
+                placed = true;
+                break;
+            }
+            if (!placed)
+                uncolored.add(c);
+        }
+        return uncolored;
+    }
+
+    // t ile çakışan derslerle birlikte odalara sığıyor mu?
+    private boolean fitsRooms(String courseId, Timeslot t, PartialSchedule schedule,
+                              Map<String, Integer> needs, Map<String, List<Classroom>> eligible) {
+        List<String> concurrent = new ArrayList<>();
+        concurrent.add(courseId);
+        for (Placement p : schedule.getPlacements().values()) {
+            Timeslot o = p.getTimeslot();
+            if (o.getDate().equals(t.getDate()) && o.getEnd().isAfter(t.getStart())
+                    && o.getStart().isBefore(t.getEnd())) {
+                concurrent.add(p.getCourseId());
+            }
+        }
+        return packer.fitsTogether(concurrent, needs, eligible);
+    }
+}
@@ -2,6 +2,7 @@ package scheduler.dao;
 
 import java.sql.*;
 import java.util.*;
+import scheduler.config.SolverParameters;
 import scheduler.model.*;
 
 public class DBManager {
@@ -66,6 +67,16 @@ public class DBManager {
         return null;
     }
 
+    // Çözücü ayarları "solver.*" anahtarlarıyla app_settings tablosunda
+    public static void saveSolverParameters(SolverParameters params) {
+        params.toSettings().forEach(DBManager::saveSetting);
+    }
+
+    // Kayıt yoksa varsayılanlar (BALANCED)
+    public static SolverParameters loadSolverParameters() {
+        return SolverParameters.fromSettings(DBManager::loadSetting);
+    }
+
     // =============================================================
     // DOSYA DURUMLARINI YÖNETME
     // =============================================================
@@ -310,8 +321,8 @@ public class DBManager {
         }
     }
 
-    public static Map<String, List<StudentExam>> loadSchedule() {
-        Map<String, List<StudentExam>> result = new HashMap<>();
+    public static ScheduleStore loadSchedule() {
+        ScheduleStore.Builder result = new ScheduleStore.Builder();
 
         String sql = """
         SELECT student_id, course_id, date, start_time, end_time, room, seat
@@ -324,8 +335,8 @@ public class DBManager {
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                String studentId = rs.getString("student_id");
-                String courseId = rs.getString("course_id");
+                int student = result.student(rs.getString("student_id"));
+                int course = result.course(rs.getString("course_id"));
 
                 Timeslot timeslot = new Timeslot(
                         java.time.LocalDate.parse(rs.getString("date")),
@@ -333,25 +344,17 @@ public class DBManager {
                         java.time.LocalTime.parse(rs.getString("end_time"))
                 );
 
-                String roomId = rs.getString("room");
+                int room = result.room(rs.getString("room"));
                 int seatNo = rs.getInt("seat");
 
-                StudentExam se = new StudentExam(
-                        studentId,
-                        courseId,
-                        timeslot,
-                        roomId,
-                        seatNo
-                );
-
-                result.computeIfAbsent(studentId, k -> new ArrayList<>()).add(se);
+                result.add(student, course, result.slot(timeslot), room, seatNo);
             }
 
         } catch (SQLException e) {
             System.err.println("DB LOAD SCHEDULE ERROR: " + e.getMessage());
         }
 
-        return result;
+        return result.build();
     }
 
 
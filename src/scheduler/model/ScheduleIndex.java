@@ -0,0 +1,114 @@
+package scheduler.model;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Bir programın ders / oda / tarih ikincil indeksleri.
+ *
+ * Koltuklar (ders, slot, oda) oturumlarına toplanır; her oturum kaç
+ * öğrencinin oturduğunu bilir. Program başına bir kez, koltuk sayısıyla
+ * doğrusal sürede kurulur; sonraki aramalar koltukları taramaz. Oturum
+ * listeleri tarih, başlangıç saati, oda ve ders sırasıyla dizilidir.
+ */
+public final class ScheduleIndex {
+
+    // Zaman sırası: tarih, başlangıç, bitiş
+    private static final Comparator<Timeslot> BY_TIME = Comparator.comparing(Timeslot::getDate)
+            .thenComparing(Timeslot::getStart)
+            .thenComparing(Timeslot::getEnd);
+
+    public static final ScheduleIndex EMPTY = new ScheduleIndex(ScheduleStore.EMPTY);
+
+    /** Bir dersin bir slotta bir odadaki sınavı. */
+    public static final class Session {
+        private final String courseId;
+        private final Timeslot timeslot;
+        private final String roomId;
+        private final int studentCount;
+
+        Session(String courseId, Timeslot timeslot, String roomId, int studentCount) {
+            this.courseId = courseId;
+            this.timeslot = timeslot;
+            this.roomId = roomId;
+            this.studentCount = studentCount;
+        }
+
+        public String getCourseId() {
+            return courseId;
+        }
+
+        public Timeslot getTimeslot() {
+            return timeslot;
+        }
+
+        public String getRoomId() {
+            return roomId;
+        }
+
+        public int getStudentCount() {
+            return studentCount;
+        }
+    }
+
+    private final List<Session> sessions;
+    private final Map<String, List<Session>> byCourse = new HashMap<>();
+    private final Map<String, List<Session>> byRoom = new HashMap<>();
+    private final NavigableMap<LocalDate, List<Session>> byDate = new TreeMap<>();
+
+    public ScheduleIndex(ScheduleStore store) {
+        List<Session> all = new ArrayList<>();
+        // Ders başına (slot, oda) -> koltuk sayısı; anahtar slot * odaSayısı + oda
+        Map<Integer, int[]> counts = new LinkedHashMap<>();
+        int rooms = store.roomCount();
+        for (int c = 0; c < store.courseCount(); c++) {
+            counts.clear();
+            for (int i = 0, n = store.courseSize(c); i < n; i++) {
+                int row = store.courseRow(c, i);
+                counts.computeIfAbsent(store.slotOf(row) * rooms + store.roomOf(row), k -> new int[1])[0]++;
+            }
+            for (Map.Entry<Integer, int[]> e : counts.entrySet()) {
+                int slot = e.getKey() / rooms;
+                int room = e.getKey() % rooms;
+                all.add(new Session(store.courseId(c), store.timeslot(slot), store.roomId(room), e.getValue()[0]));
+            }
+        }
+        all.sort(Comparator.comparing(Session::getTimeslot, BY_TIME)
+                .thenComparing(Session::getRoomId)
+                .thenComparing(Session::getCourseId));
+        this.sessions = Collections.unmodifiableList(all);
+
+        for (Session s : all) {
+            byCourse.computeIfAbsent(s.getCourseId(), k -> new ArrayList<>()).add(s);
+            byRoom.computeIfAbsent(s.getRoomId(), k -> new ArrayList<>()).add(s);
+            byDate.computeIfAbsent(s.getTimeslot().getDate(), k -> new ArrayList<>()).add(s);
+        }
+    }
+
+    // Tüm oturumlar, zaman sırasıyla
+    public List<Session> sessions() {
+        return sessions;
+    }
+
+    public List<Session> sessionsOfCourse(String courseId) {
+        return Collections.unmodifiableList(byCourse.getOrDefault(courseId, Collections.emptyList()));
+    }
+
+    public List<Session> sessionsInRoom(String roomId) {
+        return Collections.unmodifiableList(byRoom.getOrDefault(roomId, Collections.emptyList()));
+    }
+
+    public List<Session> sessionsOn(LocalDate date) {
+        return Collections.unmodifiableList(byDate.getOrDefault(date, Collections.emptyList()));
+    }
+
+    // Sınavı olan günler, sıralı
+    public NavigableSet<LocalDate> dates() {
+        return Collections.unmodifiableNavigableSet(byDate.navigableKeySet());
+    }
+
+    // Ders programda (filtreden bağımsız) yer alıyor mu?
+    public boolean isScheduled(String courseId) {
+        return byCourse.containsKey(courseId);
+    }
+}
@@ -0,0 +1,441 @@
+package scheduler.model;
+
+import java.util.*;
+
+/**
+ * Sütun tabanlı, değiştirilemez sınav programı.
+ *
+ * Her koltuk bir satırdır: öğrenci, ders, slot, oda ve koltuk numarası
+ * paralel int dizilerinde tutulur. Satırlar öğrenci kimliği sırasıyla
+ * dizilidir (bir öğrencinin satırları ekleme sırasını korur); ders ve oda
+ * erişimi için ofset tabloları vardır. Kimlikler ve Timeslot'lar sözlüklerde
+ * bir kez saklanır, StudentExam nesneleri yalnızca görünümlerden okunurken
+ * üretilir. Koltuk başına yaklaşık 7 int yer tutar.
+ *
+ * İş parçacıkları arasında serbestçe paylaşılabilir.
+ */
+public final class ScheduleStore implements Iterable<StudentExam> {
+
+    public static final ScheduleStore EMPTY = new Builder().build();
+
+    // Sözlükler (yalnızca en az bir satırda geçen değerler)
+    private final String[] studentIds; // sıralı
+    private final String[] courseIds;  // sıralı
+    private final String[] roomIds;    // sıralı
+    private final Timeslot[] slots;    // ilk görülme sırasıyla
+    private final Map<String, Integer> studentIdx;
+    private final Map<String, Integer> courseIdx;
+    private final Map<String, Integer> roomIdx;
+
+    // Sütunlar
+    private final int[] student;
+    private final int[] course;
+    private final int[] slot;
+    private final int[] room;
+    private final int[] seat;
+
+    // Öğrenci s'nin satırları [studentStart[s], studentStart[s + 1])
+    private final int[] studentStart;
+    // Ders c'nin satır numaraları courseRows[courseStart[c] .. courseStart[c + 1])
+    private final int[] courseStart;
+    private final int[] courseRows;
+    // Oda r'nin satır numaraları roomRows[roomStart[r] .. roomStart[r + 1])
+    private final int[] roomStart;
+    private final int[] roomRows;
+
+    private ScheduleStore(String[] studentIds, String[] courseIds, String[] roomIds, Timeslot[] slots,
+                          int[] student, int[] course, int[] slot, int[] room, int[] seat) {
+        this.studentIds = studentIds;
+        this.courseIds = courseIds;
+        this.roomIds = roomIds;
+        this.slots = slots;
+        this.studentIdx = indexOf(studentIds);
+        this.courseIdx = indexOf(courseIds);
+        this.roomIdx = indexOf(roomIds);
+        this.student = student;
+        this.course = course;
+        this.slot = slot;
+        this.room = room;
+        this.seat = seat;
+
+        this.studentStart = starts(student, studentIds.length);
+        this.courseStart = starts(course, courseIds.length);
+        this.courseRows = rowsBy(course, courseStart);
+        this.roomStart = starts(room, roomIds.length);
+        this.roomRows = rowsBy(room, roomStart);
+    }
+
+    // --- BOYUTLAR ---
+
+    // Koltuk (satır) sayısı
+    public int size() {
+        return student.length;
+    }
+
+    public boolean isEmpty() {
+        return student.length == 0;
+    }
+
+    // En az bir sınavı olan öğrenci sayısı
+    public int studentCount() {
+        return studentIds.length;
+    }
+
+    public int courseCount() {
+        return courseIds.length;
+    }
+
+    public int roomCount() {
+        return roomIds.length;
+    }
+
+    public int slotCount() {
+        return slots.length;
+    }
+
+    // --- SÖZLÜKLER ---
+
+    public String studentId(int student) {
+        return studentIds[student];
+    }
+
+    public String courseId(int course) {
+        return courseIds[course];
+    }
+
+    public String roomId(int room) {
+        return roomIds[room];
+    }
+
+    public Timeslot timeslot(int slot) {
+        return slots[slot];
+    }
+
+    // Bilinmeyen kimlik için -1
+    public int studentOrdinal(String studentId) {
+        return studentIdx.getOrDefault(studentId, -1);
+    }
+
+    public int courseOrdinal(String courseId) {
+        return courseIdx.getOrDefault(courseId, -1);
+    }
+
+    public int roomOrdinal(String roomId) {
+        return roomIdx.getOrDefault(roomId, -1);
+    }
+
+    // Programdaki öğrenciler, kimlik sırasıyla
+    public List<String> studentIds() {
+        return Collections.unmodifiableList(Arrays.asList(studentIds));
+    }
+
+    // --- SÜTUNLAR ---
+
+    public int studentOf(int row) {
+        return student[row];
+    }
+
+    public int courseOf(int row) {
+        return course[row];
+    }
+
+    public int slotOf(int row) {
+        return slot[row];
+    }
+
+    public int roomOf(int row) {
+        return room[row];
+    }
+
+    public int seatOf(int row) {
+        return seat[row];
+    }
+
+    // Öğrencinin i. satırı, i < examCount(student)
+    public int studentRow(int student, int i) {
+        return studentStart[student] + i;
+    }
+
+    // Dersin koltuk sayısı; satırları courseRow(course, 0..courseSize(course))
+    public int courseSize(int course) {
+        return courseStart[course + 1] - courseStart[course];
+    }
+
+    public int courseRow(int course, int i) {
+        return courseRows[courseStart[course] + i];
+    }
+
+    public int roomSize(int room) {
+        return roomStart[room + 1] - roomStart[room];
+    }
+
+    public int roomRow(int room, int i) {
+        return roomRows[roomStart[room] + i];
+    }
+
+    public StudentExam row(int row) {
+        return new StudentExam(studentIds[student[row]], courseIds[course[row]], slots[slot[row]],
+                roomIds[room[row]], seat[row]);
+    }
+
+    // --- GÖRÜNÜMLER (salt okunur) ---
+
+    public int examCount(int student) {
+        return studentStart[student + 1] - studentStart[student];
+    }
+
+    // Öğrencinin sınavları, ekleme sırasıyla (yoksa boş liste)
+    public List<StudentExam> examsOf(String studentId) {
+        int s = studentOrdinal(studentId);
+        return s < 0 ? Collections.emptyList() : new Rows(null, studentStart[s], studentStart[s + 1]);
+    }
+
+    // Dersin tüm koltukları, öğrenci sırasıyla
+    public List<StudentExam> examsOfCourse(String courseId) {
+        int c = courseOrdinal(courseId);
+        return c < 0 ? Collections.emptyList() : new Rows(courseRows, courseStart[c], courseStart[c + 1]);
+    }
+
+    // Odadaki tüm koltuklar, öğrenci sırasıyla
+    public List<StudentExam> examsInRoom(String roomId) {
+        int r = roomOrdinal(roomId);
+        return r < 0 ? Collections.emptyList() : new Rows(roomRows, roomStart[r], roomStart[r + 1]);
+    }
+
+    // Tüm koltuklar, öğrenci kimliği sırasıyla
+    public List<StudentExam> all() {
+        return new Rows(null, 0, student.length);
+    }
+
+    @Override
+    public Iterator<StudentExam> iterator() {
+        return all().iterator();
+    }
+
+    // rows == null ise satır numaraları [from, to), değilse rows[from..to)
+    private final class Rows extends AbstractList<StudentExam> implements RandomAccess {
+        private final int[] rows;
+        private final int from;
+        private final int to;
+
+        Rows(int[] rows, int from, int to) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public StudentExam get(int i) {
+            Objects.checkIndex(i, to - from);
+            return row(rows == null ? from + i : rows[from + i]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    // --- YARDIMCILAR ---
+
+    private static Map<String, Integer> indexOf(String[] ids) {
+        Map<String, Integer> m = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++)
+            m.put(ids[i], i);
+        return m;
+    }
+
+    private static int[] starts(int[] column, int n) {
+        int[] start = new int[n + 1];
+        for (int v : column)
+            start[v + 1]++;
+        for (int i = 0; i < n; i++)
+            start[i + 1] += start[i];
+        return start;
+    }
+
+    // Satır numaralarını sütun değerine göre grupla (grup içinde artan satır sırası)
+    private static int[] rowsBy(int[] column, int[] start) {
+        int[] fill = Arrays.copyOf(start, start.length - 1);
+        int[] rows = new int[column.length];
+        for (int r = 0; r < column.length; r++)
+            rows[fill[column[r]]++] = r;
+        return rows;
+    }
+
+    /**
+     * Satır satır doldurulur. Sözlük metotları (student, course, room, slot)
+     * ordinal döner; add bu ordinallerle nesne ayırmadan satır ekler.
+     * Tek iş parçacığından kullanılmalıdır.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> studentIdx = new HashMap<>();
+        private final List<String> studentIds = new ArrayList<>();
+        private final Map<String, Integer> courseIdx = new HashMap<>();
+        private final List<String> courseIds = new ArrayList<>();
+        private final Map<String, Integer> roomIdx = new HashMap<>();
+        private final List<String> roomIds = new ArrayList<>();
+        // (gün, başlangıç, bitiş) -> slot; Timeslot değer eşitliği tanımlamaz
+        private final Map<Long, Integer> slotIdx = new HashMap<>();
+        private final List<Timeslot> slots = new ArrayList<>();
+
+        private int[] student = new int[16];
+        private int[] course = new int[16];
+        private int[] slot = new int[16];
+        private int[] room = new int[16];
+        private int[] seat = new int[16];
+        private int size = 0;
+
+        public int student(String id) {
+            return intern(id, studentIdx, studentIds);
+        }
+
+        public int course(String id) {
+            return intern(id, courseIdx, courseIds);
+        }
+
+        public int room(String id) {
+            return intern(id, roomIdx, roomIds);
+        }
+
+        public int slot(Timeslot t) {
+            long key = (t.getDate().toEpochDay() << 34)
+                    | ((long) t.getStart().toSecondOfDay() << 17)
+                    | t.getEnd().toSecondOfDay();
+            Integer idx = slotIdx.get(key);
+            if (idx != null)
+                return idx;
+            slots.add(t);
+            slotIdx.put(key, slots.size() - 1);
+            return slots.size() - 1;
+        }
+
+        public Builder add(int student, int course, int slot, int room, int seatNo) {
+            if (size == this.student.length) {
+                int n = size * 2;
+                this.student = Arrays.copyOf(this.student, n);
+                this.course = Arrays.copyOf(this.course, n);
+                this.slot = Arrays.copyOf(this.slot, n);
+                this.room = Arrays.copyOf(this.room, n);
+                this.seat = Arrays.copyOf(this.seat, n);
+            }
+            this.student[size] = student;
+            this.course[size] = course;
+            this.slot[size] = slot;
+            this.room[size] = room;
+            this.seat[size] = seatNo;
+            size++;
+            return this;
+        }
+
+        /**
+         * Sona count satır ayırır ve ilkinin konumunu döner; satırlar set ile
+         * doldurulur. Diziler burada büyütüldüğünden farklı satırlara set
+         * eşzamanlı çağrılabilir (reserve/add ile aynı anda değil).
+         */
+        public int reserve(int count) {
+            int first = size;
+            int n = this.student.length;
+            while (n < size + count)
+                n *= 2;
+            if (n != this.student.length) {
+                this.student = Arrays.copyOf(this.student, n);
+                this.course = Arrays.copyOf(this.course, n);
+                this.slot = Arrays.copyOf(this.slot, n);
+                this.room = Arrays.copyOf(this.room, n);
+                this.seat = Arrays.copyOf(this.seat, n);
+            }
+            size += count;
+            return first;
+        }
+
+        public void set(int row, int student, int course, int slot, int room, int seatNo) {
+            this.student[row] = student;
+            this.course[row] = course;
+            this.slot[row] = slot;
+            this.room[row] = room;
+            this.seat[row] = seatNo;
+        }
+
+        public Builder add(StudentExam se) {
+            return add(student(se.getStudentId()), course(se.getCourseId()), slot(se.getTimeslot()),
+                    room(se.getClassroomId()), se.getSeatNo());
+        }
+
+        /**
+         * Sözlükleri kullanılanlara indirger (kimlikler sıralanır) ve satırları
+         * kararlı sayma sıralamasıyla öğrenciye göre dizer.
+         */
+        public ScheduleStore build() {
+            int[] s = Arrays.copyOf(student, size);
+            int[] c = Arrays.copyOf(course, size);
+            int[] t = Arrays.copyOf(slot, size);
+            int[] r = Arrays.copyOf(room, size);
+
+            String[] sIds = compactSorted(studentIds, s);
+            String[] cIds = compactSorted(courseIds, c);
+            String[] rIds = compactSorted(roomIds, r);
+            Timeslot[] ts = compactInOrder(slots, t);
+
+            int[] start = starts(s, sIds.length);
+            int[] fill = Arrays.copyOf(start, sIds.length);
+            int[] ss = new int[size], cc = new int[size], tt = new int[size], rr = new int[size], nn = new int[size];
+            for (int i = 0; i < size; i++) {
+                int j = fill[s[i]]++;
+                ss[j] = s[i];
+                cc[j] = c[i];
+                tt[j] = t[i];
+                rr[j] = r[i];
+                nn[j] = seat[i];
+            }
+            return new ScheduleStore(sIds, cIds, rIds, ts, ss, cc, tt, rr, nn);
+        }
+
+        private static int intern(String id, Map<String, Integer> idx, List<String> ids) {
+            Integer i = idx.get(id);
+            if (i != null)
+                return i;
+            ids.add(id);
+            idx.put(id, ids.size() - 1);
+            return ids.size() - 1;
+        }
+
+        // Kullanılan kimlikleri sıralar, sütunu yeni ordinallere yeniden yazar
+        private static String[] compactSorted(List<String> ids, int[] column) {
+            boolean[] used = new boolean[ids.size()];
+            for (int v : column)
+                used[v] = true;
+            Integer[] order = new Integer[ids.size()];
+            int n = 0;
+            for (int i = 0; i < used.length; i++) {
+                if (used[i])
+                    order[n++] = i;
+            }
+            Arrays.sort(order, 0, n, Comparator.comparing(ids::get));
+            int[] remap = new int[ids.size()];
+            String[] out = new String[n];
+            for (int i = 0; i < n; i++) {
+                remap[order[i]] = i;
+                out[i] = ids.get(order[i]);
+            }
+            for (int i = 0; i < column.length; i++)
+                column[i] = remap[column[i]];
+            return out;
+        }
+
+        private static Timeslot[] compactInOrder(List<Timeslot> values, int[] column) {
+            int[] remap = new int[values.size()];
+            Arrays.fill(remap, -1);
+            List<Timeslot> out = new ArrayList<>();
+            for (int i = 0; i < column.length; i++) {
+                int v = column[i];
+                if (remap[v] < 0) {
+                    remap[v] = out.size();
+                    out.add(values.get(v));
+                }
+                column[i] = remap[v];
+            }
+            return out.toArray(new Timeslot[0]);
+        }
+    }
+}
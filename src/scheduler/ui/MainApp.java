@@ -38,7 +38,13 @@ import javafx.concurrent.Task;
 // --- Imports for Backend Logic & Models ---
 import scheduler.model.*;
 import scheduler.io.CsvDataLoader;
+import scheduler.config.SchedulingConfig;
+import scheduler.config.SolverParameters;
+import scheduler.core.Diagnosis;
 import scheduler.core.ExamScheduler;
+import scheduler.core.ParetoArchive;
+import scheduler.core.PeriodOptimizer;
+import scheduler.core.SolveResult;
 import scheduler.dao.DBManager;
 import scheduler.export.ExportOtherTypes;
 import java.io.File;
@@ -82,9 +88,16 @@ public class MainApp extends Application {
     // Hata Kayıt Sistemi
     private final List<String> errorLog = new ArrayList<>();
 
-    // Map: StudentID -> List of Scheduled Exams
-    private Map<String, List<StudentExam>> studentScheduleMap = new HashMap<>();
-    private Map<String, String> lastUnscheduledReasons = new HashMap<>();
+    // Koltuk atamaları (öğrenci / ders / oda bazında) ve ders-oda-tarih indeksleri
+    private ScheduleStore studentSchedule = ScheduleStore.EMPTY;
+    private ScheduleIndex scheduleIndex = ScheduleIndex.EMPTY;
+    // Durumsuz çözücü; eşzamanlı koşular arasında paylaşılır
+    private final ExamScheduler scheduler = new ExamScheduler();
+    private Map<String, Diagnosis> lastUnscheduledReasons = new HashMap<>();
+    // Son portföyün baskın olmayan sonuçları; Trade-offs penceresinden yeniden çözmeden seçilir
+    private ParetoArchive paretoArchive = new ParetoArchive(SchedulingConfig.PARETO_ARCHIVE_SIZE);
+    // Çözücü ayarları (profil + kayıtlı değerler); her koşuya bu örnek verilir
+    private SolverParameters solverParameters = SolverParameters.defaults();
 
     // UI Table Data Sources
     private ObservableList<Student> studentObservableList = FXCollections.observableArrayList();
@@ -111,9 +124,11 @@ public class MainApp extends Application {
     // Gün Sayısı ve Sabit Süre
     private TextField txtDays, txtBlockTime;
 
-    private Button btnHelp, btnImport, btnExport, btnApply, btnCustomize;
+    private Button btnHelp, btnImport, btnExport, btnApply, btnTradeoffs, btnShortest, btnCustomize;
     private TextField txtSearch, txtTimeStart, txtTimeEnd;
     private DatePicker startDate, endDate;
+    private ComboBox<SolverParameters.Profile> cmbProfile;
+    private ComboBox<SolverParameters.Strategy> cmbStrategy;
     private ToggleButton tglStudents, tglExams, tglDays, tglClassrooms;
     private ToggleSwitch themeSwitch;
     private Stage primaryStage;
@@ -189,6 +204,15 @@ public class MainApp extends Application {
         }
         btnApply.setOnAction(e -> runSchedulerLogic(true));
 
+        btnTradeoffs = createStyledButton("Trade-offs");
+        btnTradeoffs.setTooltip(new Tooltip("Pick another non-dominated schedule from the last run"));
+        btnTradeoffs.setDisable(true);
+        btnTradeoffs.setOnAction(e -> showTradeoffDialog());
+
+        btnShortest = createStyledButton("Shortest Period");
+        btnShortest.setTooltip(new Tooltip("Find the fewest exam days (from the start date) that fit the schedule"));
+        btnShortest.setOnAction(e -> runPeriodOptimizer());
+
         // Arama
         txtSearch = createStyledTextField("Search...");
         txtSearch.setPrefWidth(200);
@@ -248,7 +272,7 @@ public class MainApp extends Application {
         HBox leftGroup = new HBox(10);
         leftGroup.setAlignment(Pos.CENTER_LEFT);
         leftGroup.getChildren().addAll(btnHelp, lblErrorCount, new Separator(Orientation.VERTICAL), btnImport,
-                btnExport, new Separator(Orientation.VERTICAL), btnApply);
+                btnExport, new Separator(Orientation.VERTICAL), btnApply, btnTradeoffs, btnShortest);
 
         HBox rightGroup = new HBox(10);
         rightGroup.setAlignment(Pos.CENTER_RIGHT);
@@ -363,11 +387,31 @@ public class MainApp extends Application {
         btnCustomize.setMaxWidth(Double.MAX_VALUE);
         btnCustomize.setOnAction(e -> showCustomizationDialog(primaryStage));
 
+        Label lblProfile = new Label("Solver Profile:");
+        cmbProfile = new ComboBox<>(FXCollections.observableArrayList(SolverParameters.Profile.values()));
+        cmbProfile.setMaxWidth(Double.MAX_VALUE);
+        cmbProfile.setValue(solverParameters.getProfile());
+        // Profil yalnızca performans ayarlarını değiştirir (boşluk, günlük sınır ve tohum korunur)
+        cmbProfile.setOnAction(e -> {
+            // Aynı profil yeniden seçilince kayıtlı elle ayarlar korunur
+            if (cmbProfile.getValue() != null && cmbProfile.getValue() != solverParameters.getProfile())
+                solverParameters = cmbProfile.getValue().applyTo(solverParameters);
+        });
+
+        Label lblStrategy = new Label("Solve Strategy:");
+        cmbStrategy = new ComboBox<>(FXCollections.observableArrayList(SolverParameters.Strategy.values()));
+        cmbStrategy.setMaxWidth(Double.MAX_VALUE);
+        cmbStrategy.setValue(solverParameters.getStrategy());
+        cmbStrategy.setOnAction(e -> {
+            if (cmbStrategy.getValue() != null)
+                solverParameters = solverParameters.toBuilder().strategy(cmbStrategy.getValue()).build();
+        });
+
         VBox cardCustom = createCard(
                 "\u2699\uFE0F Customization",
                 "Define exceptions for capacity & duration.",
-                "Click this button to manually override settings for specific courses. For example, you can force 'CS101' to have a duration of 120 mins or require a room with a minimum capacity of 50.",
-                btnCustomize);
+                "Click this button to manually override settings for specific courses. For example, you can force 'CS101' to have a duration of 120 mins or require a room with a minimum capacity of 50.\nSolver Profile: Fast preview solves quickly on a coarse grid with few retries, Balanced is the default, Exhaustive searches longer for fewer unscheduled exams.\nSolve Strategy: Standard places exams one by one, Two-phase picks times first and packs rooms afterwards, Coarse-to-fine solves on an hourly grid and then refines start times on the fine grid.",
+                btnCustomize, lblProfile, cmbProfile, lblStrategy, cmbStrategy);
 
         // Kartları Ekle
         leftPane.getChildren().addAll(cardDate, cardConstraints, cardCustom);
@@ -459,6 +503,12 @@ public class MainApp extends Application {
         String sDateEnd = DBManager.loadSetting("endDate");
         if (sDateEnd != null && !sDateEnd.isEmpty())
             endDate.setValue(LocalDate.parse(sDateEnd));
+
+        SolverParameters loaded = DBManager.loadSolverParameters();
+        cmbProfile.setValue(loaded.getProfile());
+        cmbStrategy.setValue(loaded.getStrategy());
+        solverParameters = loaded;
+        rescheduleSeed = solverParameters.getRandomSeed();
     }
 
     private void restoreRulesFromDB() {
@@ -599,6 +649,106 @@ public class MainApp extends Application {
         dialog.show();
     }
 
+    // Son portföyün baskın olmayan sonuçları; seçilen sonuç çözücü yeniden çalıştırılmadan uygulanır
+    private void showTradeoffDialog() {
+        final ParetoArchive archive = paretoArchive;
+        if (archive.size() < 2) {
+            return;
+        }
+
+        Stage dialog = new Stage();
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.initOwner(root.getScene().getWindow());
+        dialog.setTitle("Schedule Trade-offs");
+
+        VBox layout = new VBox(10);
+        layout.setPadding(new Insets(15));
+
+        String bg = isDarkMode ? DARK_PANEL : LIGHT_PANEL;
+        String text = isDarkMode ? DARK_TEXT : LIGHT_TEXT;
+
+        layout.setStyle("-fx-background-color: " + bg + ";");
+
+        Label lblHeader = new Label("Non-dominated schedules (" + archive.size() + ") - lower is better");
+        lblHeader.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        lblHeader.setTextFill(Color.web(text));
+
+        // Her amaç bir sütun; ilk satır varsayılan (sözlük sırasıyla en iyi) seçimdir
+        TableView<ParetoArchive.Entry> table = new TableView<>();
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        for (ParetoArchive.Objective objective : ParetoArchive.Objective.values()) {
+            TableColumn<ParetoArchive.Entry, String> col = new TableColumn<>(objective.getLabel());
+            col.setCellValueFactory(cell -> {
+                double v = cell.getValue().get(objective);
+                return new SimpleStringProperty(v == Math.rint(v) ? String.valueOf((long) v)
+                        : String.format("%.3f", v));
+            });
+            table.getColumns().add(col);
+        }
+        TableColumn<ParetoArchive.Entry, String> colUtil = new TableColumn<>("Room use");
+        colUtil.setCellValueFactory(cell -> new SimpleStringProperty(String.format("%.1f%%",
+                cell.getValue().getResult().getMetrics().getRoomUtilisation() * 100)));
+        table.getColumns().add(colUtil);
+
+        table.setItems(FXCollections.observableArrayList(archive.front()));
+        table.getSelectionModel().selectFirst();
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        HBox btnBox = new HBox(10);
+        btnBox.setAlignment(Pos.CENTER_RIGHT);
+
+        Button btnUse = new Button("Use Selected");
+        btnUse.setStyle("-fx-background-color: " + ACCENT_COLOR + "; -fx-text-fill: white; -fx-font-weight: bold;");
+        btnUse.disableProperty().bind(table.getSelectionModel().selectedItemProperty().isNull());
+        btnUse.setOnAction(e -> {
+            SolveResult selected = table.getSelectionModel().getSelectedItem().getResult();
+            dialog.close();
+            applyArchivedResult(selected);
+        });
+
+        Button btnClose = new Button("Close");
+        btnClose.setStyle(
+                "-fx-background-color: " + (isDarkMode ? DARK_BTN : LIGHT_BTN) + "; -fx-text-fill: " + text + ";");
+        btnClose.setOnAction(e -> dialog.close());
+
+        btnBox.getChildren().addAll(btnUse, btnClose);
+
+        layout.getChildren().addAll(lblHeader, table, btnBox);
+
+        Scene scene = new Scene(layout, 720, 320);
+        dialog.setScene(scene);
+        dialog.show();
+    }
+
+    // Arşivden seçilen sonucu DB'ye yazar ve gösterir (çözücü çalışmaz)
+    private void applyArchivedResult(SolveResult result) {
+        showLoading();
+
+        errorLog.clear();
+        lblErrorCount.setText("Errors: 0");
+
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() {
+                DBManager.clearScheduleTable();
+                DBManager.clearConflictLog();
+                persistResult(result);
+                Platform.runLater(() -> showResult(result));
+                return null;
+            }
+        };
+
+        task.setOnSucceeded(e -> hideLoading());
+        task.setOnFailed(e -> {
+            hideLoading();
+            logError("Could not apply selected schedule: " + task.getException().getMessage());
+        });
+
+        Thread t = new Thread(task, "exam-schedule-apply");
+        t.setDaemon(true);
+        t.start();
+    }
+
     // FILE PROCESSING
 
     private enum FileType {
@@ -865,9 +1015,11 @@ public class MainApp extends Application {
         allCourses.clear();
         allClassrooms.clear();
         allEnrollments.clear();
-        studentScheduleMap.clear();
+        setSchedule(ScheduleStore.EMPTY);
         lastUnscheduledReasons.clear();
         lastBottleneckStudents.clear();
+        paretoArchive = new ParetoArchive(SchedulingConfig.PARETO_ARCHIVE_SIZE);
+        Platform.runLater(() -> btnTradeoffs.setDisable(true));
 
         // Eski hataları sil
         errorLog.clear();
@@ -969,6 +1121,9 @@ public class MainApp extends Application {
         if (dayWindows.isEmpty())
             return;
 
+        // Koşu boyunca sabit: arka planda profil değişse de bu portföy aynı ayarlarla çözülür
+        final SolverParameters params = solverParameters;
+
         showLoading();
 
         // 7. Arka Plan Görevi
@@ -995,81 +1150,40 @@ public class MainApp extends Application {
                     Collections.shuffle(dayWindowsIn, rnd);
                 }
 
-                final int BEST_OF_N = 10;
-
-                ScheduleRunResult bestResult = java.util.stream.IntStream.range(0, BEST_OF_N)
+                List<SolveResult> runs = java.util.stream.IntStream.range(0, params.getPortfolioRuns())
                         .parallel()
                         .mapToObj(i -> {
                             // Her çekirdek için verinin kopyasını ve özel seed'i kullan
                             long seed = rescheduleSeed + (i * 31);
                             return runSchedulerOnce(
-                                    seed,
+                                    params.withRandomSeed(seed),
                                     new ArrayList<>(studentsIn),
                                     new ArrayList<>(coursesIn),
                                     new ArrayList<>(enrollmentsIn),
                                     new ArrayList<>(classroomsIn),
                                     new ArrayList<>(dayWindowsIn));
                         })
-                        // Sonuçları karşılaştır ve en iyisini seç
-                        .min((r1, r2) -> {
-                            ScheduleScore s1 = computeScore(r1.schedule, r1.reasons);
-                            ScheduleScore s2 = computeScore(r2.schedule, r2.reasons);
-                            // s1 daha iyiyse -1 (önce gelir), s2 daha iyiyse 1
-                            if (s1.betterThan(s2))
-                                return -1;
-                            if (s2.betterThan(s1))
-                                return 1;
-                            return 0;
-                        })
-                        .orElse(null);
+                        .collect(Collectors.toList());
+
+                // Baskın olmayan sonuçları arşivle (koşu sırasıyla; eşitlikte küçük seed kalır)
+                ParetoArchive archive = new ParetoArchive(SchedulingConfig.PARETO_ARCHIVE_SIZE);
+                runs.forEach(archive::offer);
+
+                // Varsayılan seçim: sözlük sırasıyla en iyi (yerleşemeyen, gün, ceza, varyans)
+                SolveResult bestResult = archive.best();
 
                 // Herhangi bir koşu sonucu üretilemediyse çık
                 if (bestResult == null) {
                     return null;
                 }
 
-                // Seçilen en iyi sonucu DB'ye yaz
-                for (List<StudentExam> list : bestResult.schedule.values()) {
-                    for (StudentExam se : list) {
-                        DBManager.insertSchedule(se);
-                    }
-                }
-
-                for (Map.Entry<String, String> entry : bestResult.reasons.entrySet()) {
-                    DBManager.logConflict(entry.getKey(), entry.getValue());
-                }
-
-                // UI thread içinde kullanmak için final kopyalar
-                final ScheduleRunResult chosen = bestResult;
-                final Map<String, String> reasons = chosen.reasons;
+                persistResult(bestResult);
 
+                final SolveResult chosen = bestResult;
                 Platform.runLater(() -> {
-                    studentScheduleMap = chosen.schedule;
-                    lastUnscheduledReasons = reasons;
-                    lastBottleneckStudents = extractBottleneckStudents(reasons);
-
-                    // 1. Master Listeleri Güncelle
-                    masterStudentList.setAll(allStudents);
-                    masterExamList.setAll(allCourses);
-
-                    // 2. Günlük Master Listesini Oluştur
-                    buildMasterDayList();
-
-                    if (!reasons.isEmpty()) {
-                        // Hataları Sınav Koduna Göre Sırala
-                        List<Map.Entry<String, String>> sortedErrors = new ArrayList<>(reasons.entrySet());
-                        sortedErrors.sort((e1, e2) -> naturalCompare(e1.getKey(), e2.getKey()));
-
-                        for (Map.Entry<String, String> entry : sortedErrors) {
-                            logError("Scheduling Failed: " + entry.getKey() + " -> " + entry.getValue());
-                        }
-                    }
-
-                    int totalScheduledExams = studentScheduleMap.values().stream().mapToInt(List::size).sum();
-                    lblStats.setText(String.format("Scheduled: %d total exam entries | %d students assigned",
-                            totalScheduledExams, studentScheduleMap.size()));
-
-                    refreshActiveView();
+                    paretoArchive = archive;
+                    btnTradeoffs.setDisable(archive.size() < 2);
+                    showResult(chosen);
                 });
                 return null;
             }
@@ -1089,6 +1203,72 @@ public class MainApp extends Application {
         t.start();
     }
 
+    /**
+     * Seçili tarih aralığının başından itibaren programın sığdığı en kısa
+     * dönemi arar (PeriodOptimizer) ve o dönemin programını uygular. Son
+     * Apply Schedule ile yüklenen veriyi kullanır.
+     */
+    private void runPeriodOptimizer() {
+        if (allCourses.isEmpty() || allClassrooms.isEmpty() || allEnrollments.isEmpty()) {
+            logError("Shortest Period: load the data with Apply Schedule first.");
+            return;
+        }
+        List<DayWindow> dayWindows = buildDayWindowsFromFilters();
+        if (dayWindows.isEmpty())
+            return;
+
+        saveCurrentState();
+        showLoading();
+
+        errorLog.clear();
+        lblErrorCount.setText("Errors: 0");
+
+        List<Course> coursesIn = new ArrayList<>(allCourses);
+        coursesIn.removeIf(Course::isIgnored);
+        List<Enrollment> enrollmentsIn = new ArrayList<>(allEnrollments);
+        List<Classroom> classroomsIn = new ArrayList<>(allClassrooms);
+        SolverParameters params = solverParameters.withRandomSeed(rescheduleSeed);
+
+        Task<PeriodOptimizer.Result> task = new Task<>() {
+            @Override
+            protected PeriodOptimizer.Result call() {
+                PeriodOptimizer.Result result = new PeriodOptimizer(scheduler)
+                        .optimize(coursesIn, enrollmentsIn, classroomsIn, dayWindows, params);
+
+                DBManager.clearScheduleTable();
+                DBManager.clearConflictLog();
+                persistResult(result.getSchedule());
+                return result;
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            hideLoading();
+            PeriodOptimizer.Result result = task.getValue();
+            // Tek sonuç: önceki portföyün seçenekleri bu döneme ait değil
+            paretoArchive = new ParetoArchive(SchedulingConfig.PARETO_ARCHIVE_SIZE);
+            btnTradeoffs.setDisable(true);
+            showResult(result.getSchedule());
+
+            List<DayWindow> period = result.getPeriod();
+            showInfoDialog("Shortest Period", String.format(
+                    "Shortest feasible period: %d of %d days (%s - %s).%n"
+                            + "Unscheduled exams: %d (same as the full period).%n"
+                            + "Lower bound: %d days, solver runs: %d.",
+                    result.getDays(), dayWindows.size(), period.get(0).getDate(),
+                    period.get(period.size() - 1).getDate(), result.getSchedule().getDiagnoses().size(),
+                    result.getLowerBound(), result.getProbes()));
+        });
+        task.setOnFailed(e -> {
+            hideLoading();
+            logError("Shortest Period failed: " + task.getException().getMessage());
+        });
+
+        Thread t = new Thread(task, "exam-period-optimizer");
+        t.setDaemon(true);
+        t.start();
+    }
+
     // DATE / TIME FILTER HELPERS (LEFT SIDEBAR)
 
     private LocalDate getFilterStartDate() {
@@ -1183,46 +1363,44 @@ public class MainApp extends Application {
         return out;
     }
 
+    // Programı ve ikincil indekslerini birlikte değiştirir (indeks program başına bir kez kurulur)
+    private void setSchedule(ScheduleStore schedule) {
+        studentSchedule = schedule;
+        scheduleIndex = schedule.isEmpty() ? ScheduleIndex.EMPTY : new ScheduleIndex(schedule);
+    }
+
+    // Dersin mevcut filtrelere uyan oturumları, zaman sırasıyla (indeksten)
+    private List<ScheduleIndex.Session> visibleSessionsOf(String courseId) {
+        List<ScheduleIndex.Session> out = new ArrayList<>();
+        for (ScheduleIndex.Session s : scheduleIndex.sessionsOfCourse(courseId)) {
+            if (timeslotMatchesFilters(s.getTimeslot()))
+                out.add(s);
+        }
+        return out;
+    }
+
     // Belirli bir dersin ilk atanmış sınavından tarihi al
     private String getCourseDate(String courseId) {
-        for (List<StudentExam> exams : studentScheduleMap.values()) {
-            for (StudentExam se : exams) {
-                if (!se.getCourseId().equals(courseId))
-                    continue;
-                if (!timeslotMatchesFilters(se.getTimeslot()))
-                    continue;
-                return se.getTimeslot().getDate().toString();
-            }
-        }
-        return "-";
+        List<ScheduleIndex.Session> sessions = visibleSessionsOf(courseId);
+        if (sessions.isEmpty())
+            return "-";
+        return sessions.get(0).getTimeslot().getDate().toString();
     }
 
     // Belirli bir dersin ilk atanmış sınavından saat aralığını al
     private String getCourseTimeRange(String courseId) {
-        for (List<StudentExam> exams : studentScheduleMap.values()) {
-            for (StudentExam se : exams) {
-                if (!se.getCourseId().equals(courseId))
-                    continue;
-                if (!timeslotMatchesFilters(se.getTimeslot()))
-                    continue;
-                return se.getTimeslot().getStart().toString() + " - "
-                        + se.getTimeslot().getEnd().toString();
-            }
-        }
-        return "-";
+        List<ScheduleIndex.Session> sessions = visibleSessionsOf(courseId);
+        if (sessions.isEmpty())
+            return "-";
+        Timeslot ts = sessions.get(0).getTimeslot();
+        return ts.getStart().toString() + " - " + ts.getEnd().toString();
     }
 
     // Belirli bir ders için kullanılan tüm sınıfları topla
     private String getCourseRooms(String courseId) {
         java.util.Set<String> rooms = new java.util.LinkedHashSet<>();
-        for (List<StudentExam> exams : studentScheduleMap.values()) {
-            for (StudentExam se : exams) {
-                if (!se.getCourseId().equals(courseId))
-                    continue;
-                if (!timeslotMatchesFilters(se.getTimeslot()))
-                    continue;
-                rooms.add(se.getClassroomId());
-            }
+        for (ScheduleIndex.Session s : visibleSessionsOf(courseId)) {
+            rooms.add(s.getRoomId());
         }
         if (rooms.isEmpty()) {
             return "-";
@@ -1233,28 +1411,15 @@ public class MainApp extends Application {
     // Belirli bir ders için toplam kaç öğrenci atanmış?
     private int getCourseStudentCount(String courseId) {
         int count = 0;
-        for (List<StudentExam> exams : studentScheduleMap.values()) {
-            for (StudentExam se : exams) {
-                if (!se.getCourseId().equals(courseId))
-                    continue;
-                if (!timeslotMatchesFilters(se.getTimeslot()))
-                    continue;
-                count++;
-            }
+        for (ScheduleIndex.Session s : visibleSessionsOf(courseId)) {
+            count += s.getStudentCount();
         }
         return count;
     }
 
     // Bu ders aslında global schedule'da var mı?
     private boolean isCourseScheduledGlobally(String courseId) {
-        for (List<StudentExam> exams : studentScheduleMap.values()) {
-            for (StudentExam se : exams) {
-                if (se.getCourseId().equals(courseId) && se.getTimeslot() != null) {
-                    return true; // en az bir slot buldu, globalde scheduled
-                }
-            }
-        }
-        return false; // hiç bulunamadı → gerçekten unscheduled
+        return scheduleIndex.isScheduled(courseId);
     }
 
     // Dersin mevcut filtrelere göre ve genel durumda durumu + sebebi
@@ -1370,9 +1535,8 @@ public class MainApp extends Application {
         contentBox.getChildren().addAll(header, new Separator());
         String status = getCourseStatusText(course.getId());
         if (status.startsWith("UNSCHEDULED")) {
-            String reason = lastUnscheduledReasons.get(course.getId());
-            if (reason == null || reason.isBlank())
-                reason = status;
+            Diagnosis diagnosis = lastUnscheduledReasons.get(course.getId());
+            String reason = diagnosis == null ? status : diagnosis.render();
 
             Label lblReason = new Label("Reason: " + reason);
             lblReason.setWrapText(true);
@@ -1452,7 +1616,7 @@ public class MainApp extends Application {
 
     // Öğrencinin o dersteki sınıfını bulur
     private String findStudentRoom(String studentId, String courseId) {
-        List<StudentExam> exams = studentScheduleMap.get(studentId);
+        List<StudentExam> exams = studentSchedule.examsOf(studentId);
         if (exams != null) {
             for (StudentExam se : exams) {
                 if (se.getCourseId().equals(courseId)) {
@@ -1511,7 +1675,7 @@ public class MainApp extends Application {
         TableColumn<Student, String> colExamCount = new TableColumn<>("Exams");
         colExamCount.setCellValueFactory(cell -> {
             String sid = cell.getValue().getId();
-            List<StudentExam> exams = studentScheduleMap.getOrDefault(sid, Collections.emptyList());
+            List<StudentExam> exams = studentSchedule.examsOf(sid);
             exams = filterExamsByCurrentFilters(exams);
             return new SimpleStringProperty(String.valueOf(exams.size()));
         });
@@ -1521,7 +1685,7 @@ public class MainApp extends Application {
         TableColumn<Student, String> colStart = new TableColumn<>("First Exam");
         colStart.setCellValueFactory(cell -> {
             String sid = cell.getValue().getId();
-            List<StudentExam> exams = studentScheduleMap.getOrDefault(sid, Collections.emptyList());
+            List<StudentExam> exams = studentSchedule.examsOf(sid);
             exams = filterExamsByCurrentFilters(exams);
 
             if (exams.isEmpty())
@@ -1539,7 +1703,7 @@ public class MainApp extends Application {
         TableColumn<Student, String> colEnd = new TableColumn<>("Last Exam");
         colEnd.setCellValueFactory(cell -> {
             String sid = cell.getValue().getId();
-            List<StudentExam> exams = studentScheduleMap.getOrDefault(sid, Collections.emptyList());
+            List<StudentExam> exams = studentSchedule.examsOf(sid);
             exams = filterExamsByCurrentFilters(exams);
 
             if (exams.isEmpty())
@@ -1630,7 +1794,7 @@ public class MainApp extends Application {
         detailTable.getColumns().addAll(colCourse, colDate, colTime, colRoom, colSeat);
         detailTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
 
-        List<StudentExam> exams = studentScheduleMap.getOrDefault(student.getId(), Collections.emptyList());
+        List<StudentExam> exams = studentSchedule.examsOf(student.getId());
         exams = filterExamsByCurrentFilters(exams);
         detailTable.setItems(FXCollections.observableArrayList(exams));
 
@@ -1787,21 +1951,10 @@ public class MainApp extends Application {
         TableColumn<Classroom, String> colStart = new TableColumn<>("First Exam Date");
         colStart.setCellValueFactory(cell -> {
             String rid = cell.getValue().getId();
-            LocalDate minDate = null;
-
-            // Tüm programı tara (Biraz maliyetli olabilir ama veri boyutu küçükse sorun
-            // olmaz)
-            for (List<StudentExam> list : studentScheduleMap.values()) {
-                for (StudentExam se : list) {
-                    if (se.getClassroomId().equals(rid) && se.getTimeslot() != null) {
-                        LocalDate d = se.getTimeslot().getDate();
-                        if (minDate == null || d.isBefore(minDate)) {
-                            minDate = d;
-                        }
-                    }
-                }
-            }
-            return new SimpleStringProperty(minDate == null ? "-" : minDate.toString());
+            // Oda oturumları zaman sırasıyla: ilki en erken sınav
+            List<ScheduleIndex.Session> sessions = scheduleIndex.sessionsInRoom(rid);
+            return new SimpleStringProperty(sessions.isEmpty() ? "-"
+                    : sessions.get(0).getTimeslot().getDate().toString());
         });
         colStart.setPrefWidth(110);
 
@@ -1809,19 +1962,9 @@ public class MainApp extends Application {
         TableColumn<Classroom, String> colEnd = new TableColumn<>("Last Exam Date");
         colEnd.setCellValueFactory(cell -> {
             String rid = cell.getValue().getId();
-            LocalDate maxDate = null;
-
-            for (List<StudentExam> list : studentScheduleMap.values()) {
-                for (StudentExam se : list) {
-                    if (se.getClassroomId().equals(rid) && se.getTimeslot() != null) {
-                        LocalDate d = se.getTimeslot().getDate();
-                        if (maxDate == null || d.isAfter(maxDate)) {
-                            maxDate = d;
-                        }
-                    }
-                }
-            }
-            return new SimpleStringProperty(maxDate == null ? "-" : maxDate.toString());
+            List<ScheduleIndex.Session> sessions = scheduleIndex.sessionsInRoom(rid);
+            return new SimpleStringProperty(sessions.isEmpty() ? "-"
+                    : sessions.get(sessions.size() - 1).getTimeslot().getDate().toString());
         });
         colEnd.setPrefWidth(110);
 
@@ -1902,41 +2045,22 @@ public class MainApp extends Application {
 
         scheduleTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
 
-        // --- VERİ HAZIRLAMA (Aggregation Logic) ---
-        Map<String, DayRow> aggregationMap = new HashMap<>();
+        // --- VERİ HAZIRLAMA (oda indeksinden; oturumlar zaten zaman sırasında) ---
         String targetId = classroom.getId() == null ? "" : classroom.getId().trim();
 
-        if (studentScheduleMap != null && !studentScheduleMap.isEmpty()) {
-            for (List<StudentExam> exams : studentScheduleMap.values()) {
-                for (StudentExam se : exams) {
-                    if (se.getClassroomId() == null || !se.getClassroomId().trim().equalsIgnoreCase(targetId))
-                        continue;
-
-                    Timeslot ts = se.getTimeslot();
-                    if (ts == null || !timeslotMatchesFilters(ts))
-                        continue;
-
-                    String key = ts.getDate().toString() + "|" + ts.getStart() + "|" + se.getCourseId();
-
-                    DayRow row = aggregationMap.get(key);
-                    if (row == null) {
-                        row = new DayRow(
-                                ts.getDate().toString(),
-                                ts.getStart() + " - " + ts.getEnd(),
-                                se.getClassroomId(),
-                                se.getCourseId(),
-                                1);
-                        aggregationMap.put(key, row);
-                    } else {
-                        row.increment();
-                    }
-                }
-            }
+        List<DayRow> classroomExams = new ArrayList<>();
+        for (ScheduleIndex.Session s : scheduleIndex.sessionsInRoom(targetId)) {
+            Timeslot ts = s.getTimeslot();
+            if (!timeslotMatchesFilters(ts))
+                continue;
+            classroomExams.add(new DayRow(
+                    ts.getDate().toString(),
+                    ts.getStart() + " - " + ts.getEnd(),
+                    s.getRoomId(),
+                    s.getCourseId(),
+                    s.getStudentCount()));
         }
 
-        List<DayRow> classroomExams = new ArrayList<>(aggregationMap.values());
-        classroomExams.sort(Comparator.comparing(DayRow::getDate).thenComparing(DayRow::getTime));
-
         scheduleTable.setItems(FXCollections.observableArrayList(classroomExams));
 
         Separator sep = new Separator();
@@ -1982,33 +2106,13 @@ public class MainApp extends Application {
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
 
         // 3. Veri Kontrolü: Apply yapılmış mı?
-        if (studentScheduleMap == null || studentScheduleMap.isEmpty()) {
+        if (studentSchedule.isEmpty()) {
             // Apply yapılmamışsa listeyi temizle ve boş listeyi tabloya ver
             masterDayList.clear();
             table.setItems(masterDayList);
         } else {
             // Apply yapılmışsa verileri hesapla ve filtrele
-            Map<String, DayRow> map = new LinkedHashMap<>();
-            for (List<StudentExam> exams : studentScheduleMap.values()) {
-                for (StudentExam se : exams) {
-                    Timeslot ts = se.getTimeslot();
-                    if (ts == null || !timeslotMatchesFilters(ts))
-                        continue;
-
-                    String dateStr = ts.getDate().toString();
-                    String timeStr = ts.getStart().toString() + " - " + ts.getEnd().toString();
-                    String key = dateStr + "|" + timeStr + "|" + se.getClassroomId() + "|" + se.getCourseId();
-
-                    DayRow row = map.get(key);
-                    if (row == null) {
-                        map.put(key, new DayRow(dateStr, timeStr, se.getClassroomId(), se.getCourseId(), 1));
-                    } else {
-                        row.increment();
-                    }
-                }
-            }
-
-            List<DayRow> allRows = new ArrayList<>(map.values());
+            List<DayRow> allRows = sessionRows();
             ObservableList<DayRow> displayRows = FXCollections.observableArrayList();
 
             // Filtreleme Mantığı
@@ -2161,7 +2265,7 @@ public class MainApp extends Application {
                             allCourses.clear();
                             allClassrooms.clear();
                             allEnrollments.clear();
-                            studentScheduleMap.clear();
+                            setSchedule(ScheduleStore.EMPTY);
                             updateStats();
                             refreshActiveView();
                         }
@@ -2406,15 +2510,13 @@ public class MainApp extends Application {
         if ("Student List".equals(type)) {
             rows.add(new String[] { "Student ID", "Total Exams" });
             for (Student s : allStudents) {
-                List<StudentExam> exams = studentScheduleMap.getOrDefault(s.getId(), Collections.emptyList());
+                List<StudentExam> exams = studentSchedule.examsOf(s.getId());
                 rows.add(new String[] { s.getId(), String.valueOf(exams.size()) });
             }
         } else if ("Exam Schedule (Detailed per Student)".equals(type)) {
             rows.add(new String[] { "Student ID", "Course ID", "Date", "Time", "Room", "Seat" });
-            List<StudentExam> all = new ArrayList<>();
-            studentScheduleMap.values().forEach(all::addAll);
-            all.sort(Comparator.comparing(StudentExam::getStudentId));
-            for (StudentExam ex : all) {
+            // Depo satırları zaten öğrenci ID sırasında
+            for (StudentExam ex : studentSchedule) {
                 if (ex.getTimeslot() != null && timeslotMatchesFilters(ex.getTimeslot())) {
                     rows.add(new String[] {
                             ex.getStudentId(), ex.getCourseId(),
@@ -2483,6 +2585,10 @@ public class MainApp extends Application {
             btnExport.setStyle(btnStyle);
         if (btnApply != null)
             btnApply.setStyle(btnStyle);
+        if (btnTradeoffs != null)
+            btnTradeoffs.setStyle(btnStyle);
+        if (btnShortest != null)
+            btnShortest.setStyle(btnStyle);
 
         // Toggle Butonları
         updateToggleStyles();
@@ -2591,7 +2697,7 @@ public class MainApp extends Application {
                 writer.newLine();
 
                 for (Student s : allStudents) {
-                    List<StudentExam> exams = studentScheduleMap.getOrDefault(s.getId(), Collections.emptyList());
+                    List<StudentExam> exams = studentSchedule.examsOf(s.getId());
                     // exams = filterExamsByCurrentFilters(exams); // İstersen filtreyi açabilirsin
                     writer.write(csvEscape(s.getId(), SEP) + SEP + exams.size());
                     writer.newLine();
@@ -2603,15 +2709,8 @@ public class MainApp extends Application {
                         "Student ID" + SEP + "Course ID" + SEP + "Date" + SEP + "Time" + SEP + "Room" + SEP + "Seat");
                 writer.newLine();
 
-                // Sıralı çıktı için listeyi toparlayalım
-                List<StudentExam> allStudentExams = new ArrayList<>();
-                for (List<StudentExam> list : studentScheduleMap.values()) {
-                    allStudentExams.addAll(list);
-                }
-                // Öğrenci ID'ye göre sırala
-                allStudentExams.sort(Comparator.comparing(StudentExam::getStudentId));
-
-                for (StudentExam exam : allStudentExams) {
+                // Depo satırları zaten öğrenci ID sırasında
+                for (StudentExam exam : studentSchedule) {
                     if (exam.getTimeslot() != null && timeslotMatchesFilters(exam.getTimeslot())) {
                         String dateStr = exam.getTimeslot().getDate().format(dtf);
                         String timeStr = exam.getTimeslot().getStart() + " - " + exam.getTimeslot().getEnd();
@@ -2710,7 +2809,7 @@ public class MainApp extends Application {
                         "Student ID" + SEP + "Course ID" + SEP + "Date" + SEP + "Time" + SEP + "Room" + SEP + "Seat");
                 writer.newLine();
 
-                List<StudentExam> exams = studentScheduleMap.getOrDefault(student.getId(), Collections.emptyList());
+                List<StudentExam> exams = studentSchedule.examsOf(student.getId());
                 exams = filterExamsByCurrentFilters(exams);
 
                 for (StudentExam exam : exams) {
@@ -3049,32 +3148,12 @@ public class MainApp extends Application {
 
     // Arama yapabilmek için günlük veriyi önceden hazırlar
     private void buildMasterDayList() {
-        if (studentScheduleMap.isEmpty()) {
+        if (studentSchedule.isEmpty()) {
             masterDayList.clear();
             return;
         }
 
-        Map<String, DayRow> map = new LinkedHashMap<>();
-        for (List<StudentExam> exams : studentScheduleMap.values()) {
-            for (StudentExam se : exams) {
-                Timeslot ts = se.getTimeslot();
-                if (ts == null || !timeslotMatchesFilters(ts))
-                    continue;
-
-                String dateStr = ts.getDate().toString();
-                String timeStr = ts.getStart().toString() + " - " + ts.getEnd().toString();
-                String key = dateStr + "|" + timeStr + "|" + se.getClassroomId() + "|" + se.getCourseId();
-
-                DayRow row = map.get(key);
-                if (row == null) {
-                    map.put(key, new DayRow(dateStr, timeStr, se.getClassroomId(), se.getCourseId(), 1));
-                } else {
-                    row.increment();
-                }
-            }
-        }
-
-        List<DayRow> rows = new ArrayList<>(map.values());
+        List<DayRow> rows = sessionRows();
         // Sıralama
         rows.sort(Comparator.comparing(DayRow::getDate)
                 .thenComparing(DayRow::getTime)
@@ -3083,6 +3162,20 @@ public class MainApp extends Application {
         masterDayList.setAll(rows);
     }
 
+    // Filtrelere uyan tüm (tarih, saat, oda, ders) oturumları, indeksten
+    private List<DayRow> sessionRows() {
+        List<DayRow> rows = new ArrayList<>();
+        for (ScheduleIndex.Session s : scheduleIndex.sessions()) {
+            Timeslot ts = s.getTimeslot();
+            if (!timeslotMatchesFilters(ts))
+                continue;
+            String timeStr = ts.getStart().toString() + " - " + ts.getEnd().toString();
+            rows.add(new DayRow(ts.getDate().toString(), timeStr, s.getRoomId(), s.getCourseId(),
+                    s.getStudentCount()));
+        }
+        return rows;
+    }
+
     // ==== DAY VIEW İÇİN SATIR MODELİ ====
     public static class DayRow {
         private final String date;
@@ -3124,32 +3217,14 @@ public class MainApp extends Application {
         }
     }
 
-    private Set<String> extractBottleneckStudents(Map<String, String> reasons) {
+    private Set<String> extractBottleneckStudents(Map<String, Diagnosis> diagnoses) {
         Set<String> out = new HashSet<>();
-        if (reasons == null || reasons.isEmpty())
+        if (diagnoses == null || diagnoses.isEmpty())
             return out;
 
-        for (String reason : reasons.values()) {
-            if (reason == null)
-                continue;
-            int idx = reason.indexOf("Bottleneck students:");
-            if (idx < 0)
-                continue;
-
-            String tail = reason.substring(idx + "Bottleneck students:".length()).trim();
-            if (tail.isEmpty())
-                continue;
-
-            String[] parts = tail.split(",");
-            for (String p : parts) {
-                String token = p.trim();
-                if (token.isEmpty())
-                    continue;
-                int paren = token.indexOf('(');
-                String sid = (paren > 0) ? token.substring(0, paren).trim() : token;
-                if (!sid.isEmpty())
-                    out.add(sid);
-            }
+        for (Diagnosis d : diagnoses.values()) {
+            if (d != null)
+                out.addAll(d.getBottleneckStudentIds());
         }
         return out;
     }
@@ -3673,6 +3748,7 @@ public class MainApp extends Application {
             DBManager.saveSetting("startDate", startDate.getValue().toString());
         if (endDate.getValue() != null)
             DBManager.saveSetting("endDate", endDate.getValue().toString());
+        DBManager.saveSolverParameters(solverParameters);
 
         // 2. Kural Gruplarını Kaydet (Rules Tablosu)
         DBManager.clearRules();
@@ -3907,77 +3983,57 @@ public class MainApp extends Application {
         return section;
     }
 
-    private static class ScheduleRunResult {
-        Map<String, List<StudentExam>> schedule;
-        Map<String, String> reasons;
+    // Seçilen sonucu DB'ye yazar (çağıran tabloları önceden temizler)
+    private void persistResult(SolveResult result) {
+        for (StudentExam se : result.getSchedule()) {
+            DBManager.insertSchedule(se);
+        }
 
-        ScheduleRunResult(Map<String, List<StudentExam>> s, Map<String, String> r) {
-            this.schedule = s;
-            this.reasons = r;
+        for (Map.Entry<String, Diagnosis> entry : result.getDiagnoses().entrySet()) {
+            DBManager.logConflict(entry.getKey(), entry.getValue().render());
         }
     }
 
-    private static class ScheduleScore {
-        int unscheduledCount;
-        int daysUsed;
-        double studentLoadVariance;
+    // Seçilen sonucu arayüze yükler (UI thread)
+    private void showResult(SolveResult result) {
+        final Map<String, Diagnosis> reasons = result.getDiagnoses();
 
-        boolean betterThan(ScheduleScore other) {
-            if (other == null)
-                return true;
-            if (this.unscheduledCount != other.unscheduledCount)
-                return this.unscheduledCount < other.unscheduledCount;
-            if (this.daysUsed != other.daysUsed)
-                return this.daysUsed < other.daysUsed;
-            return this.studentLoadVariance < other.studentLoadVariance;
-        }
-    }
+        setSchedule(result.getSchedule());
+        lastUnscheduledReasons = reasons;
+        lastBottleneckStudents = extractBottleneckStudents(reasons);
 
-    private ScheduleScore computeScore(
-            Map<String, List<StudentExam>> schedule,
-            Map<String, String> reasons) {
+        // 1. Master Listeleri Güncelle
+        masterStudentList.setAll(allStudents);
+        masterExamList.setAll(allCourses);
 
-        ScheduleScore score = new ScheduleScore();
+        // 2. Günlük Master Listesini Oluştur
+        buildMasterDayList();
 
-        // 1) Unscheduled course sayısı
-        score.unscheduledCount = reasons.size();
+        if (!reasons.isEmpty()) {
+            // Hataları Sınav Koduna Göre Sırala
+            List<Map.Entry<String, Diagnosis>> sortedErrors = new ArrayList<>(reasons.entrySet());
+            sortedErrors.sort((e1, e2) -> naturalCompare(e1.getKey(), e2.getKey()));
 
-        // 2) Kullanılan gün sayısı
-        Set<LocalDate> days = new HashSet<>();
-        for (List<StudentExam> exams : schedule.values()) {
-            for (StudentExam se : exams) {
-                if (se.getTimeslot() != null) {
-                    days.add(se.getTimeslot().getDate());
-                }
+            for (Map.Entry<String, Diagnosis> entry : sortedErrors) {
+                logError("Scheduling Failed: " + entry.getKey() + " -> " + entry.getValue().render());
             }
         }
-        score.daysUsed = days.size();
-
-        // 3) Öğrenci sınav yükü varyansı
-        List<Integer> loads = new ArrayList<>();
-        for (List<StudentExam> exams : schedule.values()) {
-            loads.add(exams.size());
-        }
 
-        double avg = loads.stream().mapToInt(i -> i).average().orElse(0);
-        double variance = 0;
-        for (int l : loads) {
-            variance += Math.pow(l - avg, 2);
-        }
-        score.studentLoadVariance = loads.isEmpty() ? 0 : variance / loads.size();
+        lblStats.setText(String.format("Scheduled: %d total exam entries | %d students assigned",
+                studentSchedule.size(), studentSchedule.studentCount()));
 
-        return score;
+        refreshActiveView();
     }
 
-    private ScheduleRunResult runSchedulerOnce(
-            long seed,
+    private SolveResult runSchedulerOnce(
+            SolverParameters params,
             List<Student> students,
             List<Course> courses,
             List<Enrollment> enrollments,
             List<Classroom> classrooms,
             List<DayWindow> dayWindows) {
 
-        Random rnd = new Random(seed);
+        Random rnd = new Random(params.getRandomSeed());
 
         Collections.shuffle(students, rnd);
         Collections.shuffle(courses, rnd);
@@ -3985,10 +4041,10 @@ public class MainApp extends Application {
         Collections.shuffle(classrooms, rnd);
         Collections.shuffle(dayWindows, rnd);
 
-        ExamScheduler scheduler = new ExamScheduler();
-        Map<String, List<StudentExam>> result = scheduler.run(students, courses, enrollments, classrooms, dayWindows);
-
-        return new ScheduleRunResult(result, scheduler.getUnscheduledReasons());
+        // Tek çözücü tüm paralel koşulara hizmet eder (koşu durumu SolveContext'te); strateji
+        // params'tan seçilir. Seed, girdi karıştırmasının yanında yeniden başlatmaların eşitlik
+        // bozmasını da çeşitlendirir
+        return scheduler.solve(students, courses, enrollments, classrooms, dayWindows, params);
     }
 
     // Tabloyu alıp "Card" görünümlü bir VBox içine koyar
@@ -0,0 +1,441 @@
+package scheduler.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Negatif olmayan int ordinaller için sıkıştırılmış, değiştirilemez küme.
+ *
+ * Değerler üst 16 bitlerine göre parçalara (chunk) bölünür; her parça ya
+ * sıralı bir char dizisi (array container) ya da [başlangıç, bitiş] aralık
+ * listesi (run container) olarak, hangisi daha küçükse öyle saklanır.
+ * Ardışık öğrenci numaralarından oluşan şubeler birkaç aralığa iner.
+ *
+ * Kesişim işlemleri iki kümeyi aralık dizisi gibi yan yana yürür; dizi
+ * container'ı uzunluğu 1 olan aralıklar olarak görülür.
+ */
+public final class CompressedBitmap {
+
+    public static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new Container[0], 0);
+
+    private final char[] keys; // üst 16 bit, sıralı
+    private final Container[] containers;
+    private final int cardinality;
+    private int hash; // 0 = henüz hesaplanmadı
+
+    private CompressedBitmap(char[] keys, Container[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Verilen değerlerden küme oluşturur (sıralama ve tekrar ayıklama yapılır).
+     */
+    public static CompressedBitmap of(int... values) {
+        if (values == null || values.length == 0)
+            return EMPTY;
+        int[] v = values.clone();
+        Arrays.sort(v);
+        int n = 0;
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] < 0)
+                throw new IllegalArgumentException("negatif ordinal: " + v[i]);
+            if (n == 0 || v[n - 1] != v[i])
+                v[n++] = v[i];
+        }
+        return fromSorted(v, n);
+    }
+
+    private static CompressedBitmap fromSorted(int[] v, int n) {
+        if (n == 0)
+            return EMPTY;
+        char[] keys = new char[n];
+        Container[] containers = new Container[n];
+        int chunks = 0;
+        int i = 0;
+        while (i < n) {
+            int high = v[i] >>> 16;
+            int j = i;
+            while (j < n && (v[j] >>> 16) == high)
+                j++;
+            keys[chunks] = (char) high;
+            containers[chunks] = Container.build(v, i, j);
+            chunks++;
+            i = j;
+        }
+        return new CompressedBitmap(Arrays.copyOf(keys, chunks), Arrays.copyOf(containers, chunks), n);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int x) {
+        if (x < 0)
+            return false;
+        int k = Arrays.binarySearch(keys, (char) (x >>> 16));
+        return k >= 0 && containers[k].contains((char) x);
+    }
+
+    // Ortak en az bir eleman var mı? (Collections.disjoint'in tersi)
+    public boolean intersects(CompressedBitmap o) {
+        if (cardinality == 0 || o.cardinality == 0)
+            return false;
+        int i = 0, j = 0;
+        while (i < keys.length && j < o.keys.length) {
+            if (keys[i] < o.keys[j]) {
+                i++;
+            } else if (keys[i] > o.keys[j]) {
+                j++;
+            } else {
+                if (containers[i].intersects(o.containers[j]))
+                    return true;
+                i++;
+                j++;
+            }
+        }
+        return false;
+    }
+
+    public int andCardinality(CompressedBitmap o) {
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < keys.length && j < o.keys.length) {
+            if (keys[i] < o.keys[j]) {
+                i++;
+            } else if (keys[i] > o.keys[j]) {
+                j++;
+            } else {
+                count += containers[i].andCardinality(o.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    // Kesişim kümesi; parçalar aralık görünümü üzerinden yan yana yürünür
+    public CompressedBitmap and(CompressedBitmap o) {
+        int[] out = new int[Math.min(cardinality, o.cardinality)];
+        int n = 0;
+        int i = 0, j = 0;
+        while (i < keys.length && j < o.keys.length) {
+            if (keys[i] < o.keys[j]) {
+                i++;
+            } else if (keys[i] > o.keys[j]) {
+                j++;
+            } else {
+                n = containers[i].and(o.containers[j], keys[i] << 16, out, n);
+                i++;
+                j++;
+            }
+        }
+        return fromSorted(out, n);
+    }
+
+    /**
+     * Ortak elemanların bu kümedeki 0 tabanlı sıralarını out'a
+     * yazar, yazılan sayıyı döner. out en az min(cardinality) uzunlukta
+     * olmalı; nesne ayırmaz.
+     */
+    public int andRanks(CompressedBitmap o, int[] out) {
+        int n = 0;
+        int base = 0;
+        int i = 0, j = 0;
+        while (i < keys.length && j < o.keys.length) {
+            if (keys[i] < o.keys[j]) {
+                base += containers[i].cardinality();
+                i++;
+            } else if (keys[i] > o.keys[j]) {
+                j++;
+            } else {
+                n = containers[i].andRanks(o.containers[j], base, out, n);
+                base += containers[i].cardinality();
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * x'ten küçük veya eşit eleman sayısı; x kümedeyse rank(x) - 1 onun
+     * 0 tabanlı sırasıdır.
+     */
+    public int rank(int x) {
+        int r = 0;
+        int high = x >>> 16;
+        for (int k = 0; k < keys.length; k++) {
+            if (keys[k] < high) {
+                r += containers[k].cardinality();
+            } else {
+                if (keys[k] == high)
+                    r += containers[k].rank((char) x);
+                break;
+            }
+        }
+        return r;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int k = 0; k < keys.length; k++)
+            containers[k].forEach(keys[k] << 16, action);
+    }
+
+    public int[] toArray() {
+        int[] out = new int[cardinality];
+        int[] n = { 0 };
+        forEach(x -> out[n[0]++] = x);
+        return out;
+    }
+
+    // Anahtarlar ve parçalar doğrudan karşılaştırılır (kopya dizi ayrılmaz)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof CompressedBitmap b) || b.cardinality != cardinality || !Arrays.equals(keys, b.keys))
+            return false;
+        for (int k = 0; k < keys.length; k++) {
+            int c = containers[k].cardinality();
+            if (b.containers[k].cardinality() != c || containers[k].andCardinality(b.containers[k]) != c)
+                return false;
+        }
+        return true;
+    }
+
+    // Sıralı elemanların Arrays.hashCode değeri; aralıklar üzerinden bir kez hesaplanır
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && cardinality > 0) {
+            h = 1;
+            for (int k = 0; k < keys.length; k++) {
+                int base = keys[k] << 16;
+                Container c = containers[k];
+                for (int r = 0; r < c.runCount(); r++) {
+                    for (int x = c.start(r); x <= c.end(r); x++)
+                        h = 31 * h + (base | x);
+                }
+            }
+            hash = h;
+        }
+        return cardinality == 0 ? 1 : h;
+    }
+
+    // --- CONTAINERS ---
+
+    /**
+     * Bir 16 bitlik parça. Her iki tür de kendini sıralı aralıklar olarak
+     * (runCount/start/end) gösterir; kesişimler bu ortak görünüm üzerinden.
+     */
+    private abstract static class Container {
+
+        static Container build(int[] v, int from, int to) {
+            int n = to - from;
+            int runs = 1;
+            for (int i = from + 1; i < to; i++) {
+                if (v[i] != v[i - 1] + 1)
+                    runs++;
+            }
+            if (runs * 2 < n) {
+                char[] starts = new char[runs];
+                char[] ends = new char[runs];
+                int r = 0;
+                starts[0] = (char) v[from];
+                for (int i = from + 1; i < to; i++) {
+                    if (v[i] != v[i - 1] + 1) {
+                        ends[r++] = (char) v[i - 1];
+                        starts[r] = (char) v[i];
+                    }
+                }
+                ends[r] = (char) v[to - 1];
+                return new RunContainer(starts, ends, n);
+            }
+            char[] values = new char[n];
+            for (int i = 0; i < n; i++)
+                values[i] = (char) v[from + i];
+            return new ArrayContainer(values);
+        }
+
+        abstract int cardinality();
+
+        abstract int runCount();
+
+        abstract int start(int run);
+
+        abstract int end(int run);
+
+        abstract boolean contains(char x);
+
+        abstract int rank(char x);
+
+        boolean intersects(Container o) {
+            int i = 0, j = 0;
+            int ni = runCount(), nj = o.runCount();
+            while (i < ni && j < nj) {
+                int s = Math.max(start(i), o.start(j));
+                int e = Math.min(end(i), o.end(j));
+                if (s <= e)
+                    return true;
+                if (end(i) < o.end(j))
+                    i++;
+                else
+                    j++;
+            }
+            return false;
+        }
+
+        int andCardinality(Container o) {
+            int count = 0;
+            int i = 0, j = 0;
+            int ni = runCount(), nj = o.runCount();
+            while (i < ni && j < nj) {
+                int s = Math.max(start(i), o.start(j));
+                int e = Math.min(end(i), o.end(j));
+                if (s <= e)
+                    count += e - s + 1;
+                if (end(i) < o.end(j))
+                    i++;
+                else
+                    j++;
+            }
+            return count;
+        }
+
+        int and(Container o, int base, int[] out, int n) {
+            int i = 0, j = 0;
+            int ni = runCount(), nj = o.runCount();
+            while (i < ni && j < nj) {
+                int s = Math.max(start(i), o.start(j));
+                int e = Math.min(end(i), o.end(j));
+                for (int x = s; x <= e; x++)
+                    out[n++] = base | x;
+                if (end(i) < o.end(j))
+                    i++;
+                else
+                    j++;
+            }
+            return n;
+        }
+
+        int andRanks(Container o, int rankBase, int[] out, int n) {
+            int i = 0, j = 0;
+            int ri = 0; // start(i)'nin bu container içindeki sırası
+            int ni = runCount(), nj = o.runCount();
+            while (i < ni && j < nj) {
+                int s = Math.max(start(i), o.start(j));
+                int e = Math.min(end(i), o.end(j));
+                for (int x = s; x <= e; x++)
+                    out[n++] = rankBase + ri + (x - start(i));
+                if (end(i) < o.end(j)) {
+                    ri += end(i) - start(i) + 1;
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return n;
+        }
+
+        void forEach(int base, IntConsumer action) {
+            for (int r = 0; r < runCount(); r++) {
+                for (int x = start(r); x <= end(r); x++)
+                    action.accept(base | x);
+            }
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        int runCount() {
+            return values.length;
+        }
+
+        @Override
+        int start(int run) {
+            return values[run];
+        }
+
+        @Override
+        int end(int run) {
+            return values[run];
+        }
+
+        @Override
+        boolean contains(char x) {
+            return Arrays.binarySearch(values, x) >= 0;
+        }
+
+        @Override
+        int rank(char x) {
+            int idx = Arrays.binarySearch(values, x);
+            return idx >= 0 ? idx + 1 : -idx - 1;
+        }
+    }
+
+    private static final class RunContainer extends Container {
+        private final char[] starts;
+        private final char[] ends; // dahil
+        private final int cardinality;
+
+        RunContainer(char[] starts, char[] ends, int cardinality) {
+            this.starts = starts;
+            this.ends = ends;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int runCount() {
+            return starts.length;
+        }
+
+        @Override
+        int start(int run) {
+            return starts[run];
+        }
+
+        @Override
+        int end(int run) {
+            return ends[run];
+        }
+
+        @Override
+        boolean contains(char x) {
+            int idx = Arrays.binarySearch(starts, x);
+            if (idx >= 0)
+                return true;
+            int run = -idx - 2;
+            return run >= 0 && x <= ends[run];
+        }
+
+        @Override
+        int rank(char x) {
+            int r = 0;
+            for (int i = 0; i < starts.length && starts[i] <= x; i++)
+                r += Math.min(x, ends[i]) - starts[i] + 1;
+            return r;
+        }
+    }
+}
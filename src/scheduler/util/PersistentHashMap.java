@@ -0,0 +1,354 @@
+package scheduler.util;
+
+import java.util.*;
+
+/**
+ * Değiştirilemez (persistent) hash-array-mapped trie.
+ *
+ * plus/minus orijinali değiştirmez, yalnızca kökten değişen yaprağa kadar
+ * olan O(log32 n) düğümü kopyalayıp geri kalanını paylaşan yeni bir harita
+ * döner. Bu sayede bir haritanın "kopyası" O(1)'dir ve aynı örnek kilitsiz
+ * olarak birden çok iş parçacığında okunabilir.
+ *
+ * java.util.Map olarak salt okunur görünür; put/remove desteklenmez.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Leaf leaf = find(key);
+        return leaf == null ? null : (V) leaf.value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        Leaf leaf = find(key);
+        return leaf == null ? defaultValue : (V) leaf.value;
+    }
+
+    // key -> value eklenmiş (veya değiştirilmiş) yeni harita
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node newRoot = put(root, 0, hash(key), key, value, added);
+        if (newRoot == root)
+            return this;
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    // key çıkarılmış yeni harita (yoksa aynı örnek)
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (root == null)
+            return this;
+        Node newRoot = remove(root, 0, hash(key), key);
+        if (newRoot == root)
+            return this;
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new LeafIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // --- TRIE ---
+
+    private interface Node {
+    }
+
+    private static final class Leaf implements Node, Map.Entry<Object, Object> {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object v) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e))
+                return false;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+    }
+
+    // Aynı hash'e sahip farklı anahtarlar
+    private static final class Collision implements Node {
+        final int hash;
+        final Leaf[] leaves;
+
+        Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+    }
+
+    private static final class Branch implements Node {
+        final int bitmap;
+        final Node[] children;
+
+        Branch(int bitmap, Node[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private Leaf find(Object key) {
+        int h = hash(key);
+        Node node = root;
+        int shift = 0;
+        while (node != null) {
+            if (node instanceof Leaf leaf) {
+                return (leaf.hash == h && Objects.equals(leaf.key, key)) ? leaf : null;
+            }
+            if (node instanceof Collision col) {
+                if (col.hash != h)
+                    return null;
+                for (Leaf leaf : col.leaves) {
+                    if (Objects.equals(leaf.key, key))
+                        return leaf;
+                }
+                return null;
+            }
+            Branch b = (Branch) node;
+            int bit = 1 << ((h >>> shift) & MASK);
+            if ((b.bitmap & bit) == 0)
+                return null;
+            node = b.children[Integer.bitCount(b.bitmap & (bit - 1))];
+            shift += BITS;
+        }
+        return null;
+    }
+
+    private static Node put(Node node, int shift, int h, Object key, Object value, boolean[] added) {
+        if (node == null) {
+            added[0] = true;
+            return new Leaf(h, key, value);
+        }
+
+        if (node instanceof Leaf leaf) {
+            if (leaf.hash == h && Objects.equals(leaf.key, key)) {
+                return leaf.value == value ? leaf : new Leaf(h, key, value);
+            }
+            added[0] = true;
+            Leaf fresh = new Leaf(h, key, value);
+            if (leaf.hash == h)
+                return new Collision(h, new Leaf[] { leaf, fresh });
+            return merge(leaf, leaf.hash, fresh, shift);
+        }
+
+        if (node instanceof Collision col) {
+            if (col.hash != h) {
+                added[0] = true;
+                return merge(col, col.hash, new Leaf(h, key, value), shift);
+            }
+            for (int i = 0; i < col.leaves.length; i++) {
+                if (Objects.equals(col.leaves[i].key, key)) {
+                    Leaf[] copy = col.leaves.clone();
+                    copy[i] = new Leaf(h, key, value);
+                    return new Collision(h, copy);
+                }
+            }
+            added[0] = true;
+            Leaf[] copy = Arrays.copyOf(col.leaves, col.leaves.length + 1);
+            copy[col.leaves.length] = new Leaf(h, key, value);
+            return new Collision(h, copy);
+        }
+
+        Branch b = (Branch) node;
+        int bit = 1 << ((h >>> shift) & MASK);
+        int pos = Integer.bitCount(b.bitmap & (bit - 1));
+        if ((b.bitmap & bit) == 0) {
+            added[0] = true;
+            Node[] children = new Node[b.children.length + 1];
+            System.arraycopy(b.children, 0, children, 0, pos);
+            children[pos] = new Leaf(h, key, value);
+            System.arraycopy(b.children, pos, children, pos + 1, b.children.length - pos);
+            return new Branch(b.bitmap | bit, children);
+        }
+        Node child = b.children[pos];
+        Node newChild = put(child, shift + BITS, h, key, value, added);
+        if (newChild == child)
+            return b;
+        Node[] children = b.children.clone();
+        children[pos] = newChild;
+        return new Branch(b.bitmap, children);
+    }
+
+    // Farklı hash'li iki düğümü, ayrıştıkları seviyeye kadar dallandır
+    private static Node merge(Node a, int ha, Leaf b, int shift) {
+        int ia = (ha >>> shift) & MASK;
+        int ib = (b.hash >>> shift) & MASK;
+        if (ia == ib) {
+            return new Branch(1 << ia, new Node[] { merge(a, ha, b, shift + BITS) });
+        }
+        Node[] children = ia < ib ? new Node[] { a, b } : new Node[] { b, a };
+        return new Branch((1 << ia) | (1 << ib), children);
+    }
+
+    private static Node remove(Node node, int shift, int h, Object key) {
+        if (node instanceof Leaf leaf) {
+            return (leaf.hash == h && Objects.equals(leaf.key, key)) ? null : leaf;
+        }
+
+        if (node instanceof Collision col) {
+            if (col.hash != h)
+                return col;
+            for (int i = 0; i < col.leaves.length; i++) {
+                if (Objects.equals(col.leaves[i].key, key)) {
+                    if (col.leaves.length == 2)
+                        return col.leaves[1 - i];
+                    Leaf[] copy = new Leaf[col.leaves.length - 1];
+                    System.arraycopy(col.leaves, 0, copy, 0, i);
+                    System.arraycopy(col.leaves, i + 1, copy, i, copy.length - i);
+                    return new Collision(h, copy);
+                }
+            }
+            return col;
+        }
+
+        Branch b = (Branch) node;
+        int bit = 1 << ((h >>> shift) & MASK);
+        if ((b.bitmap & bit) == 0)
+            return b;
+        int pos = Integer.bitCount(b.bitmap & (bit - 1));
+        Node child = b.children[pos];
+        Node newChild = remove(child, shift + BITS, h, key);
+        if (newChild == child)
+            return b;
+
+        if (newChild == null) {
+            if (b.children.length == 1)
+                return null;
+            Node[] children = new Node[b.children.length - 1];
+            System.arraycopy(b.children, 0, children, 0, pos);
+            System.arraycopy(b.children, pos + 1, children, pos, children.length - pos);
+            // Tek yaprak kaldıysa dalı yukarı katla
+            if (children.length == 1 && !(children[0] instanceof Branch))
+                return children[0];
+            return new Branch(b.bitmap & ~bit, children);
+        }
+
+        if (b.children.length == 1 && !(newChild instanceof Branch))
+            return newChild;
+        Node[] children = b.children.clone();
+        children[pos] = newChild;
+        return new Branch(b.bitmap, children);
+    }
+
+    private static final class LeafIterator<K, V> implements Iterator<Entry<K, V>> {
+        // 32 bit hash / 5 bit = en fazla 7 dal seviyesi + 1 çakışma seviyesi
+        private final Object[][] stack = new Object[9][];
+        private final int[] index = new int[9];
+        private int depth = -1;
+        private Leaf next;
+
+        LeafIterator(Node root) {
+            if (root != null) {
+                stack[0] = new Node[] { root };
+                depth = 0;
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] nodes = stack[depth];
+                if (index[depth] >= nodes.length) {
+                    depth--;
+                    continue;
+                }
+                Object n = nodes[index[depth]++];
+                if (n instanceof Leaf leaf) {
+                    next = leaf;
+                    return;
+                }
+                depth++;
+                stack[depth] = (n instanceof Collision col) ? col.leaves : ((Branch) n).children;
+                index[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            Leaf out = next;
+            advance();
+            return (Entry<K, V>) (Entry<?, ?>) out;
+        }
+    }
+}